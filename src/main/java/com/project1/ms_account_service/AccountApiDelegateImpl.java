@@ -1,6 +1,7 @@
 package com.project1.ms_account_service;
 
 import com.project1.ms_account_service.api.AccountsApiDelegate;
+import com.project1.ms_account_service.business.adapter.CreditProfileCache;
 import com.project1.ms_account_service.business.service.AccountService;
 import com.project1.ms_account_service.business.service.DebitCardService;
 import com.project1.ms_account_service.model.*;
@@ -12,15 +13,22 @@ import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Optional;
+
 @Component
 public class AccountApiDelegateImpl implements AccountsApiDelegate {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private AccountService accountService;
 
     @Autowired
     private DebitCardService debitCardService;
 
+    @Autowired
+    private CreditProfileCache creditProfileCache;
+
     @Override
     public Mono<ResponseEntity<AccountResponse>> getAccountById(String id, ServerWebExchange exchange) {
         return accountService.getAccountById(id)
@@ -34,8 +42,35 @@ public class AccountApiDelegateImpl implements AccountsApiDelegate {
     }
 
     @Override
-    public Mono<ResponseEntity<Flux<AccountResponse>>> getAccountsByCustomer(String customerId, ServerWebExchange exchange) {
-        return Mono.just(ResponseEntity.ok(accountService.getAccountsByCustomerId(customerId)));
+    public Mono<ResponseEntity<Flux<AccountResponse>>> getAccountsByCustomer(String customerId, Integer limit, String cursor,
+                                                                             ServerWebExchange exchange) {
+        if (limit == null && cursor == null) {
+            return Mono.just(ResponseEntity.ok(accountService.getAccountsByCustomerId(customerId)));
+        }
+        return accountService.getAccountsPageByCustomerId(customerId, cursor, limit)
+            .map(page -> {
+                ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                Optional.ofNullable(page.getNextCursor()).ifPresent(nextCursor -> response.header(NEXT_CURSOR_HEADER, nextCursor));
+                return response.body(Flux.fromIterable(page.getAccounts()));
+            });
+    }
+
+    @Override
+    public Mono<ResponseEntity<CustomerAccountSummaryResponse>> getCustomerAccountSummary(String customerId, ServerWebExchange exchange) {
+        return accountService.getCustomerAccountSummary(customerId)
+            .map(ResponseEntity::ok);
+    }
+
+    @Override
+    public Mono<ResponseEntity<CustomerSummaryResponse>> getCustomerSummary(String customerId, ServerWebExchange exchange) {
+        return accountService.getCustomerSummary(customerId)
+            .map(ResponseEntity::ok);
+    }
+
+    @Override
+    public Mono<ResponseEntity<AccountBatchGetResponse>> getAccountsBatch(Mono<AccountBatchGetRequest> accountBatchGetRequest, ServerWebExchange exchange) {
+        return accountService.getAccountsBatch(accountBatchGetRequest)
+            .map(ResponseEntity::ok);
     }
 
     @Override
@@ -44,6 +79,13 @@ public class AccountApiDelegateImpl implements AccountsApiDelegate {
             .map(ResponseEntity.status(HttpStatus.CREATED)::body);
     }
 
+    @Override
+    public Mono<ResponseEntity<AccountBatchCreateResponse>> createAccountsBatch(Mono<AccountBatchCreateRequest> accountBatchCreateRequest,
+                                                                                ServerWebExchange exchange) {
+        return accountService.createAccountsBatch(accountBatchCreateRequest)
+            .map(ResponseEntity::ok);
+    }
+
     @Override
     public Mono<ResponseEntity<AccountBalanceResponse>> getAccountBalance(String accountNumber, ServerWebExchange exchange) {
         return accountService.getAccountBalanceByAccountNumber(accountNumber)
@@ -56,6 +98,20 @@ public class AccountApiDelegateImpl implements AccountsApiDelegate {
             .map(ResponseEntity::ok);
     }
 
+    @Override
+    public Mono<ResponseEntity<AccountBalanceResponse>> depositToAccount(String id, Mono<AccountMovementRequest> accountMovementRequest,
+                                                                         ServerWebExchange exchange) {
+        return accountService.depositToAccount(id, accountMovementRequest)
+            .map(ResponseEntity::ok);
+    }
+
+    @Override
+    public Mono<ResponseEntity<AccountBalanceResponse>> withdrawFromAccount(String id, Mono<AccountMovementRequest> accountMovementRequest,
+                                                                            ServerWebExchange exchange) {
+        return accountService.withdrawFromAccount(id, accountMovementRequest)
+            .map(ResponseEntity::ok);
+    }
+
     @Override
     public Mono<ResponseEntity<Void>> deleteAccountById(String id, ServerWebExchange exchange) {
         return accountService.deleteAccount(id)
@@ -88,4 +144,30 @@ public class AccountApiDelegateImpl implements AccountsApiDelegate {
         return debitCardService.getDebitCardPrimaryAccountBalance(debitCardId)
             .map(ResponseEntity::ok);
     }
+
+    @Override
+    public Mono<ResponseEntity<DebitCardResponse>> getDebitCardByCardNumber(String cardNumber, ServerWebExchange exchange) {
+        return debitCardService.getDebitCardByCardNumber(cardNumber)
+            .map(ResponseEntity::ok);
+    }
+
+    @Override
+    public Mono<ResponseEntity<DebitCardBalanceResponse>> getDebitCardPrimaryBalanceByCardNumber(String cardNumber, ServerWebExchange exchange) {
+        return debitCardService.getDebitCardPrimaryAccountBalanceByCardNumber(cardNumber)
+            .map(ResponseEntity::ok);
+    }
+
+    @Override
+    public Mono<ResponseEntity<DebitCardAuthorizationResponse>> authorizeDebitCardPayment(String cardNumber,
+                                                                                          Mono<AccountMovementRequest> accountMovementRequest,
+                                                                                          ServerWebExchange exchange) {
+        return debitCardService.authorizeDebitCardPayment(cardNumber, accountMovementRequest)
+            .map(ResponseEntity::ok);
+    }
+
+    @Override
+    public Mono<ResponseEntity<Void>> evictCreditProfile(String customerId, ServerWebExchange exchange) {
+        return creditProfileCache.evictCreditProfile(customerId)
+            .thenReturn(ResponseEntity.noContent().build());
+    }
 }
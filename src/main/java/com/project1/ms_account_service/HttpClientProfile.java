@@ -0,0 +1,79 @@
+package com.project1.ms_account_service;
+
+import io.netty.channel.ChannelOption;
+import lombok.Data;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Connection pool and HTTP client settings of one downstream service. Idle connections are closed before the
+ * keep-alive timeout of the downstream can close them under a request, and acquiring a connection fails after
+ * pendingAcquireTimeout instead of waiting for the TimeLimiter of the call
+ */
+@Data
+public class HttpClientProfile {
+
+    private int maxConnections = 50;
+
+    /**
+     * Requests waiting for a connection once every connection is in use, further requests fail at once
+     */
+    private int pendingAcquireMaxCount = 100;
+
+    private Duration pendingAcquireTimeout = Duration.ofMillis(500);
+
+    private Duration maxIdleTime = Duration.ofSeconds(20);
+
+    private Duration maxLifeTime = Duration.ofMinutes(5);
+
+    private Duration evictionInterval = Duration.ofSeconds(10);
+
+    private Duration connectTimeout = Duration.ofSeconds(1);
+
+    /**
+     * Sends Accept-Encoding: gzip and decompresses the responses
+     */
+    private boolean compress = true;
+
+    /**
+     * Upgrades connections to cleartext HTTP/2 when the downstream supports it, keeping HTTP/1.1 otherwise
+     */
+    private boolean http2 = false;
+
+    /**
+     * Publishes the reactor.netty.connection.provider gauges (active, idle and pending connections) of the pool
+     */
+    private boolean metrics = true;
+
+    /**
+     * @param name Pool name, used as the name tag of the pool metrics
+     * @return Pool of this profile, to be disposed with the application
+     */
+    public ConnectionProvider createConnectionProvider(String name) {
+        return ConnectionProvider.builder(name)
+            .maxConnections(maxConnections)
+            .pendingAcquireMaxCount(pendingAcquireMaxCount)
+            .pendingAcquireTimeout(pendingAcquireTimeout)
+            .maxIdleTime(maxIdleTime)
+            .maxLifeTime(maxLifeTime)
+            .evictInBackground(evictionInterval)
+            .metrics(metrics)
+            .build();
+    }
+
+    /**
+     * @param connectionProvider Pool created with {@link #createConnectionProvider(String)}
+     * @return HTTP client of this profile over the pool
+     */
+    public HttpClient createHttpClient(ConnectionProvider connectionProvider) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+            .option(ChannelOption.SO_KEEPALIVE, true)
+            .keepAlive(true)
+            .compress(compress);
+        return http2 ? httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11) : httpClient;
+    }
+}
@@ -0,0 +1,16 @@
+package com.project1.ms_account_service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * HTTP client profile of each downstream service, named like its resilience4j instance
+ */
+@Data
+@ConfigurationProperties(prefix = "application.config.http-clients")
+public class HttpClientProperties {
+
+    private HttpClientProfile customerService = new HttpClientProfile();
+
+    private HttpClientProfile creditService = new HttpClientProfile();
+}
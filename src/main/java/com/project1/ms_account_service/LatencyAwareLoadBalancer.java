@@ -0,0 +1,95 @@
+package com.project1.ms_account_service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Power of two choices: picks two random instances that are not ejected and sends the request to the one with the
+ * lower {@link ServiceInstanceLoadTracker#getCost(ServiceInstance)}, so a slow instance only gets requests while the
+ * others are busier. When every instance is ejected they are all candidates again
+ */
+@Slf4j
+public class LatencyAwareLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider;
+
+    private final String serviceId;
+
+    private final ServiceInstanceLoadTracker serviceInstanceLoadTracker;
+
+    public LatencyAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider, String serviceId,
+                                    ServiceInstanceLoadTracker serviceInstanceLoadTracker) {
+        this.serviceInstanceListSupplierProvider = serviceInstanceListSupplierProvider;
+        this.serviceId = serviceId;
+        this.serviceInstanceLoadTracker = serviceInstanceLoadTracker;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = serviceInstanceListSupplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request)
+            .next()
+            .map(serviceInstances -> {
+                Response<ServiceInstance> response = getInstanceResponse(serviceInstances);
+                if (supplier instanceof SelectedInstanceCallback && response.hasServer()) {
+                    ((SelectedInstanceCallback) supplier).selectedServiceInstance(response.getServer());
+                }
+                return response;
+            });
+    }
+
+    /**
+     * @param instances Instances of the service
+     * @return The less loaded of two random instances, or empty if there are none
+     */
+    Response<ServiceInstance> getInstanceResponse(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            log.warn("No servers available for service: {}", serviceId);
+            return new EmptyResponse();
+        }
+        serviceInstanceLoadTracker.evictIdle();
+        List<ServiceInstance> candidates = instances.stream()
+            .filter(instance -> !serviceInstanceLoadTracker.isEjected(instance))
+            .collect(Collectors.toList());
+        if (candidates.isEmpty()) {
+            candidates = instances;
+        }
+        if (candidates.size() == 1) {
+            return new DefaultResponse(candidates.get(0));
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        return new DefaultResponse(getLessLoaded(candidates.get(first), candidates.get(second)));
+    }
+
+    /**
+     * @return Instance with the lower cost, or with fewer requests in flight when neither has answered yet
+     */
+    private ServiceInstance getLessLoaded(ServiceInstance first, ServiceInstance second) {
+        double firstCost = serviceInstanceLoadTracker.getCost(first);
+        double secondCost = serviceInstanceLoadTracker.getCost(second);
+        if (firstCost != secondCost) {
+            return firstCost < secondCost ? first : second;
+        }
+        return serviceInstanceLoadTracker.getInFlight(first) <= serviceInstanceLoadTracker.getInFlight(second) ? first : second;
+    }
+}
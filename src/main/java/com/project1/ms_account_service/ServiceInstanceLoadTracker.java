@@ -0,0 +1,200 @@
+package com.project1.ms_account_service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Response time and in-flight requests of each downstream instance, keyed by host and port, read by
+ * {@link LatencyAwareLoadBalancer}. Registered as a filter after the load balancer filter, so it sees the URL of the
+ * chosen instance and every attempt of a retried request. Cancelled requests, like the ones timed out by the
+ * TimeLimiter, count as a sample of the time they took. Responses with a 5xx status and connection errors count as
+ * errors, and an instance is ejected for a while after a run of consecutive errors
+ */
+@Component
+@Slf4j
+public class ServiceInstanceLoadTracker implements ExchangeFilterFunction {
+
+    static final int IDLE_DECAYS = 10;
+
+    @Value("${application.config.loadBalancer.decay:10s}")
+    private Duration decay;
+
+    @Value("${application.config.loadBalancer.ejection.errors:3}")
+    private int ejectionErrors;
+
+    @Value("${application.config.loadBalancer.ejection.duration:30s}")
+    private Duration ejectionDuration;
+
+    private LongSupplier nanoClock = System::nanoTime;
+
+    private final AtomicLong nextEvictionAt = new AtomicLong(System.nanoTime());
+
+    private final Map<String, InstanceLoad> loads = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            InstanceLoad load = getLoad(getKey(request.url()));
+            long start = nanoClock.getAsLong();
+            AtomicBoolean completed = new AtomicBoolean();
+            load.inFlight.incrementAndGet();
+            load.usedAt = start;
+            return next.exchange(request)
+                .doOnSuccess(response -> complete(load, start, completed, response != null && response.rawStatusCode() >= 500))
+                .doOnError(error -> complete(load, start, completed, true))
+                .doOnCancel(() -> complete(load, start, completed, false));
+        });
+    }
+
+    /**
+     * @param instance Instance of the downstream
+     * @return Decayed average response time in nanoseconds times the in-flight requests plus one, 0 when it has not answered yet
+     */
+    double getCost(ServiceInstance instance) {
+        InstanceLoad load = getLoad(getKey(instance));
+        return load.getAverage(nanoClock.getAsLong(), decay.toNanos()) * (load.inFlight.get() + 1);
+    }
+
+    int getInFlight(ServiceInstance instance) {
+        return getLoad(getKey(instance)).inFlight.get();
+    }
+
+    boolean isEjected(ServiceInstance instance) {
+        return getLoad(getKey(instance)).isEjected(nanoClock.getAsLong());
+    }
+
+    /**
+     * Drops, at most once per decay, the load of instances that got no request for {@value #IDLE_DECAYS} decays and are
+     * not ejected, like the ones no longer registered, whose average has decayed to nothing anyway
+     */
+    void evictIdle() {
+        long now = nanoClock.getAsLong();
+        long evictionAt = nextEvictionAt.get();
+        if (now - evictionAt < 0 || !nextEvictionAt.compareAndSet(evictionAt, now + decay.toNanos())) {
+            return;
+        }
+        long idleTime = IDLE_DECAYS * decay.toNanos();
+        loads.values().removeIf(load -> load.isIdle(now, idleTime));
+    }
+
+    /**
+     * @param load Load of the instance
+     * @param start Start of the request
+     * @param completed Whether the request was already completed, as a cancel can follow the response
+     * @param failed Whether the request failed
+     */
+    private void complete(InstanceLoad load, long start, AtomicBoolean completed, boolean failed) {
+        if (!completed.compareAndSet(false, true)) {
+            return;
+        }
+        load.inFlight.decrementAndGet();
+        long now = nanoClock.getAsLong();
+        if (failed) {
+            if (load.recordError(now, ejectionErrors, ejectionDuration.toNanos())) {
+                log.warn("Instance {} ejected for {} after {} consecutive errors", load.key, ejectionDuration, ejectionErrors);
+            }
+        } else {
+            load.recordResponse(now - start, now, decay.toNanos());
+        }
+    }
+
+    private InstanceLoad getLoad(String key) {
+        return loads.computeIfAbsent(key, newKey -> new InstanceLoad(newKey, nanoClock.getAsLong()));
+    }
+
+    private static String getKey(ServiceInstance instance) {
+        return instance.getHost() + ":" + instance.getPort();
+    }
+
+    private static String getKey(URI url) {
+        return url.getHost() + ":" + url.getPort();
+    }
+
+    private static final class InstanceLoad {
+        private final String key;
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        private volatile long usedAt;
+
+        private double average;
+
+        private long sampledAt;
+
+        private boolean sampled;
+
+        private int consecutiveErrors;
+
+        private boolean ejected;
+
+        private long ejectedUntil;
+
+        private InstanceLoad(String key, long createdAt) {
+            this.key = key;
+            this.usedAt = createdAt;
+        }
+
+        /**
+         * @param now Current time in nanoseconds
+         * @param decay Time constant of the average in nanoseconds
+         * @return Average decayed by the time since the last sample, so instances that stopped being chosen for being
+         * slow are tried again
+         */
+        private synchronized double getAverage(long now, long decay) {
+            return sampled ? average * Math.exp(-(now - sampledAt) / (double) decay) : 0;
+        }
+
+        /**
+         * Responses slower than the average replace it at once, faster ones are weighted by the time since the last sample
+         */
+        private synchronized void recordResponse(long responseTime, long now, long decay) {
+            double current = getAverage(now, decay);
+            if (!sampled || responseTime > current) {
+                average = responseTime;
+            } else {
+                double weight = Math.exp(-(now - sampledAt) / (double) decay);
+                average = current * weight + responseTime * (1 - weight);
+            }
+            sampled = true;
+            sampledAt = now;
+            consecutiveErrors = 0;
+        }
+
+        /**
+         * @return Whether the instance was ejected by this error
+         */
+        private synchronized boolean recordError(long now, int ejectionErrors, long ejectionDuration) {
+            if (++consecutiveErrors < ejectionErrors) {
+                return false;
+            }
+            consecutiveErrors = 0;
+            ejected = true;
+            ejectedUntil = now + ejectionDuration;
+            return true;
+        }
+
+        private synchronized boolean isEjected(long now) {
+            return ejected && ejectedUntil - now > 0;
+        }
+
+        private boolean isIdle(long now, long idleTime) {
+            return inFlight.get() == 0 && now - usedAt > idleTime && !isEjected(now);
+        }
+    }
+}
@@ -1,14 +1,30 @@
 package com.project1.ms_account_service;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.resources.ConnectionProvider;
 
+/**
+ * Each downstream service gets its own connection pool, so a slow service exhausting its connections does not
+ * keep requests to the other one waiting. Instances of each service are chosen by {@link LatencyAwareLoadBalancer}
+ * from the load that {@link ServiceInstanceLoadTracker} observes on both clients
+ */
 @Configuration
+@EnableConfigurationProperties(HttpClientProperties.class)
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)
 public class WebClientConfig {
 
+    @Autowired
+    private ServiceInstanceLoadTracker serviceInstanceLoadTracker;
+
     @Value("${application.config.customer-service-url}")
     private String customerServiceBaseUrl;
 
@@ -21,16 +37,32 @@ public class WebClientConfig {
         return WebClient.builder();
     }
 
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider customerConnectionProvider(HttpClientProperties httpClientProperties) {
+        return httpClientProperties.getCustomerService().createConnectionProvider("customerService");
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider creditConnectionProvider(HttpClientProperties httpClientProperties) {
+        return httpClientProperties.getCreditService().createConnectionProvider("creditService");
+    }
+
     @Bean("customerWebClient")
-    public WebClient customerWebClient(WebClient.Builder webClientBuilder) {
-        return webClientBuilder
+    public WebClient customerWebClient(WebClient.Builder webClientBuilder, HttpClientProperties httpClientProperties,
+                                       @Qualifier("customerConnectionProvider") ConnectionProvider connectionProvider) {
+        return webClientBuilder.clone()
+                .clientConnector(new ReactorClientHttpConnector(httpClientProperties.getCustomerService().createHttpClient(connectionProvider)))
+                .filter(serviceInstanceLoadTracker)
                 .baseUrl(customerServiceBaseUrl)
                 .build();
     }
 
     @Bean("creditWebClient")
-    public WebClient creditWebClient(WebClient.Builder webClientBuilder) {
-        return webClientBuilder
+    public WebClient creditWebClient(WebClient.Builder webClientBuilder, HttpClientProperties httpClientProperties,
+                                     @Qualifier("creditConnectionProvider") ConnectionProvider connectionProvider) {
+        return webClientBuilder.clone()
+                .clientConnector(new ReactorClientHttpConnector(httpClientProperties.getCreditService().createHttpClient(connectionProvider)))
+                .filter(serviceInstanceLoadTracker)
                 .baseUrl(creditServiceBaseUrl)
                 .build();
     }
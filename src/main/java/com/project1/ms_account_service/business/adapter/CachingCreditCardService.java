@@ -0,0 +1,33 @@
+package com.project1.ms_account_service.business.adapter;
+
+import com.project1.ms_account_service.model.CreditCardResponse;
+import com.project1.ms_account_service.model.CreditDebtsResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Serves credit cards and debts from the {@link CreditProfileCache}, so a create flow that needs
+ * both hits the credit service once per customer and later flows usually not at all.
+ */
+@Service
+@Primary
+public class CachingCreditCardService implements CreditCardService {
+
+    @Autowired
+    private CreditProfileCache creditProfileCache;
+
+    @Override
+    public Flux<CreditCardResponse> getCustomerCreditCards(String customerId) {
+        return creditProfileCache.getCreditProfile(customerId)
+            .flatMapMany(CreditProfile::creditCardsFlux);
+    }
+
+    @Override
+    public Mono<CreditDebtsResponse> getCreditDebtsByCustomerId(String customerId) {
+        return creditProfileCache.getCreditProfile(customerId)
+            .flatMap(CreditProfile::creditDebtsMono);
+    }
+}
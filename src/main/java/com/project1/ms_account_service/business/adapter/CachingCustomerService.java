@@ -0,0 +1,118 @@
+package com.project1.ms_account_service.business.adapter;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.project1.ms_account_service.exception.NotFoundException;
+import com.project1.ms_account_service.model.CustomerResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Read-through cache in front of {@link CustomerServiceImpl}.
+ * Concurrent lookups for the same id share one in-flight request, and NOT_FOUND answers
+ * are remembered for a shorter time than found customers.
+ */
+@Service
+@Primary
+@Slf4j
+public class CachingCustomerService implements CustomerService {
+
+    static final String CACHE_NAME = "customerCache";
+
+    @Autowired
+    private CustomerServiceImpl customerServiceImpl;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${application.config.cache.customer.maximumSize:10000}")
+    private long maximumSize;
+
+    @Value("${application.config.cache.customer.ttl:60s}")
+    private Duration ttl;
+
+    @Value("${application.config.cache.customer.notFoundTtl:5s}")
+    private Duration notFoundTtl;
+
+    private AsyncCache<String, CustomerLookup> cache;
+
+    @PostConstruct
+    void initCache() {
+        cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfter(new CustomerLookupExpiry())
+            .recordStats()
+            .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    @Override
+    public Mono<CustomerResponse> getCustomerById(String id) {
+        // copy() keeps a cancelled subscriber from cancelling the load shared with other callers
+        return Mono.fromFuture(() -> cache.get(id, (key, executor) -> load(key)).copy())
+            .flatMap(CustomerLookup::toMono);
+    }
+
+    private CompletableFuture<CustomerLookup> load(String id) {
+        return customerServiceImpl.getCustomerById(id)
+            .map(CustomerLookup::found)
+            .onErrorResume(NotFoundException.class, e -> Mono.just(CustomerLookup.notFound(e)))
+            .doOnError(e -> log.warn("Customer lookup for {} not cached: {}", id, e.getMessage()))
+            .toFuture();
+    }
+
+    private static final class CustomerLookup {
+        private final CustomerResponse customer;
+
+        private final NotFoundException notFound;
+
+        private CustomerLookup(CustomerResponse customer, NotFoundException notFound) {
+            this.customer = customer;
+            this.notFound = notFound;
+        }
+
+        static CustomerLookup found(CustomerResponse customer) {
+            return new CustomerLookup(customer, null);
+        }
+
+        static CustomerLookup notFound(NotFoundException notFound) {
+            return new CustomerLookup(null, notFound);
+        }
+
+        boolean isNotFound() {
+            return notFound != null;
+        }
+
+        Mono<CustomerResponse> toMono() {
+            return isNotFound() ? Mono.error(new NotFoundException(notFound.getMessage())) : Mono.just(customer);
+        }
+    }
+
+    private final class CustomerLookupExpiry implements Expiry<String, CustomerLookup> {
+        @Override
+        public long expireAfterCreate(String key, CustomerLookup value, long currentTime) {
+            return (value.isNotFound() ? notFoundTtl : ttl).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CustomerLookup value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CustomerLookup value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
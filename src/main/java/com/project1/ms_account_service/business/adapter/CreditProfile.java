@@ -0,0 +1,90 @@
+package com.project1.ms_account_service.business.adapter;
+
+import com.project1.ms_account_service.exception.BadRequestException;
+import com.project1.ms_account_service.exception.InternalServerErrorException;
+import com.project1.ms_account_service.exception.NotFoundException;
+import com.project1.ms_account_service.model.CreditCardResponse;
+import com.project1.ms_account_service.model.CreditDebtsResponse;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Credit service answers for one customer: the credit cards and the debts check.
+ * Each half keeps its own outcome so a failure in one does not hide the other.
+ */
+@Getter
+@AllArgsConstructor
+public class CreditProfile {
+    private final List<CreditCardResponse> creditCards;
+
+    private final CreditProfileError creditCardsError;
+
+    private final CreditDebtsResponse creditDebts;
+
+    private final CreditProfileError creditDebtsError;
+
+    public Flux<CreditCardResponse> creditCardsFlux() {
+        return creditCardsError != null ? Flux.error(creditCardsError.toException()) : Flux.fromIterable(creditCards);
+    }
+
+    public Mono<CreditDebtsResponse> creditDebtsMono() {
+        return creditDebtsError != null ? Mono.error(creditDebtsError.toException()) : Mono.justOrEmpty(creditDebts);
+    }
+
+    /**
+     * Only answers given by the credit service are worth keeping; unavailability errors are not.
+     */
+    public boolean isCacheable() {
+        return isDefinitive(creditCardsError) && isDefinitive(creditDebtsError);
+    }
+
+    private static boolean isDefinitive(CreditProfileError error) {
+        return error == null || error.kind == CreditProfileError.Kind.NOT_FOUND;
+    }
+
+    /**
+     * Kind and message of a failed half. Every subscriber gets a new exception built from them, so stack traces and
+     * suppressed exceptions of one request never end up on the exception of another
+     */
+    public static final class CreditProfileError {
+        private enum Kind { NOT_FOUND, BAD_REQUEST, INTERNAL_SERVER_ERROR }
+
+        private final Kind kind;
+
+        private final String message;
+
+        private CreditProfileError(Kind kind, String message) {
+            this.kind = kind;
+            this.message = message;
+        }
+
+        /**
+         * @param error Error of the credit service call, already mapped by its fallbacks
+         * @return Error of the half, unexpected errors are replayed as internal server errors
+         */
+        static CreditProfileError of(Throwable error) {
+            if (error instanceof NotFoundException) {
+                return new CreditProfileError(Kind.NOT_FOUND, error.getMessage());
+            }
+            if (error instanceof BadRequestException) {
+                return new CreditProfileError(Kind.BAD_REQUEST, error.getMessage());
+            }
+            return new CreditProfileError(Kind.INTERNAL_SERVER_ERROR, error.getMessage());
+        }
+
+        RuntimeException toException() {
+            switch (kind) {
+                case NOT_FOUND:
+                    return new NotFoundException(message);
+                case BAD_REQUEST:
+                    return new BadRequestException(message);
+                default:
+                    return new InternalServerErrorException(message);
+            }
+        }
+    }
+}
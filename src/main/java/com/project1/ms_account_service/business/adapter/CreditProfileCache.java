@@ -0,0 +1,119 @@
+package com.project1.ms_account_service.business.adapter;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.project1.ms_account_service.model.CreditCardResponse;
+import com.project1.ms_account_service.model.CreditDebtsResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Keeps the credit cards and the debts check of a customer together as one {@link CreditProfile}.
+ * Both halves are loaded concurrently on a miss and concurrent callers share that load.
+ */
+@Component
+@Slf4j
+public class CreditProfileCache {
+
+    static final String CACHE_NAME = "creditProfileCache";
+
+    @Autowired
+    private CreditCardServiceImpl creditCardServiceImpl;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${application.config.cache.creditProfile.maximumSize:10000}")
+    private long maximumSize;
+
+    @Value("${application.config.cache.creditProfile.ttl:30s}")
+    private Duration ttl;
+
+    private AsyncCache<String, CreditProfile> cache;
+
+    @PostConstruct
+    void initCache() {
+        cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfter(new CreditProfileExpiry())
+            .recordStats()
+            .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public Mono<CreditProfile> getCreditProfile(String customerId) {
+        // copy() keeps a cancelled subscriber from cancelling the load shared with other callers
+        return Mono.fromFuture(() -> cache.get(customerId, (key, executor) -> load(key)).copy());
+    }
+
+    public Mono<Void> evictCreditProfile(String customerId) {
+        return Mono.fromRunnable(() -> cache.synchronous().invalidate(customerId))
+            .doOnSuccess(v -> log.info("Evicted credit profile of customer: {}", customerId))
+            .then();
+    }
+
+    private CompletableFuture<CreditProfile> load(String customerId) {
+        Mono<CreditProfileHalf<List<CreditCardResponse>>> creditCards = creditCardServiceImpl.getCustomerCreditCards(customerId)
+            .collectList()
+            .map(CreditProfileHalf::of)
+            .onErrorResume(e -> Mono.just(CreditProfileHalf.failed(e)));
+        Mono<CreditProfileHalf<CreditDebtsResponse>> creditDebts = creditCardServiceImpl.getCreditDebtsByCustomerId(customerId)
+            .map(CreditProfileHalf::of)
+            .defaultIfEmpty(CreditProfileHalf.of(null))
+            .onErrorResume(e -> Mono.just(CreditProfileHalf.failed(e)));
+
+        return Mono.zip(creditCards, creditDebts)
+            .map(tuple -> new CreditProfile(
+                tuple.getT1().value, tuple.getT1().error,
+                tuple.getT2().value, tuple.getT2().error))
+            .toFuture();
+    }
+
+    private static final class CreditProfileHalf<T> {
+        private final T value;
+
+        private final CreditProfile.CreditProfileError error;
+
+        private CreditProfileHalf(T value, CreditProfile.CreditProfileError error) {
+            this.value = value;
+            this.error = error;
+        }
+
+        static <T> CreditProfileHalf<T> of(T value) {
+            return new CreditProfileHalf<>(value, null);
+        }
+
+        static <T> CreditProfileHalf<T> failed(Throwable error) {
+            return new CreditProfileHalf<>(null, CreditProfile.CreditProfileError.of(error));
+        }
+    }
+
+    private final class CreditProfileExpiry implements Expiry<String, CreditProfile> {
+        @Override
+        public long expireAfterCreate(String key, CreditProfile value, long currentTime) {
+            // profiles that are not cacheable still reach the in-flight callers, then are dropped right away
+            return value.isCacheable() ? ttl.toNanos() : 0L;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CreditProfile value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CreditProfile value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
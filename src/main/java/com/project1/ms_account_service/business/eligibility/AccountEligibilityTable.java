@@ -0,0 +1,79 @@
+package com.project1.ms_account_service.business.eligibility;
+
+import com.project1.ms_account_service.model.entity.AccountType;
+import com.project1.ms_account_service.model.entity.BusinessCustomerType;
+import com.project1.ms_account_service.model.entity.CustomerType;
+import com.project1.ms_account_service.model.entity.PersonalCustomerType;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.project1.ms_account_service.business.eligibility.EligibilityCheck.CREDIT_DEBTS;
+
+/**
+ * Decision table of the account creation rules, keyed by customer type, customer subtype and
+ * account type. It is built once, so every request resolves its rule with a few map lookups
+ * and combinations that can never be accepted are rejected before any remote call.
+ */
+@Component
+public class AccountEligibilityTable {
+
+    static final String STANDARD_SUBTYPE = "STANDARD";
+
+    private final Map<CustomerType, Map<String, Map<AccountType, EligibilityRule>>> rules = new EnumMap<>(CustomerType.class);
+
+    public AccountEligibilityTable() {
+        Map<AccountType, EligibilityRule> personal = new EnumMap<>(AccountType.class);
+        personal.put(AccountType.SAVINGS, EligibilityRule.require(CREDIT_DEBTS));
+        personal.put(AccountType.CHECKING, EligibilityRule.require(CREDIT_DEBTS));
+        personal.put(AccountType.FIXED_TERM, EligibilityRule.require(CREDIT_DEBTS));
+
+        Map<AccountType, EligibilityRule> personalVip = new EnumMap<>(AccountType.class);
+        personalVip.put(AccountType.SAVINGS, EligibilityRule.requireCreditCard(
+            "PERSONAL VIP customers must have at least one CREDIT CARD for SAVINGS account", CREDIT_DEBTS));
+        personalVip.put(AccountType.CHECKING, EligibilityRule.reject("PERSONAL VIP customers can just have SAVINGS account"));
+        personalVip.put(AccountType.FIXED_TERM, EligibilityRule.reject("PERSONAL VIP customers can just have SAVINGS account"));
+
+        Map<AccountType, EligibilityRule> business = new EnumMap<>(AccountType.class);
+        business.put(AccountType.SAVINGS, EligibilityRule.reject("BUSINESS customers cannot have " + AccountType.SAVINGS + " account"));
+        business.put(AccountType.CHECKING, EligibilityRule.require(CREDIT_DEBTS));
+        business.put(AccountType.FIXED_TERM, EligibilityRule.reject("BUSINESS customers cannot have " + AccountType.FIXED_TERM + " account"));
+
+        Map<AccountType, EligibilityRule> businessPyme = new EnumMap<>(AccountType.class);
+        businessPyme.put(AccountType.SAVINGS, EligibilityRule.reject("BUSINESS PYME customers can just have CHECKING account"));
+        businessPyme.put(AccountType.CHECKING, EligibilityRule.requireCreditCard(
+            "BUSINESS PYME customers must have at least one CREDIT CARD for CHECKING account", CREDIT_DEBTS));
+        businessPyme.put(AccountType.FIXED_TERM, EligibilityRule.reject("BUSINESS PYME customers can just have CHECKING account"));
+
+        Map<String, Map<AccountType, EligibilityRule>> personalRules = new HashMap<>();
+        personalRules.put(STANDARD_SUBTYPE, personal);
+        personalRules.put(PersonalCustomerType.VIP.toString(), personalVip);
+        rules.put(CustomerType.PERSONAL, personalRules);
+
+        Map<String, Map<AccountType, EligibilityRule>> businessRules = new HashMap<>();
+        businessRules.put(STANDARD_SUBTYPE, business);
+        businessRules.put(BusinessCustomerType.PYME.toString(), businessPyme);
+        rules.put(CustomerType.BUSINESS, businessRules);
+    }
+
+    /**
+     * Resolves the rule of a combination. Any customer type other than PERSONAL follows the
+     * BUSINESS rules and unknown subtypes follow the standard ones.
+     *
+     * @param customerType Customer type as returned by the customer service
+     * @param subType      Customer subtype as returned by the customer service, may be null
+     * @param accountType  Requested account type
+     * @return Rule to apply
+     */
+    public EligibilityRule getRule(String customerType, String subType, AccountType accountType) {
+        Map<String, Map<AccountType, EligibilityRule>> subTypeRules = CustomerType.PERSONAL.toString().equals(customerType)
+            ? rules.get(CustomerType.PERSONAL)
+            : rules.get(CustomerType.BUSINESS);
+        Map<AccountType, EligibilityRule> accountTypeRules = subType == null
+            ? subTypeRules.get(STANDARD_SUBTYPE)
+            : subTypeRules.getOrDefault(subType, subTypeRules.get(STANDARD_SUBTYPE));
+        return accountTypeRules.get(accountType);
+    }
+}
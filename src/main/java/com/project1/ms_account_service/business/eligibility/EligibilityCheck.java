@@ -0,0 +1,10 @@
+package com.project1.ms_account_service.business.eligibility;
+
+/**
+ * Remote lookups an account creation may need before it can be accepted.
+ * The one SAVINGS / one CHECKING rule needs no lookup, it is enforced by unique indexes on save.
+ */
+public enum EligibilityCheck {
+    CREDIT_CARDS,
+    CREDIT_DEBTS
+}
@@ -0,0 +1,43 @@
+package com.project1.ms_account_service.business.eligibility;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Outcome of the eligibility table for one (customer type, subtype, account type) combination:
+ * either an immediate rejection or the remote checks that still have to pass
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class EligibilityRule {
+    private final String rejectionMessage;
+
+    private final Set<EligibilityCheck> checks;
+
+    private final String missingCreditCardMessage;
+
+    public static EligibilityRule reject(String rejectionMessage) {
+        return new EligibilityRule(rejectionMessage, Collections.emptySet(), null);
+    }
+
+    public static EligibilityRule require(EligibilityCheck first, EligibilityCheck... rest) {
+        return new EligibilityRule(null, Collections.unmodifiableSet(EnumSet.of(first, rest)), null);
+    }
+
+    public static EligibilityRule requireCreditCard(String missingCreditCardMessage, EligibilityCheck... rest) {
+        return new EligibilityRule(null, Collections.unmodifiableSet(EnumSet.of(EligibilityCheck.CREDIT_CARDS, rest)), missingCreditCardMessage);
+    }
+
+    public boolean isRejected() {
+        return rejectionMessage != null;
+    }
+
+    public boolean requires(EligibilityCheck check) {
+        return checks.contains(check);
+    }
+}
@@ -1,5 +1,6 @@
 package com.project1.ms_account_service.business.factory;
 
+import com.project1.ms_account_service.business.generator.AccountNumberGenerator;
 import com.project1.ms_account_service.business.mapper.AccountMapper;
 import com.project1.ms_account_service.model.AccountRequest;
 import com.project1.ms_account_service.model.entity.*;
@@ -26,6 +27,9 @@ public class CheckingAccountCreator implements AccountCreator {
     @Autowired
     private AccountMapper accountMapper;
 
+    @Autowired
+    private AccountNumberGenerator accountNumberGenerator;
+
     @Override
     public Account createAccount(AccountRequest request, CustomerType customerType) {
         return CheckingAccount.builder()
@@ -39,7 +43,7 @@ public class CheckingAccountCreator implements AccountCreator {
             .balance(request.getInitialBalance())
             .creationDate(LocalDateTime.now())
             .status(AccountStatus.ACTIVE)
-            .accountNumber(Account.generateAccountNumber())
+            .accountNumber(accountNumberGenerator.nextAccountNumber())
             .holders(request.getHolders()
                 .stream()
                 .map(accountMapper::getAccountMember)
@@ -1,5 +1,6 @@
 package com.project1.ms_account_service.business.factory;
 
+import com.project1.ms_account_service.business.generator.AccountNumberGenerator;
 import com.project1.ms_account_service.business.mapper.AccountMapper;
 import com.project1.ms_account_service.model.AccountRequest;
 import com.project1.ms_account_service.model.entity.*;
@@ -29,6 +30,9 @@ public class FixedTermAccountCreator implements AccountCreator {
     @Autowired
     private AccountMapper accountMapper;
 
+    @Autowired
+    private AccountNumberGenerator accountNumberGenerator;
+
     @Override
     public Account createAccount(AccountRequest request, CustomerType customerType) {
         com.project1.ms_account_service.model.FixedTermAccount fixedTermRequest = (com.project1.ms_account_service.model.FixedTermAccount) request;
@@ -48,7 +52,7 @@ public class FixedTermAccountCreator implements AccountCreator {
             .balance(request.getInitialBalance())
             .creationDate(LocalDateTime.now())
             .status(AccountStatus.ACTIVE)
-            .accountNumber(Account.generateAccountNumber())
+            .accountNumber(accountNumberGenerator.nextAccountNumber())
             .holders(request.getHolders()
                 .stream()
                 .map(accountMapper::getAccountMember)
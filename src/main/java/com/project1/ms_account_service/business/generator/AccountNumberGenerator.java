@@ -0,0 +1,8 @@
+package com.project1.ms_account_service.business.generator;
+
+/**
+ * Source of the account numbers of new accounts, selected with application.config.accounts.accountNumber.generator
+ */
+public interface AccountNumberGenerator {
+    String nextAccountNumber();
+}
@@ -0,0 +1,159 @@
+package com.project1.ms_account_service.business.generator;
+
+import com.project1.ms_account_service.model.entity.SequenceCounter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PostConstruct;
+import java.nio.CharBuffer;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Debit card numbers (PAN): the configured BIN, an account identifier and a Luhn check digit, 16 digits in total.
+ * Account identifiers come from a sequence kept in the {@value #COUNTER_ID} counter document, which is reserved
+ * a block at a time with one atomic $inc, so instances never hand out the same sequence and numbers are taken
+ * from memory without locks until the block runs out. Sequences go through a keyed {@link FeistelPermutation}
+ * so consecutive cards do not get consecutive numbers.
+ * The BIN and the permutation key must not change once cards are issued with them, or numbers may repeat
+ */
+@Component
+@Slf4j
+public class CardNumberAllocator {
+
+    static final String COUNTER_ID = "debit-card-number";
+
+    static final int CARD_NUMBER_DIGITS = 16;
+
+    @Autowired
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Value("${application.config.debitCards.cardNumber.bin:400000}")
+    private String bin;
+
+    @Value("${application.config.debitCards.cardNumber.blockSize:1000}")
+    private int blockSize;
+
+    @Value("${application.config.debitCards.cardNumber.permutationKey:6502721932185327491}")
+    private long permutationKey;
+
+    private long sequenceLimit;
+
+    private FeistelPermutation permutation;
+
+    private final AtomicReference<SequenceBlock> currentBlock = new AtomicReference<>(new SequenceBlock(0, 0));
+
+    @PostConstruct
+    void init() {
+        if (bin == null || !bin.matches("[1-9][0-9]{0,7}")) {
+            throw new IllegalStateException("Card number BIN must have between 1 and 8 digits but was " + bin);
+        }
+        if (blockSize < 1) {
+            throw new IllegalStateException("Card number block size must be positive but was " + blockSize);
+        }
+        sequenceLimit = (long) Math.pow(10, CARD_NUMBER_DIGITS - 1 - bin.length());
+        permutation = new FeistelPermutation(sequenceLimit, permutationKey);
+    }
+
+    /**
+     * Takes the next sequence of the current block, reserving a new block first when it is exhausted.
+     * Concurrent callers that find the block exhausted wait for the same reservation
+     *
+     * @return Next card number
+     */
+    public Mono<String> nextCardNumber() {
+        return Mono.defer(() -> {
+            SequenceBlock block = currentBlock.get();
+            long sequence = block.next();
+            if (sequence >= 0) {
+                return Mono.just(toCardNumber(sequence));
+            }
+            return block.getSuccessor(() -> reserveBlock(block)).then(nextCardNumber());
+        });
+    }
+
+    /**
+     * @param exhausted Block being replaced
+     * @return Block of blockSize sequences reserved on the counter document, already set as the current block
+     */
+    private Mono<SequenceBlock> reserveBlock(SequenceBlock exhausted) {
+        Query query = new Query(Criteria.where("_id").is(COUNTER_ID));
+        Update update = new Update().inc("value", blockSize);
+        return reactiveMongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true).upsert(true), SequenceCounter.class)
+            .switchIfEmpty(Mono.error(new IllegalStateException("Card number counter " + COUNTER_ID + " was not returned")))
+            .flatMap(counter -> {
+                long end = counter.getValue();
+                if (end > sequenceLimit) {
+                    return Mono.error(new IllegalStateException("Card numbers of BIN " + bin + " are exhausted"));
+                }
+                SequenceBlock block = new SequenceBlock(end - blockSize, end);
+                currentBlock.compareAndSet(exhausted, block);
+                log.debug("Reserved card number sequences {} to {}", end - blockSize, end - 1);
+                return Mono.just(block);
+            });
+    }
+
+    /**
+     * @param sequence Sequence in [0, sequenceLimit)
+     * @return BIN, permuted sequence zero-padded to the remaining digits and Luhn check digit
+     */
+    String toCardNumber(long sequence) {
+        char[] number = new char[CARD_NUMBER_DIGITS];
+        bin.getChars(0, bin.length(), number, 0);
+        long accountIdentifier = permutation.permute(sequence);
+        for (int i = CARD_NUMBER_DIGITS - 2; i >= bin.length(); i--) {
+            number[i] = (char) ('0' + accountIdentifier % 10);
+            accountIdentifier /= 10;
+        }
+        number[CARD_NUMBER_DIGITS - 1] = (char) ('0' + LuhnCheckDigit.compute(CharBuffer.wrap(number, 0, CARD_NUMBER_DIGITS - 1)));
+        return new String(number);
+    }
+
+    /**
+     * Reserved sequences [start, end), handed out with a single atomic increment
+     */
+    private static final class SequenceBlock {
+        private final AtomicLong next;
+
+        private final long end;
+
+        private final AtomicReference<Mono<SequenceBlock>> successor = new AtomicReference<>();
+
+        private SequenceBlock(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+
+        /**
+         * @return Next sequence, or -1 if the block is exhausted
+         */
+        private long next() {
+            long sequence = next.getAndIncrement();
+            return sequence < end ? sequence : -1;
+        }
+
+        /**
+         * @param reservation Reserves the block that follows this one
+         * @return Reservation shared by every caller, which is retried on the next call if it failed
+         */
+        private Mono<SequenceBlock> getSuccessor(Supplier<Mono<SequenceBlock>> reservation) {
+            Mono<SequenceBlock> pending = successor.get();
+            if (pending != null) {
+                return pending;
+            }
+            Mono<SequenceBlock> created = Mono.defer(reservation)
+                .cache(block -> Duration.ofMillis(Long.MAX_VALUE), error -> Duration.ZERO, () -> Duration.ZERO);
+            return successor.compareAndSet(null, created) ? created : successor.get();
+        }
+    }
+}
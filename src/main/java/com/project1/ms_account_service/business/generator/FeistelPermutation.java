@@ -0,0 +1,74 @@
+package com.project1.ms_account_service.business.generator;
+
+/**
+ * Keyed format-preserving permutation of [0, domain): a balanced Feistel network over the smallest even number of bits
+ * that holds domain, with cycle walking to bring values that fall outside of it back in.
+ * Consecutive inputs give unrelated outputs, and as a bijection two different inputs never give the same output
+ */
+final class FeistelPermutation {
+
+    private static final int ROUNDS = 4;
+
+    private final long domain;
+
+    private final int halfBits;
+
+    private final long halfMask;
+
+    private final long[] roundKeys = new long[ROUNDS];
+
+    FeistelPermutation(long domain, long key) {
+        if (domain < 2 || domain > 1L << 62) {
+            throw new IllegalArgumentException("Domain must be between 2 and 2^62 but was " + domain);
+        }
+        this.domain = domain;
+        int bits = 64 - Long.numberOfLeadingZeros(domain - 1);
+        halfBits = (bits + 1) / 2;
+        halfMask = (1L << halfBits) - 1;
+        for (int i = 0; i < ROUNDS; i++) {
+            roundKeys[i] = mix(key + (i + 1) * 0x9E3779B97F4A7C15L);
+        }
+    }
+
+    /**
+     * @param value Value in [0, domain)
+     * @return Image of value, also in [0, domain)
+     */
+    long permute(long value) {
+        if (value < 0 || value >= domain) {
+            throw new IllegalArgumentException("Value must be between 0 and " + (domain - 1) + " but was " + value);
+        }
+        long result = value;
+        do {
+            result = encrypt(result);
+        } while (result >= domain);
+        return result;
+    }
+
+    private long encrypt(long value) {
+        long left = value >>> halfBits;
+        long right = value & halfMask;
+        for (long roundKey : roundKeys) {
+            long next = left ^ mix(right ^ roundKey) & halfMask;
+            left = right;
+            right = next;
+        }
+        return left << halfBits | right;
+    }
+
+    /**
+     * MurmurHash3 64-bit finalizer
+     *
+     * @param value Value to mix
+     * @return value with every bit depending on every input bit
+     */
+    private static long mix(long value) {
+        long mixed = value;
+        mixed ^= mixed >>> 33;
+        mixed *= 0xFF51AFD7ED558CCDL;
+        mixed ^= mixed >>> 33;
+        mixed *= 0xC4CEB9FE1A85EC53L;
+        mixed ^= mixed >>> 33;
+        return mixed;
+    }
+}
@@ -0,0 +1,43 @@
+package com.project1.ms_account_service.business.generator;
+
+/**
+ * Luhn (mod 10) check digit, the one used by card numbers, which catches any single digit error
+ * and most transpositions of adjacent digits
+ */
+public final class LuhnCheckDigit {
+
+    private LuhnCheckDigit() {
+    }
+
+    /**
+     * @param digits Number without its check digit
+     * @return Check digit to append to digits
+     */
+    public static int compute(CharSequence digits) {
+        int sum = 0;
+        boolean doubled = true;
+        for (int i = digits.length() - 1; i >= 0; i--) {
+            int digit = digits.charAt(i) - '0';
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    /**
+     * @param number Number ending in its check digit
+     * @return true if number only has digits and its last digit is the check digit of the others
+     */
+    public static boolean isValid(String number) {
+        if (number == null || number.length() < 2 || !number.chars().allMatch(Character::isDigit)) {
+            return false;
+        }
+        return compute(number.subSequence(0, number.length() - 1)) == number.charAt(number.length() - 1) - '0';
+    }
+}
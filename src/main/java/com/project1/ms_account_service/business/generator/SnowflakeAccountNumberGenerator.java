@@ -0,0 +1,114 @@
+package com.project1.ms_account_service.business.generator;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.netflix.eureka.EurekaInstanceConfigBean;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.Clock;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake-style account numbers: milliseconds since {@link #EPOCH_MILLIS} (41 bits), node id (10 bits) and a
+ * per-node sequence (12 bits), written as 19 zero-padded digits followed by a Luhn check digit.
+ * Numbers of a node are increasing, so new accounts are appended to the right of the unique accountNumber index
+ * instead of being scattered across it, and no random source is read on the request thread.
+ * When the sequence of a millisecond is exhausted the generator waits for the next one, so no number is ahead of the
+ * clock and a restarted instance cannot repeat numbers handed out before it stopped. When the clock goes back it waits
+ * up to {@value #MAX_CLOCK_BACKWARDS_MILLIS} ms for it to catch up and fails beyond that.
+ * The node id is read from the {@value #NODE_ID_METADATA_KEY} Eureka instance metadata, or the
+ * application.config.accounts.accountNumber.nodeId property, and must be different on each instance: startup fails
+ * when neither is set.
+ */
+@Component
+@ConditionalOnProperty(name = "application.config.accounts.accountNumber.generator", havingValue = "snowflake", matchIfMissing = true)
+@Slf4j
+public class SnowflakeAccountNumberGenerator implements AccountNumberGenerator {
+
+    public static final String NODE_ID_METADATA_KEY = "accountNumberNodeId";
+
+    static final long EPOCH_MILLIS = 1735689600000L;
+
+    static final int NODE_ID_BITS = 10;
+
+    static final int SEQUENCE_BITS = 12;
+
+    static final long MAX_NODE_ID = (1L << NODE_ID_BITS) - 1;
+
+    static final int DIGITS = 19;
+
+    static final long MAX_CLOCK_BACKWARDS_MILLIS = 5;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    @Autowired
+    private ObjectProvider<EurekaInstanceConfigBean> eurekaInstanceConfig;
+
+    @Value("${application.config.accounts.accountNumber.nodeId:}")
+    private String nodeIdProperty;
+
+    private Clock clock = Clock.systemUTC();
+
+    private long nodeId;
+
+    /**
+     * Milliseconds since the epoch and sequence of the last number, packed as in the number without the node id
+     */
+    private final AtomicLong lastTimestampAndSequence = new AtomicLong();
+
+    @PostConstruct
+    void initNodeId() {
+        String configuredNodeId = eurekaInstanceConfig.stream()
+            .map(config -> config.getMetadataMap().get(NODE_ID_METADATA_KEY))
+            .filter(value -> value != null && !value.isBlank())
+            .findFirst()
+            .orElse(nodeIdProperty);
+        if (configuredNodeId == null || configuredNodeId.isBlank()) {
+            throw new IllegalStateException("No account number node id: set " + NODE_ID_METADATA_KEY + " in the Eureka instance metadata "
+                + "or application.config.accounts.accountNumber.nodeId, different on each instance");
+        }
+        nodeId = Long.parseLong(configuredNodeId.trim());
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalStateException(NODE_ID_METADATA_KEY + " must be between 0 and " + MAX_NODE_ID + " but was " + nodeId);
+        }
+        log.info("Generating account numbers with node id {}", nodeId);
+    }
+
+    @Override
+    public String nextAccountNumber() {
+        while (true) {
+            long millis = clock.millis() - EPOCH_MILLIS;
+            long last = lastTimestampAndSequence.get();
+            long lastMillis = last >>> SEQUENCE_BITS;
+            if (millis < lastMillis && lastMillis - millis > MAX_CLOCK_BACKWARDS_MILLIS) {
+                throw new IllegalStateException("Clock moved back " + (lastMillis - millis) + " ms, refusing to generate account numbers");
+            }
+            long timestampAndSequence = millis > lastMillis ? millis << SEQUENCE_BITS : last + 1;
+            if (timestampAndSequence >>> SEQUENCE_BITS != millis) {
+                // sequence of this millisecond exhausted, or the clock is slightly behind the last number
+                Thread.onSpinWait();
+                continue;
+            }
+            if (lastTimestampAndSequence.compareAndSet(last, timestampAndSequence)) {
+                long id = millis << (NODE_ID_BITS + SEQUENCE_BITS)
+                    | nodeId << SEQUENCE_BITS
+                    | timestampAndSequence & SEQUENCE_MASK;
+                return withCheckDigit(id);
+            }
+        }
+    }
+
+    static String withCheckDigit(long id) {
+        String value = Long.toString(id);
+        StringBuilder number = new StringBuilder(DIGITS + 1);
+        for (int i = value.length(); i < DIGITS; i++) {
+            number.append('0');
+        }
+        number.append(value);
+        return number.append(LuhnCheckDigit.compute(number)).toString();
+    }
+}
@@ -0,0 +1,19 @@
+package com.project1.ms_account_service.business.generator;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Previous format, "ACC-" and a random UUID. Kept to roll back to; UUID.randomUUID() can block on SecureRandom
+ */
+@Component
+@ConditionalOnProperty(name = "application.config.accounts.accountNumber.generator", havingValue = "uuid")
+public class UuidAccountNumberGenerator implements AccountNumberGenerator {
+
+    @Override
+    public String nextAccountNumber() {
+        return "ACC-" + UUID.randomUUID();
+    }
+}
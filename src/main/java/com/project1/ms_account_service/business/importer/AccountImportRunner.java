@@ -0,0 +1,47 @@
+package com.project1.ms_account_service.business.importer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Paths;
+
+/**
+ * Command-line run mode: when application.config.import.file is set the application imports the file
+ * with {@link AccountImporter} and exits, with exit code 1 when the import stopped before the end of the file
+ */
+@Component
+@ConditionalOnProperty("application.config.import.file")
+@Slf4j
+public class AccountImportRunner implements ApplicationRunner {
+
+    @Autowired
+    private AccountImporter accountImporter;
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Value("${application.config.import.file}")
+    private String file;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int exitCode = accountImporter.importFile(Paths.get(file))
+            .doOnNext(checkpoint -> log.info("Import of {} finished: {} rows imported, {} rejected", file, checkpoint.getMigrated(), checkpoint.getRejected()))
+            .map(checkpoint -> 0)
+            .onErrorResume(e -> {
+                log.error("Import of {} stopped, it will resume from its last checkpoint", file, e);
+                return Mono.just(1);
+            })
+            .defaultIfEmpty(1)
+            .block();
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+}
@@ -0,0 +1,341 @@
+package com.project1.ms_account_service.business.importer;
+
+import com.project1.ms_account_service.business.factory.AccountFactory;
+import com.project1.ms_account_service.exception.BadRequestException;
+import com.project1.ms_account_service.model.AccountRequest;
+import com.project1.ms_account_service.model.entity.Account;
+import com.project1.ms_account_service.model.entity.AccountType;
+import com.project1.ms_account_service.model.entity.CustomerType;
+import com.project1.ms_account_service.model.entity.DebitCard;
+import com.project1.ms_account_service.model.entity.DebitCardAssociation;
+import com.project1.ms_account_service.model.entity.MigrationCheckpoint;
+import com.project1.ms_account_service.repository.AccountRepository;
+import com.project1.ms_account_service.repository.DebitCardRepository;
+import com.project1.ms_account_service.repository.MongoIndexInitializer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Imports accounts and debit cards from a legacy file without the remote eligibility checks of the API.
+ * Rows are validated in parallel and mapped through the {@link AccountFactory} creators, keeping the account
+ * number and balance of the legacy core, then written in unordered bulk inserts. The offset of the last written
+ * row is saved as a {@link MigrationCheckpoint} after each batch and a restarted import continues after it;
+ * rows written after the last checkpoint are rejected as duplicates by the unique indexes when read again.
+ */
+@Component
+@Slf4j
+public class AccountImporter {
+
+    public static final String IMPORT_ID_PREFIX = "account-import:";
+
+    @Autowired
+    private AccountFactory accountFactory;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private DebitCardRepository debitCardRepository;
+
+    @Autowired
+    private MongoIndexInitializer mongoIndexInitializer;
+
+    @Autowired
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Autowired
+    private ImportRecordReader importRecordReader;
+
+    @Value("${application.config.import.batchSize:1000}")
+    private int batchSize;
+
+    @Value("${application.config.import.parallelism:0}")
+    private int parallelism;
+
+    @Value("${application.config.import.writeConcurrency:2}")
+    private int writeConcurrency;
+
+    @Value("${application.config.import.reportInterval:10s}")
+    private Duration reportInterval;
+
+    public Mono<MigrationCheckpoint> importFile(Path file) {
+        String importId = IMPORT_ID_PREFIX + file.getFileName();
+        return mongoIndexInitializer.ensureIndexes()
+            .then(reactiveMongoTemplate.findById(importId, MigrationCheckpoint.class))
+            .defaultIfEmpty(MigrationCheckpoint.builder().id(importId).lastId(0L).build())
+            .flatMap(checkpoint -> {
+                if (checkpoint.isCompleted()) {
+                    log.info("Import {} already completed: {} rows imported, {} rejected", importId, checkpoint.getMigrated(), checkpoint.getRejected());
+                    return Mono.just(checkpoint);
+                }
+                ImportProgress progress = new ImportProgress(importId, checkpoint);
+                return Mono.using(
+                    () -> Flux.interval(reportInterval).subscribe(tick -> progress.report()),
+                    reporter -> importRows(file, checkpoint, progress),
+                    reporter -> {
+                        reporter.dispose();
+                        progress.report();
+                    });
+            });
+    }
+
+    private Mono<MigrationCheckpoint> importRows(Path file, MigrationCheckpoint checkpoint, ImportProgress progress) {
+        long offset = ((Number) checkpoint.getLastId()).longValue();
+        Function<String, ImportRecord> parser = importRecordReader.getParser(file);
+        int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+
+        return importRecordReader.readDataLines(file)
+            .index()
+            .skip(offset)
+            .buffer(batchSize)
+            .flatMapSequential(lines -> Mono.fromCallable(() -> toBatch(lines, parser)).subscribeOn(Schedulers.parallel()), workers)
+            .flatMapSequential(this::writeBatch, writeConcurrency)
+            .doOnNext(progress::add)
+            .scan(checkpoint, (last, batch) -> last.toBuilder()
+                .lastId(batch.endOffset)
+                .migrated(last.getMigrated() + batch.imported)
+                .rejected(last.getRejected() + batch.rejected)
+                .build())
+            .skip(1)
+            .concatMap(this::saveCheckpoint)
+            .last(checkpoint)
+            .map(last -> last.toBuilder().completed(true).build())
+            .flatMap(this::saveCheckpoint);
+    }
+
+    /**
+     * Parses, validates and maps the rows of one batch; runs on the parallel scheduler
+     *
+     * @param lines  Rows of the batch with their offset in the file
+     * @param parser Parser of the file format
+     * @return Batch with the accounts and debit cards to write
+     */
+    private ImportBatch toBatch(List<Tuple2<Long, String>> lines, Function<String, ImportRecord> parser) {
+        ImportBatch batch = new ImportBatch(lines.get(lines.size() - 1).getT1() + 1);
+        lines.stream()
+            .filter(line -> !line.getT2().isBlank())
+            .forEach(line -> {
+                try {
+                    ImportRecord record = parser.apply(line.getT2());
+                    if (record.getRecordType() == ImportRecord.RecordType.DEBIT_CARD) {
+                        batch.debitCards.add(validateDebitCard(record));
+                        batch.debitCardLines.add(line.getT1());
+                    } else {
+                        batch.accounts.add(toAccount(record));
+                        batch.accountLines.add(line.getT1());
+                    }
+                } catch (RuntimeException e) {
+                    batch.reject(line.getT1(), e.getMessage());
+                }
+            });
+        return batch;
+    }
+
+    private Account toAccount(ImportRecord record) {
+        if (record.getRecordType() == null) {
+            throw new BadRequestException("recordType is required");
+        }
+        requireField(record.getAccountNumber(), "accountNumber");
+        requireField(record.getCustomerId(), "customerId");
+        CustomerType customerType = parseEnum(CustomerType.class, record.getCustomerType(), "customerType");
+        parseEnum(AccountType.class, record.getAccountType(), "accountType");
+        BigDecimal balance = Optional.ofNullable(record.getBalance()).orElse(BigDecimal.ZERO);
+        if (balance.signum() < 0) {
+            throw new BadRequestException("balance must not be negative");
+        }
+        if (customerType == CustomerType.BUSINESS && record.getHolders().isEmpty()) {
+            throw new BadRequestException("At least one HOLDER is necessary for BUSINESS accounts");
+        }
+        if (customerType == CustomerType.PERSONAL && !(record.getHolders().isEmpty() && record.getSigners().isEmpty())) {
+            throw new BadRequestException("HOLDERS and AUTHORIZED SIGNERS are not valid for PERSONAL accounts");
+        }
+
+        AccountRequest request = new AccountRequest();
+        request.setAccountType(record.getAccountType());
+        request.setCustomerId(record.getCustomerId());
+        request.setInitialBalance(balance);
+        request.setHolders(record.getHolders());
+        request.setSigners(record.getSigners());
+        Account account = accountFactory.getAccount(request, customerType);
+        account.setAccountNumber(record.getAccountNumber());
+        return account;
+    }
+
+    private ImportRecord validateDebitCard(ImportRecord record) {
+        requireField(record.getCardNumber(), "cardNumber");
+        requireField(record.getCustomerId(), "customerId");
+        if (record.getAccountNumbers().isEmpty()) {
+            throw new BadRequestException("At least one account number is necessary for debit cards");
+        }
+        return record;
+    }
+
+    /**
+     * Writes the accounts of the batch and then its debit cards, so debit cards can reference accounts
+     * imported in the same batch. Rows rejected by MongoDB are reported with their offset
+     */
+    private Mono<ImportBatch> writeBatch(ImportBatch batch) {
+        Mono<Map<Integer, DataAccessException>> accountErrors = batch.accounts.isEmpty()
+            ? Mono.just(Map.of())
+            : accountRepository.insertAllUnordered(batch.accounts);
+
+        return accountErrors
+            .doOnNext(errors -> batch.addWriteResult(batch.accountLines, errors))
+            .then(Mono.defer(() -> writeDebitCards(batch)))
+            .thenReturn(batch);
+    }
+
+    private Mono<Void> writeDebitCards(ImportBatch batch) {
+        if (batch.debitCards.isEmpty()) {
+            return Mono.empty();
+        }
+        List<String> accountNumbers = batch.debitCards.stream()
+            .flatMap(record -> record.getAccountNumbers().stream())
+            .distinct()
+            .collect(Collectors.toList());
+
+        return accountRepository.findByAccountNumberIn(accountNumbers)
+            .collectMap(Account::getAccountNumber, Account::getId)
+            .flatMap(accountIds -> {
+                List<DebitCard> debitCards = new ArrayList<>();
+                List<Long> debitCardLines = new ArrayList<>();
+                IntStream.range(0, batch.debitCards.size()).forEach(i -> {
+                    ImportRecord record = batch.debitCards.get(i);
+                    Optional<String> missing = record.getAccountNumbers().stream().filter(number -> !accountIds.containsKey(number)).findFirst();
+                    if (missing.isPresent()) {
+                        batch.reject(batch.debitCardLines.get(i), "Account not found with account number: " + missing.get());
+                    } else {
+                        debitCards.add(toDebitCard(record, accountIds));
+                        debitCardLines.add(batch.debitCardLines.get(i));
+                    }
+                });
+                if (debitCards.isEmpty()) {
+                    return Mono.empty();
+                }
+                return debitCardRepository.insertAllUnordered(debitCards)
+                    .doOnNext(errors -> batch.addWriteResult(debitCardLines, errors))
+                    .then();
+            });
+    }
+
+    private static DebitCard toDebitCard(ImportRecord record, Map<String, String> accountIds) {
+        List<String> accountNumbers = record.getAccountNumbers();
+        return DebitCard.builder()
+            .cardNumber(record.getCardNumber())
+            .customerId(record.getCustomerId())
+            .associations(IntStream.range(0, accountNumbers.size())
+                .mapToObj(position -> DebitCardAssociation.builder()
+                    .accountId(accountIds.get(accountNumbers.get(position)))
+                    .position(position + 1)
+                    .build())
+                .collect(Collectors.toList()))
+            .lastAssociationPosition(accountNumbers.size())
+            .build();
+    }
+
+    private static void requireField(String value, String field) {
+        if (value == null || value.isBlank()) {
+            throw new BadRequestException(field + " is required");
+        }
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String field) {
+        try {
+            return Enum.valueOf(type, String.valueOf(value));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid " + field + ": " + value);
+        }
+    }
+
+    private Mono<MigrationCheckpoint> saveCheckpoint(MigrationCheckpoint checkpoint) {
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        return reactiveMongoTemplate.save(checkpoint);
+    }
+
+    /**
+     * Rows of one batch, ending before endOffset, and how many of them were imported or rejected
+     */
+    private static final class ImportBatch {
+        private final long endOffset;
+
+        private final List<Account> accounts = new ArrayList<>();
+
+        private final List<Long> accountLines = new ArrayList<>();
+
+        private final List<ImportRecord> debitCards = new ArrayList<>();
+
+        private final List<Long> debitCardLines = new ArrayList<>();
+
+        private long imported;
+
+        private long rejected;
+
+        private ImportBatch(long endOffset) {
+            this.endOffset = endOffset;
+        }
+
+        void reject(long line, String reason) {
+            rejected++;
+            log.warn("Rejected row {}: {}", line + 1, reason);
+        }
+
+        void addWriteResult(List<Long> lines, Map<Integer, DataAccessException> errors) {
+            imported += lines.size() - errors.size();
+            errors.forEach((position, e) -> reject(lines.get(position), e.getMessage()));
+        }
+    }
+
+    /**
+     * Totals of the running import, logged every reportInterval
+     */
+    private static final class ImportProgress {
+        private final String importId;
+
+        private final AtomicLong imported;
+
+        private final AtomicLong rejected;
+
+        private final long startNanos = System.nanoTime();
+
+        private final AtomicLong rowsSinceStart = new AtomicLong();
+
+        private ImportProgress(String importId, MigrationCheckpoint checkpoint) {
+            this.importId = importId;
+            this.imported = new AtomicLong(checkpoint.getMigrated());
+            this.rejected = new AtomicLong(checkpoint.getRejected());
+        }
+
+        void add(ImportBatch batch) {
+            imported.addAndGet(batch.imported);
+            rejected.addAndGet(batch.rejected);
+            rowsSinceStart.addAndGet(batch.imported + batch.rejected);
+        }
+
+        void report() {
+            double seconds = Math.max(System.nanoTime() - startNanos, 1) / 1e9;
+            log.info("Import {}: {} rows imported, {} rejected, {} rows/s",
+                importId, imported.get(), rejected.get(), Math.round(rowsSinceStart.get() / seconds));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.project1.ms_account_service.business.importer;
+
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.annotation.Nulls;
+import com.project1.ms_account_service.model.AccountMember;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One row of a legacy import file, either an account or a debit card.
+ * Debit cards reference their accounts by account number, in association order
+ */
+@Data
+public class ImportRecord {
+    public enum RecordType {
+        ACCOUNT,
+        DEBIT_CARD
+    }
+
+    private RecordType recordType;
+
+    private String accountNumber;
+
+    private String accountType;
+
+    private String customerId;
+
+    private String customerType;
+
+    private BigDecimal balance;
+
+    @JsonSetter(nulls = Nulls.AS_EMPTY)
+    private List<AccountMember> holders = new ArrayList<>();
+
+    @JsonSetter(nulls = Nulls.AS_EMPTY)
+    private List<AccountMember> signers = new ArrayList<>();
+
+    private String cardNumber;
+
+    @JsonSetter(nulls = Nulls.AS_EMPTY)
+    private List<String> accountNumbers = new ArrayList<>();
+}
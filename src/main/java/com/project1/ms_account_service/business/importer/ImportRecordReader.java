@@ -0,0 +1,134 @@
+package com.project1.ms_account_service.business.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project1.ms_account_service.exception.BadRequestException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Reads import files line by line. Files ending in .csv have a header row naming the {@link ImportRecord}
+ * fields of each column, where accountNumbers are separated by ';' and holders and signers are JSON arrays.
+ * Any other file is NDJSON, one {@link ImportRecord} per line. Quoted CSV values cannot span lines.
+ */
+@Component
+public class ImportRecordReader {
+
+    static final String ACCOUNT_NUMBERS_SEPARATOR = ";";
+
+    private static final List<String> JSON_COLUMNS = List.of("holders", "signers");
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Data lines of the file, without the CSV header. Blank lines are kept so offsets stay stable between runs
+     */
+    public Flux<String> readDataLines(Path file) {
+        return Flux.using(() -> Files.newBufferedReader(file, StandardCharsets.UTF_8), reader -> Flux.fromStream(reader.lines()), this::close)
+            .skip(isCsv(file) ? 1 : 0);
+    }
+
+    /**
+     * @return Parser of the data lines of the file, throwing {@link BadRequestException} for malformed lines
+     */
+    public Function<String, ImportRecord> getParser(Path file) {
+        if (!isCsv(file)) {
+            return this::parseJson;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            List<String> header = splitCsvLine(String.valueOf(reader.readLine()));
+            return line -> parseCsv(header, line);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ImportRecord parseJson(String line) {
+        try {
+            return objectMapper.readValue(line, ImportRecord.class);
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("Invalid row: " + e.getOriginalMessage());
+        }
+    }
+
+    private ImportRecord parseCsv(List<String> header, String line) {
+        List<String> values = splitCsvLine(line);
+        if (values.size() != header.size()) {
+            throw new BadRequestException("Invalid row: expected " + header.size() + " columns but found " + values.size());
+        }
+        Map<String, Object> fields = new HashMap<>();
+        try {
+            for (int i = 0; i < header.size(); i++) {
+                String column = header.get(i);
+                String value = values.get(i);
+                if (value.isEmpty()) {
+                    continue;
+                }
+                if ("accountNumbers".equals(column)) {
+                    fields.put(column, Arrays.asList(value.split(ACCOUNT_NUMBERS_SEPARATOR)));
+                } else if (JSON_COLUMNS.contains(column)) {
+                    fields.put(column, objectMapper.readTree(value));
+                } else {
+                    fields.put(column, value);
+                }
+            }
+            return objectMapper.convertValue(fields, ImportRecord.class);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            throw new BadRequestException("Invalid row: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Splits a CSV line on commas outside double quotes, where a doubled quote inside quotes is a literal quote
+     */
+    static List<String> splitCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (i < line.length()) {
+            char c = line.charAt(i);
+            if (c == '"' && quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                value.append('"');
+                i++;
+            } else if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ',' && !quoted) {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+            i++;
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private static boolean isCsv(Path file) {
+        return file.getFileName().toString().toLowerCase().endsWith(".csv");
+    }
+
+    private void close(BufferedReader reader) {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -4,9 +4,15 @@ import com.project1.ms_account_service.exception.BadRequestException;
 import com.project1.ms_account_service.model.AccountBalanceResponse;
 import com.project1.ms_account_service.model.AccountPatchRequest;
 import com.project1.ms_account_service.model.AccountResponse;
+import com.project1.ms_account_service.model.AccountTypeTotalResponse;
+import com.project1.ms_account_service.model.CustomerAccountSummaryItem;
+import com.project1.ms_account_service.model.CustomerAccountSummaryResponse;
 import com.project1.ms_account_service.model.entity.*;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -22,34 +28,23 @@ public class AccountMapper {
         return response;
     }
 
-    public Account getAccountUpdateEntity(AccountPatchRequest request, Account existingAccount) {
+    /**
+     * Builds a $set of only the fields present in the request.
+     * The monthly movements limit is checked by the update filter, see
+     * {@link com.project1.ms_account_service.repository.AccountRepositoryCustom#updateAccountFields}
+     */
+    public Update getAccountUpdate(AccountPatchRequest request) {
         if (request.getBalance() == null &&
             request.getMonthlyMovements() == null &&
             request.getStatus() == null) {
             throw new BadRequestException("At least one field must be provided");
         }
-        Optional<Integer> optionalMonthlyMovements = Optional.ofNullable(request.getMonthlyMovements());
-        if (optionalMonthlyMovements.isPresent()) {
-            if (existingAccount.getAccountType().equals(AccountType.SAVINGS)) {
-                SavingsAccount savingsAccount = (SavingsAccount) existingAccount;
-                if (optionalMonthlyMovements.get() > savingsAccount.getMaxMonthlyMovements()) {
-                    throw new BadRequestException(
-                        "Max monthly movements limit reached. The monthly movements available: " + savingsAccount.getMaxMonthlyMovements());
-                }
-            }
-            if (existingAccount.getAccountType().equals(AccountType.FIXED_TERM)) {
-                FixedTermAccount fixedTermAccount = (FixedTermAccount) existingAccount;
-                if (optionalMonthlyMovements.get() > fixedTermAccount.getMaxMonthlyMovements()) {
-                    throw new BadRequestException(
-                        "Max monthly movements limit reached. The monthly movements available: " + fixedTermAccount.getMaxMonthlyMovements());
-                }
-            }
-        }
-        Optional.ofNullable(request.getBalance()).ifPresent(existingAccount::setBalance);
-        Optional.ofNullable(request.getMonthlyMovements()).ifPresent(existingAccount::setMonthlyMovements);
+        Update update = new Update();
+        Optional.ofNullable(request.getBalance()).ifPresent(balance -> update.set("balance", balance));
+        Optional.ofNullable(request.getMonthlyMovements()).ifPresent(monthlyMovements -> update.set("monthlyMovements", monthlyMovements));
         Optional.ofNullable(request.getStatus())
-            .ifPresent(status -> existingAccount.setStatus(AccountStatus.valueOf(status)));
-        return existingAccount;
+            .ifPresent(status -> update.set("status", AccountStatus.valueOf(status)));
+        return update;
     }
 
     public AccountResponse getAccountResponse(Account account) {
@@ -102,6 +97,43 @@ public class AccountMapper {
         return accountBalanceResponse;
     }
 
+    public AccountBalanceResponse getAccountBalanceResponse(AccountBalance accountBalance) {
+        AccountBalanceResponse accountBalanceResponse = new AccountBalanceResponse();
+        accountBalanceResponse.setBalance(accountBalance.getBalance());
+        return accountBalanceResponse;
+    }
+
+    public AccountTypeTotalResponse getAccountTypeTotalResponse(AccountTypeTotal accountTypeTotal) {
+        AccountTypeTotalResponse accountTypeTotalResponse = new AccountTypeTotalResponse();
+        Optional.ofNullable(accountTypeTotal.getAccountType())
+            .ifPresent(accountType -> accountTypeTotalResponse.setAccountType(accountType.toString()));
+        accountTypeTotalResponse.setAccounts(accountTypeTotal.getAccounts());
+        accountTypeTotalResponse.setBalance(accountTypeTotal.getBalance());
+        return accountTypeTotalResponse;
+    }
+
+    public CustomerAccountSummaryResponse getCustomerAccountSummaryResponse(CustomerAccountSummary customerAccountSummary) {
+        CustomerAccountSummaryResponse customerAccountSummaryResponse = new CustomerAccountSummaryResponse();
+        customerAccountSummaryResponse.setCustomerId(customerAccountSummary.getCustomerId());
+        customerAccountSummaryResponse.setAccounts(Optional.ofNullable(customerAccountSummary.getAccounts())
+            .map(entries -> entries.stream()
+                .sorted(Comparator.comparing(CustomerAccountSummaryEntry::getAccountId, Comparator.nullsLast(Comparator.naturalOrder())))
+                .map(this::getCustomerAccountSummaryItem)
+                .collect(Collectors.toList()))
+            .orElseGet(ArrayList::new));
+        return customerAccountSummaryResponse;
+    }
+
+    public CustomerAccountSummaryItem getCustomerAccountSummaryItem(CustomerAccountSummaryEntry entry) {
+        CustomerAccountSummaryItem item = new CustomerAccountSummaryItem();
+        item.setId(entry.getAccountId());
+        item.setAccountNumber(entry.getAccountNumber());
+        Optional.ofNullable(entry.getAccountType()).ifPresent(accountType -> item.setAccountType(accountType.toString()));
+        Optional.ofNullable(entry.getStatus()).ifPresent(status -> item.setStatus(status.toString()));
+        item.setBalance(entry.getBalance());
+        return item;
+    }
+
     public AccountMember getAccountMember(com.project1.ms_account_service.model.AccountMember accountMemberRequest) {
         return AccountMember.builder()
             .dni(accountMemberRequest.getDni())
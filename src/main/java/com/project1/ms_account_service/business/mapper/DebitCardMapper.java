@@ -9,13 +9,11 @@ import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Component
 public class DebitCardMapper {
-    public DebitCard getDebitCardCreationEntity(DebitCardCreationRequest request) {
+    public DebitCard getDebitCardCreationEntity(DebitCardCreationRequest request, String cardNumber) {
         DebitCardAssociation debitCardAssociation = new DebitCardAssociation();
         debitCardAssociation.setPosition(1);
         debitCardAssociation.setAccountId(request.getAccountId());
@@ -24,8 +22,9 @@ public class DebitCardMapper {
         debitCardAssociations.add(debitCardAssociation);
 
         return DebitCard.builder()
-            .cardNumber(DebitCard.generateDebitCardNumber())
+            .cardNumber(cardNumber)
             .associations(debitCardAssociations)
+            .lastAssociationPosition(debitCardAssociation.getPosition())
             .build();
     }
 
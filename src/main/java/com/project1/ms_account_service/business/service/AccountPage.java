@@ -0,0 +1,18 @@
+package com.project1.ms_account_service.business.service;
+
+import com.project1.ms_account_service.model.AccountResponse;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * One page of accounts and the cursor of the next one, null on the last page
+ */
+@Getter
+@AllArgsConstructor
+public class AccountPage {
+    private final List<AccountResponse> accounts;
+
+    private final String nextCursor;
+}
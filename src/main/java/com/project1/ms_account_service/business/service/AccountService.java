@@ -1,24 +1,47 @@
 package com.project1.ms_account_service.business.service;
 
 import com.project1.ms_account_service.model.AccountBalanceResponse;
+import com.project1.ms_account_service.model.AccountBatchCreateRequest;
+import com.project1.ms_account_service.model.AccountBatchCreateResponse;
+import com.project1.ms_account_service.model.AccountBatchGetRequest;
+import com.project1.ms_account_service.model.AccountBatchGetResponse;
+import com.project1.ms_account_service.model.AccountMovementRequest;
 import com.project1.ms_account_service.model.AccountPatchRequest;
 import com.project1.ms_account_service.model.AccountRequest;
 import com.project1.ms_account_service.model.AccountResponse;
+import com.project1.ms_account_service.model.CustomerAccountSummaryResponse;
+import com.project1.ms_account_service.model.CustomerSummaryResponse;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public interface AccountService {
     Mono<AccountResponse> createAccount(Mono<AccountRequest> request);
 
+    Mono<AccountBatchCreateResponse> createAccountsBatch(Mono<AccountBatchCreateRequest> request);
+
     Mono<AccountResponse> getAccountById(String id);
 
     Mono<AccountResponse> getAccountByAccountNumber(String accountNumber);
 
+    Mono<AccountBatchGetResponse> getAccountsBatch(Mono<AccountBatchGetRequest> request);
+
     Flux<AccountResponse> getAccountsByCustomerId(String customerId);
 
+    Mono<AccountPage> getAccountsPageByCustomerId(String customerId, String cursor, Integer limit);
+
+    Mono<CustomerSummaryResponse> getCustomerSummary(String customerId);
+
+    Mono<CustomerAccountSummaryResponse> getCustomerAccountSummary(String customerId);
+
     Mono<AccountResponse> updateAccount(String id, Mono<AccountPatchRequest> request);
 
     Mono<AccountBalanceResponse> getAccountBalanceByAccountNumber(String accountNumber);
 
+    Mono<AccountBalanceResponse> getAccountBalanceById(String id);
+
+    Mono<AccountBalanceResponse> depositToAccount(String id, Mono<AccountMovementRequest> request);
+
+    Mono<AccountBalanceResponse> withdrawFromAccount(String id, Mono<AccountMovementRequest> request);
+
     Mono<Void> deleteAccount(String id);
 }
@@ -1,26 +1,52 @@
 package com.project1.ms_account_service.business.service;
 
 import com.project1.ms_account_service.business.mapper.AccountMapper;
+import com.project1.ms_account_service.business.mapper.DebitCardMapper;
 import com.project1.ms_account_service.business.adapter.CreditCardService;
 import com.project1.ms_account_service.business.adapter.CustomerService;
+import com.project1.ms_account_service.business.eligibility.AccountEligibilityTable;
+import com.project1.ms_account_service.business.eligibility.EligibilityCheck;
+import com.project1.ms_account_service.business.eligibility.EligibilityRule;
 import com.project1.ms_account_service.business.factory.AccountFactory;
 import com.project1.ms_account_service.exception.BadRequestException;
 import com.project1.ms_account_service.exception.InvalidAccountTypeException;
 import com.project1.ms_account_service.exception.NotFoundException;
 import com.project1.ms_account_service.model.*;
 import com.project1.ms_account_service.model.entity.*;
+import com.project1.ms_account_service.model.entity.FixedTermAccount;
+import com.project1.ms_account_service.model.entity.SavingsAccount;
 import com.project1.ms_account_service.repository.AccountRepository;
+import com.project1.ms_account_service.repository.DebitCardRepository;
+import com.project1.ms_account_service.repository.MongoIndexInitializer;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Signal;
 import reactor.util.function.Tuple2;
-import reactor.util.function.Tuples;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Service
 @Slf4j
@@ -40,36 +66,98 @@ public class AccountServiceImpl implements AccountService {
     @Autowired
     private CreditCardService creditCardService;
 
+    @Autowired
+    private AccountEligibilityTable accountEligibilityTable;
+
+    @Autowired
+    private DebitCardRepository debitCardRepository;
+
+    @Autowired
+    private DebitCardNumberCache debitCardNumberCache;
+
+    @Autowired
+    private DebitCardPrimaryAccountCache debitCardPrimaryAccountCache;
+
+    @Autowired
+    private DebitCardMapper debitCardMapper;
+
+    @Autowired
+    private CustomerSummaryCache customerSummaryCache;
+
+    @Autowired
+    private CustomerAccountSummaryProjector customerAccountSummaryProjector;
+
+    @Value("${application.config.accounts.page.defaultLimit:50}")
+    private int defaultPageSize;
+
+    @Value("${application.config.accounts.page.maxLimit:500}")
+    private int maxPageSize;
+
+    @Value("${application.config.accounts.cursorBatchSize:100}")
+    private int cursorBatchSize;
+
+    @Value("${application.config.accounts.batchGet.maxKeys:500}")
+    private int maxBatchGetKeys;
+
+    @Value("${application.config.accounts.batchCreate.maxAccounts:1000}")
+    private int maxBatchCreateAccounts;
+
+    @Value("${application.config.accounts.batchCreate.customerConcurrency:8}")
+    private int batchCreateCustomerConcurrency;
+
     @Override
     public Mono<AccountResponse> createAccount(Mono<AccountRequest> request) {
         return request
             .flatMap(this::validateAccountType)
-            .flatMap(this::validateCustomerAccountLimits)
-            .flatMap(tuple -> this.validateAccountMembers(tuple.getT2(), tuple.getT1())
-                .then(customerHasCreditDebts(tuple.getT1().getId()))
-                .map(__ -> accountFactory.getAccount(tuple.getT2(), CustomerType.valueOf(tuple.getT1().getType()))))
-            .flatMap(accountRepository::save)
+            .flatMap(req -> customerService.getCustomerById(req.getCustomerId())
+                .flatMap(customer -> validateCustomerAccountLimits(customer, req)
+                    .flatMap(rule -> fetchEligibilityLookups(customer, rule.getChecks())
+                        .flatMap(lookups -> validateEligibilityLookups(customer, req, rule, lookups)))
+                    .map(__ -> accountFactory.getAccount(req, CustomerType.valueOf(customer.getType())))))
+            .flatMap(this::saveNewAccount)
+            .flatMap(account -> customerAccountSummaryProjector.putAccounts(account.getCustomerId(), List.of(account))
+                .thenReturn(account))
             .map(accountMapper::getAccountResponse);
     }
 
+    @Override
+    public Mono<AccountBatchCreateResponse> createAccountsBatch(Mono<AccountBatchCreateRequest> request) {
+        return request.flatMap(this::validateBatchCreateRequest)
+            .flatMap(req -> {
+                List<BatchCreateItem> items = IntStream.range(0, req.getAccounts().size())
+                    .mapToObj(index -> new BatchCreateItem(index, req.getAccounts().get(index)))
+                    .collect(Collectors.toList());
+                Map<String, List<BatchCreateItem>> itemsByCustomer = new LinkedHashMap<>();
+                items.forEach(item -> itemsByCustomer.computeIfAbsent(item.getRequest().getCustomerId(), customerId -> new ArrayList<>()).add(item));
+
+                return Flux.fromIterable(itemsByCustomer.entrySet())
+                    .flatMap(group -> validateCustomerBatch(group.getKey(), group.getValue()), batchCreateCustomerConcurrency)
+                    .then(Mono.defer(() -> insertBatchCreateItems(items)))
+                    .flatMap(inserted -> projectBatchCreateItems(inserted).thenReturn(inserted));
+            })
+            .map(this::getBatchCreateResponse);
+    }
+
     public Mono<Boolean> customerHasCreditDebts(String customerId) {
         return creditCardService.getCreditDebtsByCustomerId(customerId)
-            .flatMap(creditDebtsResponse -> {
-                List<String> credits = Optional.ofNullable(creditDebtsResponse)
-                    .map(CreditDebtsResponse::getDebts)
-                    .map(CreditDebtsResponseDebts::getCredits)
-                    .orElse(Collections.emptyList());
-                List<String> creditCards = Optional.ofNullable(creditDebtsResponse)
-                    .map(CreditDebtsResponse::getDebts)
-                    .map(CreditDebtsResponseDebts::getCreditCards)
-                    .orElse(Collections.emptyList());
-
-                if (!credits.isEmpty() || !creditCards.isEmpty()) {
-                    return Mono.error(new BadRequestException(creditDebtsResponse.getMessage()));
-                }
+            .flatMap(this::validateCreditDebts);
+    }
 
-                return Mono.just(false);
-            });
+    private Mono<Boolean> validateCreditDebts(CreditDebtsResponse creditDebtsResponse) {
+        List<String> credits = Optional.ofNullable(creditDebtsResponse)
+            .map(CreditDebtsResponse::getDebts)
+            .map(CreditDebtsResponseDebts::getCredits)
+            .orElse(Collections.emptyList());
+        List<String> creditCards = Optional.ofNullable(creditDebtsResponse)
+            .map(CreditDebtsResponse::getDebts)
+            .map(CreditDebtsResponseDebts::getCreditCards)
+            .orElse(Collections.emptyList());
+
+        if (!credits.isEmpty() || !creditCards.isEmpty()) {
+            return Mono.error(new BadRequestException(creditDebtsResponse.getMessage()));
+        }
+
+        return Mono.just(false);
     }
 
     private Mono<AccountRequest> validateAccountMembers(AccountRequest request, CustomerResponse customerResponse) {
@@ -103,42 +191,473 @@ public class AccountServiceImpl implements AccountService {
             .switchIfEmpty(Mono.error(new NotFoundException("Account not found with account number: " + accountNumber)));
     }
 
+    @Override
+    public Mono<AccountBatchGetResponse> getAccountsBatch(Mono<AccountBatchGetRequest> request) {
+        return request.flatMap(this::validateBatchGetRequest)
+            .flatMap(req -> {
+                List<String> ids = getDistinctKeys(req.getIds());
+                List<String> accountNumbers = getDistinctKeys(req.getAccountNumbers());
+                Mono<Map<String, Account>> accountsById = ids.isEmpty()
+                    ? Mono.just(Collections.emptyMap())
+                    : accountRepository.findAllById(ids).collectMap(Account::getId);
+                Mono<Map<String, Account>> accountsByNumber = accountNumbers.isEmpty()
+                    ? Mono.just(Collections.emptyMap())
+                    : accountRepository.findByAccountNumberIn(accountNumbers).collectMap(Account::getAccountNumber);
+
+                return Mono.zip(accountsById, accountsByNumber)
+                    .map(found -> {
+                        AccountBatchGetResponse response = new AccountBatchGetResponse();
+                        Set<String> addedIds = new HashSet<>();
+                        response.setNotFoundIds(addFoundAccounts(response, addedIds, ids, found.getT1()));
+                        response.setNotFoundAccountNumbers(addFoundAccounts(response, addedIds, accountNumbers, found.getT2()));
+                        return response;
+                    });
+            });
+    }
+
     @Override
     public Flux<AccountResponse> getAccountsByCustomerId(String customerId) {
-        return accountRepository.findByCustomerId(customerId)
+        return accountRepository.findByCustomerIdAfter(customerId, null, 0, cursorBatchSize)
             .map(accountMapper::getAccountResponse);
     }
 
+    @Override
+    public Mono<AccountPage> getAccountsPageByCustomerId(String customerId, String cursor, Integer limit) {
+        int pageSize = Optional.ofNullable(limit).orElse(defaultPageSize);
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            return Mono.error(new BadRequestException("Limit must be between 1 and " + maxPageSize));
+        }
+        return Mono.fromCallable(() -> Optional.ofNullable(cursor).map(AccountServiceImpl::decodeCursor))
+            .flatMap(afterId -> accountRepository.findByCustomerIdAfter(customerId, afterId.orElse(null), pageSize + 1, pageSize + 1)
+                .collectList())
+            .map(accounts -> {
+                boolean hasNextPage = accounts.size() > pageSize;
+                List<Account> page = hasNextPage ? accounts.subList(0, pageSize) : accounts;
+                String nextCursor = hasNextPage ? encodeCursor(page.get(page.size() - 1).getId()) : null;
+                return new AccountPage(page.stream().map(accountMapper::getAccountResponse).collect(Collectors.toList()), nextCursor);
+            });
+    }
+
+    @Override
+    public Mono<CustomerSummaryResponse> getCustomerSummary(String customerId) {
+        return customerSummaryCache.getCustomerSummary(customerId, key -> accountRepository.findCustomerSummary(key)
+            .map(customerSummary -> getCustomerSummaryResponse(key, customerSummary)));
+    }
+
+    @Override
+    public Mono<CustomerAccountSummaryResponse> getCustomerAccountSummary(String customerId) {
+        return customerAccountSummaryProjector.getSummary(customerId)
+            .map(accountMapper::getCustomerAccountSummaryResponse);
+    }
+
     @Override
     public Mono<AccountResponse> updateAccount(String id, Mono<AccountPatchRequest> request) {
-        return accountRepository.findById(id)
-            .switchIfEmpty(Mono.error(new NotFoundException("Account not found with id: " + id)))
-            .flatMap(existingAccount -> request
-                .map(req -> accountMapper.getAccountUpdateEntity(req, existingAccount))
-                .flatMap(accountRepository::save)
-                .map(accountMapper::getAccountResponse)
-            );
+        return request
+            .map(accountMapper::getAccountUpdate)
+            .filter(update -> !update.getUpdateObject().isEmpty())
+            .switchIfEmpty(Mono.error(new BadRequestException("At least one field must be provided")))
+            .flatMap(update -> accountRepository.updateAccountFields(id, update)
+                .onErrorMap(DuplicateKeyException.class, this::getDuplicateAccountError)
+                .switchIfEmpty(Mono.defer(() -> getUpdateRejection(id, update)))
+                .flatMap(account -> customerAccountSummaryProjector.putAccounts(account.getCustomerId(), List.of(account))
+                    .then(AccountStatus.INACTIVE.equals(getUpdatedValue(update, "status")) ? detachAccountFromDebitCards(id) : Mono.empty())
+                    .thenReturn(account)))
+            .map(accountMapper::getAccountResponse);
     }
 
     @Override
     public Mono<AccountBalanceResponse> getAccountBalanceByAccountNumber(String accountNumber) {
-        return accountRepository.findByAccountNumber(accountNumber)
+        return accountRepository.findBalanceByAccountNumber(accountNumber)
             .switchIfEmpty(Mono.error(new NotFoundException("Account no found with account number: " + accountNumber)))
             .map(accountMapper::getAccountBalanceResponse);
     }
 
+    @Override
+    public Mono<AccountBalanceResponse> getAccountBalanceById(String id) {
+        return accountRepository.findBalanceById(id)
+            .switchIfEmpty(Mono.error(new NotFoundException("Account not found with id: " + id)))
+            .map(accountMapper::getAccountBalanceResponse);
+    }
+
+    @Override
+    public Mono<AccountBalanceResponse> depositToAccount(String id, Mono<AccountMovementRequest> request) {
+        return request.flatMap(this::validateMovementAmount)
+            .flatMap(amount -> applyMovement(id, amount));
+    }
+
+    @Override
+    public Mono<AccountBalanceResponse> withdrawFromAccount(String id, Mono<AccountMovementRequest> request) {
+        return request.flatMap(this::validateMovementAmount)
+            .flatMap(amount -> applyMovement(id, amount.negate()));
+    }
+
     @Override
     public Mono<Void> deleteAccount(String id) {
-        return accountRepository.findById(id)
+        return accountRepository.updateAccountStatus(id, AccountStatus.INACTIVE)
+            .filter(matched -> matched > 0)
             .switchIfEmpty(Mono.error(new NotFoundException("Account not found with id: " + id)))
-            .flatMap(acc -> {
-                acc.setStatus(AccountStatus.INACTIVE);
-                return accountRepository.save(acc);
-            })
-            .then()
+            .then(Mono.defer(() -> customerAccountSummaryProjector.updateAccountState(id, null, AccountStatus.INACTIVE)))
+            .then(Mono.defer(() -> detachAccountFromDebitCards(id)))
             .doOnSuccess(v -> log.info("Deleted account: {}", id));
     }
 
+    /**
+     * Removes an inactive account from the debit cards that use it, so they no longer resolve to it, and evicts
+     * the cached routing of those cards. The cards are read first because the update does not return them, so a card
+     * associated between the read and the update, and every card cached by other instances, keeps resolving to the
+     * account until its ttl expires
+     *
+     * @param id Account id
+     * @return Completion once the debit cards are updated
+     */
+    private Mono<Void> detachAccountFromDebitCards(String id) {
+        return debitCardRepository.findByAssociatedAccountId(id)
+            .collectList()
+            .filter(debitCards -> !debitCards.isEmpty())
+            .flatMap(debitCards -> debitCardRepository.detachAccount(id)
+                .doOnNext(modified -> {
+                    debitCards.forEach(debitCard -> {
+                        debitCardNumberCache.evictDebitCard(debitCard.getCardNumber());
+                        debitCardPrimaryAccountCache.evictPrimaryAccountId(debitCard.getId());
+                    });
+                    log.info("Detached account {} from {} debit cards", id, modified);
+                }))
+            .then();
+    }
+
+    /**
+     * Validates that the batch creates at least one and at most maxBatchCreateAccounts accounts
+     *
+     * @param request Batch request to validate
+     * @return Valid batch request or error
+     */
+    private Mono<AccountBatchCreateRequest> validateBatchCreateRequest(AccountBatchCreateRequest request) {
+        List<AccountRequest> accounts = Optional.ofNullable(request.getAccounts()).orElse(Collections.emptyList());
+        if (accounts.isEmpty()) {
+            return Mono.error(new BadRequestException("At least one account must be provided"));
+        }
+        if (accounts.size() > maxBatchCreateAccounts) {
+            return Mono.error(new BadRequestException("At most " + maxBatchCreateAccounts + " accounts can be created per batch"));
+        }
+        if (accounts.stream().anyMatch(Objects::isNull)) {
+            return Mono.error(new BadRequestException("Accounts must not contain null items"));
+        }
+        return Mono.just(request);
+    }
+
+    /**
+     * Validates the accounts of one customer, fetching the customer once for all of them.
+     * When the customer cannot be fetched every account of the customer is rejected with that error
+     *
+     * @param customerId Customer that owns the accounts
+     * @param items      Batch items of the customer, in request order
+     * @return Items with the account to insert or the rejection
+     */
+    private Flux<BatchCreateItem> validateCustomerBatch(String customerId, List<BatchCreateItem> items) {
+        items.stream()
+            .filter(item -> !isValidAccountType(item.getRequest().getAccountType()))
+            .forEach(item -> item.reject(new InvalidAccountTypeException()));
+        if (items.stream().allMatch(BatchCreateItem::isRejected)) {
+            return Flux.fromIterable(items);
+        }
+        return customerService.getCustomerById(customerId)
+            .switchIfEmpty(Mono.error(new NotFoundException("Customer not found with id: " + customerId)))
+            .flatMapMany(customer -> validateCustomerBatch(customer, items), e -> rejectPendingItems(items, e), Flux::empty);
+    }
+
+    /**
+     * Validates the accounts of one customer starting the credit lookups once, for the union of the checks
+     * their eligibility rules need. Accounts accepted earlier in the batch are kept in memory so the
+     * one SAVINGS / one CHECKING rule of PERSONAL customers also holds inside the batch
+     *
+     * @param customer Customer that owns the accounts
+     * @param items    Batch items of the customer, in request order
+     * @return Items with the account to insert or the rejection
+     */
+    private Flux<BatchCreateItem> validateCustomerBatch(CustomerResponse customer, List<BatchCreateItem> items) {
+        Set<AccountType> reservedTypes = EnumSet.noneOf(AccountType.class);
+        return Flux.fromIterable(items)
+            .filter(item -> !item.isRejected())
+            .concatMap(item -> validateCustomerAccountLimits(customer, item.getRequest())
+                .doOnNext(item::setRule)
+                .onErrorResume(e -> Mono.fromRunnable(() -> item.reject(e))))
+            .reduceWith(() -> EnumSet.noneOf(EligibilityCheck.class), (checks, rule) -> {
+                checks.addAll(rule.getChecks());
+                return checks;
+            })
+            .flatMap(checks -> fetchEligibilityLookups(customer, checks))
+            .flatMapMany(lookups -> Flux.fromIterable(items)
+                .concatMap(item -> item.isRejected()
+                    ? Mono.just(item)
+                    : validateEligibilityLookups(customer, item.getRequest(), item.getRule(), lookups)
+                        .map(req -> accountFactory.getAccount(req, CustomerType.valueOf(customer.getType())))
+                        .flatMap(account -> reserveAccountType(account, reservedTypes))
+                        .map(item::accept)
+                        .onErrorResume(e -> Mono.just(item.reject(e)))));
+    }
+
+    private Flux<BatchCreateItem> rejectPendingItems(List<BatchCreateItem> items, Throwable error) {
+        items.stream()
+            .filter(item -> !item.isRejected())
+            .forEach(item -> item.reject(error));
+        return Flux.fromIterable(items);
+    }
+
+    /**
+     * In-batch counterpart of the partial unique indexes: a PERSONAL customer gets at most one ACTIVE
+     * SAVINGS and one ACTIVE CHECKING account among the accounts of the batch
+     *
+     * @param account       Account validated for the customer
+     * @param reservedTypes Account types already accepted for the customer in the batch
+     * @return Account or error when its type is already taken
+     */
+    private Mono<Account> reserveAccountType(Account account, Set<AccountType> reservedTypes) {
+        boolean uniqueType = CustomerType.PERSONAL.equals(account.getCustomerType())
+            && AccountStatus.ACTIVE.equals(account.getStatus())
+            && (AccountType.SAVINGS.equals(account.getAccountType()) || AccountType.CHECKING.equals(account.getAccountType()));
+        if (uniqueType && !reservedTypes.add(account.getAccountType())) {
+            return Mono.error(new BadRequestException(getUniqueAccountTypeMessage(account.getAccountType())));
+        }
+        return Mono.just(account);
+    }
+
+    /**
+     * Inserts the validated accounts of the whole batch with one unordered insert; accounts rejected by the
+     * unique indexes, because of accounts that already existed, are marked as rejected
+     *
+     * @param items Batch items in request order
+     * @return Same items after the insert
+     */
+    private Mono<List<BatchCreateItem>> insertBatchCreateItems(List<BatchCreateItem> items) {
+        List<BatchCreateItem> accepted = items.stream()
+            .filter(item -> !item.isRejected())
+            .collect(Collectors.toList());
+        if (accepted.isEmpty()) {
+            return Mono.just(items);
+        }
+        return accountRepository.insertAllUnordered(accepted.stream().map(BatchCreateItem::getAccount).collect(Collectors.toList()))
+            .map(errors -> {
+                errors.forEach((position, e) -> accepted.get(position).reject(getDuplicateAccountError(e)));
+                log.info("Created {} of {} accounts in batch", accepted.size() - errors.size(), items.size());
+                return items;
+            });
+    }
+
+    /**
+     * Puts the accounts inserted by the batch in the summaries of their customers, one update per customer
+     *
+     * @param items Batch items after the insert
+     * @return Completion once every summary is updated
+     */
+    private Mono<Void> projectBatchCreateItems(List<BatchCreateItem> items) {
+        Map<String, List<Account>> insertedByCustomer = new LinkedHashMap<>();
+        items.stream()
+            .filter(item -> !item.isRejected())
+            .forEach(item -> insertedByCustomer.computeIfAbsent(item.getRequest().getCustomerId(), customerId -> new ArrayList<>()).add(item.getAccount()));
+        return Flux.fromIterable(insertedByCustomer.entrySet())
+            .flatMap(entry -> customerAccountSummaryProjector.putAccounts(entry.getKey(), entry.getValue()), batchCreateCustomerConcurrency)
+            .then();
+    }
+
+    private AccountBatchCreateResponse getBatchCreateResponse(List<BatchCreateItem> items) {
+        AccountBatchCreateResponse response = new AccountBatchCreateResponse();
+        items.forEach(item -> {
+            AccountBatchCreateResult result = new AccountBatchCreateResult().index(item.getIndex());
+            if (item.isRejected()) {
+                result.status(AccountBatchCreateResult.StatusEnum.REJECTED).message(item.getRejection());
+            } else {
+                result.status(AccountBatchCreateResult.StatusEnum.CREATED).account(accountMapper.getAccountResponse(item.getAccount()));
+            }
+            response.addResultsItem(result);
+        });
+        return response;
+    }
+
+    /**
+     * Validates that the batch asks for at least one and at most maxBatchGetKeys accounts
+     *
+     * @param request Batch request to validate
+     * @return Valid batch request or error
+     */
+    private Mono<AccountBatchGetRequest> validateBatchGetRequest(AccountBatchGetRequest request) {
+        int keys = getDistinctKeys(request.getIds()).size() + getDistinctKeys(request.getAccountNumbers()).size();
+        if (keys == 0) {
+            return Mono.error(new BadRequestException("At least one id or account number must be provided"));
+        }
+        if (keys > maxBatchGetKeys) {
+            return Mono.error(new BadRequestException("At most " + maxBatchGetKeys + " ids and account numbers can be requested"));
+        }
+        return Mono.just(request);
+    }
+
+    private static List<String> getDistinctKeys(List<String> keys) {
+        return Optional.ofNullable(keys).orElse(Collections.emptyList()).stream()
+            .filter(Objects::nonNull)
+            .distinct()
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Appends the accounts found for the keys to the response in key order, skipping accounts already added,
+     * as when one is requested both by id and by account number
+     *
+     * @param addedIds Ids of the accounts already in the response, updated with the ones added
+     * @return Keys without an account
+     */
+    private List<String> addFoundAccounts(AccountBatchGetResponse response, Set<String> addedIds, List<String> keys,
+                                          Map<String, Account> accountsByKey) {
+        List<String> notFound = new ArrayList<>();
+        keys.forEach(key -> {
+            Account account = accountsByKey.get(key);
+            if (account == null) {
+                notFound.add(key);
+            } else if (addedIds.add(account.getId())) {
+                response.addAccountsItem(accountMapper.getAccountResponse(account));
+            }
+        });
+        return notFound;
+    }
+
+    /**
+     * @param customerId Customer of the summary
+     * @param customerSummary Accounts, debit cards and totals read by the summary aggregation
+     * @return Summary response, whose totalBalance adds up the balance of every account type
+     */
+    private CustomerSummaryResponse getCustomerSummaryResponse(String customerId, CustomerSummary customerSummary) {
+        List<AccountTypeTotal> totals = Optional.ofNullable(customerSummary.getTotals()).orElse(Collections.emptyList());
+        CustomerSummaryResponse response = new CustomerSummaryResponse();
+        response.setCustomerId(customerId);
+        response.setAccounts(Optional.ofNullable(customerSummary.getAccounts()).orElse(Collections.emptyList()).stream()
+            .map(accountMapper::getAccountResponse)
+            .collect(Collectors.toList()));
+        response.setDebitCards(Optional.ofNullable(customerSummary.getDebitCards()).orElse(Collections.emptyList()).stream()
+            .map(debitCardMapper::getDebitCardResponse)
+            .collect(Collectors.toList()));
+        response.setTotals(totals.stream()
+            .map(accountMapper::getAccountTypeTotalResponse)
+            .collect(Collectors.toList()));
+        response.setTotalBalance(totals.stream()
+            .map(AccountTypeTotal::getBalance)
+            .filter(Objects::nonNull)
+            .reduce(BigDecimal.ZERO, BigDecimal::add));
+        return response;
+    }
+
+    /**
+     * Cursors are the base64url encoded id of the last account of the previous page,
+     * opaque to clients so the ordering can change without breaking them
+     */
+    private static String encodeCursor(String accountId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(accountId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String cursor) {
+        try {
+            String accountId = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (ObjectId.isValid(accountId)) {
+                return accountId;
+            }
+        } catch (IllegalArgumentException e) {
+            log.debug("Undecodable cursor {}", cursor);
+        }
+        throw new BadRequestException("Invalid cursor");
+    }
+
+    /**
+     * Validates that the movement amount is greater than zero
+     *
+     * @param request Movement request to validate
+     * @return Movement amount or error
+     */
+    private Mono<BigDecimal> validateMovementAmount(AccountMovementRequest request) {
+        if (request.getAmount() == null || request.getAmount().signum() <= 0) {
+            return Mono.error(new BadRequestException("Amount must be greater than zero"));
+        }
+        return Mono.just(request.getAmount());
+    }
+
+    /**
+     * Applies a signed amount to the account balance in one conditional update.
+     * Only when the update is rejected the account is read again to tell the caller why
+     *
+     * @param id     Account id
+     * @param amount Positive for deposits, negative for withdrawals
+     * @return New account balance or error
+     */
+    private Mono<AccountBalanceResponse> applyMovement(String id, BigDecimal amount) {
+        return accountRepository.applyMovement(id, amount)
+            .switchIfEmpty(Mono.defer(() -> getMovementRejection(id, amount)))
+            .flatMap(balance -> customerAccountSummaryProjector.updateAccountState(id, balance.getBalance(), balance.getStatus())
+                .thenReturn(balance))
+            .map(accountMapper::getAccountBalanceResponse)
+            .doOnSuccess(balance -> log.info("Applied movement of {} to account: {}", amount, id));
+    }
+
+    private Mono<AccountBalance> getMovementRejection(String id, BigDecimal amount) {
+        return accountRepository.findById(id)
+            .switchIfEmpty(Mono.error(new NotFoundException("Account not found with id: " + id)))
+            .flatMap(account -> Mono.error(new BadRequestException(getMovementRejectionMessage(account, amount))));
+    }
+
+    private String getMovementRejectionMessage(Account account, BigDecimal amount) {
+        if (!AccountStatus.ACTIVE.equals(account.getStatus())) {
+            return "Account is not active";
+        }
+        Integer maxMonthlyMovements = getMaxMonthlyMovements(account);
+        int monthlyMovements = Optional.ofNullable(account.getMonthlyMovements()).orElse(0);
+        if (maxMonthlyMovements != null && monthlyMovements >= maxMonthlyMovements) {
+            return "Max monthly movements limit reached. The monthly movements available: " + maxMonthlyMovements;
+        }
+        BigDecimal balance = Optional.ofNullable(account.getBalance()).orElse(BigDecimal.ZERO);
+        if (balance.add(amount).signum() < 0) {
+            return "Insufficient funds";
+        }
+        return "Account changed while applying the movement, please retry";
+    }
+
+    /**
+     * The update filter only rejects a monthlyMovements above the limit, so the account is read again to tell that apart
+     * from an account that was deleted or changed since the update
+     *
+     * @param id Account id
+     * @param update Update that matched no account
+     * @return Error explaining why the update was not applied
+     */
+    private Mono<Account> getUpdateRejection(String id, Update update) {
+        Object monthlyMovements = getUpdatedValue(update, "monthlyMovements");
+        return accountRepository.findById(id)
+            .switchIfEmpty(Mono.error(new NotFoundException("Account not found with id: " + id)))
+            .flatMap(account -> {
+                Integer maxMonthlyMovements = getMaxMonthlyMovements(account);
+                if (monthlyMovements instanceof Integer && maxMonthlyMovements != null && (Integer) monthlyMovements > maxMonthlyMovements) {
+                    return Mono.error(new BadRequestException(
+                        "Max monthly movements limit reached. The monthly movements available: " + maxMonthlyMovements));
+                }
+                return Mono.error(new BadRequestException("Account changed while applying the update, please retry"));
+            });
+    }
+
+    /**
+     * @param update Account update
+     * @param field Field name
+     * @return Value the update sets on the field, or null if it does not set it
+     */
+    private static Object getUpdatedValue(Update update, String field) {
+        return Optional.ofNullable(update.getUpdateObject().get("$set", Document.class))
+            .map(set -> set.get(field))
+            .orElse(null);
+    }
+
+    static Integer getMaxMonthlyMovements(Account account) {
+        if (account instanceof SavingsAccount) {
+            return ((SavingsAccount) account).getMaxMonthlyMovements();
+        }
+        if (account instanceof FixedTermAccount) {
+            return ((FixedTermAccount) account).getMaxMonthlyMovements();
+        }
+        return null;
+    }
+
     /**
      * Validates that the account type is valid
      *
@@ -153,98 +672,96 @@ public class AccountServiceImpl implements AccountService {
     }
 
     /**
-     * Validates customer account limits based on customer type
+     * Validates customer account limits that can be decided from the customer record alone
      *
-     * @param request Account request to validate
-     * @return Valid account request or error
+     * @param customer Customer that owns the account
+     * @param request  Account request to validate
+     * @return Eligibility rule with the remote checks still needed, or error
      */
-    private Mono<Tuple2<CustomerResponse, AccountRequest>> validateCustomerAccountLimits(AccountRequest request) {
-        return customerService.getCustomerById(request.getCustomerId())
-            .flatMap(customer -> {
-                if (CustomerStatus.INACTIVE.toString().equals(customer.getStatus())) {
-                    return Mono.error(new BadRequestException("Customer has INACTIVE status"));
-                }
+    private Mono<EligibilityRule> validateCustomerAccountLimits(CustomerResponse customer, AccountRequest request) {
+        if (CustomerStatus.INACTIVE.toString().equals(customer.getStatus())) {
+            return Mono.error(new BadRequestException("Customer has INACTIVE status"));
+        }
 
-                if (CustomerType.PERSONAL.toString().equals(customer.getType())) {
-                    if (PersonalCustomerType.VIP.toString().equals(customer.getSubType())) {
-                        // if personal subtype is VIP we just can create SAVINGS accounts
-                        if (!AccountType.SAVINGS.toString().equals(request.getAccountType())) {
-                            return Mono.error(new BadRequestException("PERSONAL VIP customers can just have SAVINGS account"));
-                        }
-                        // if we are creating SAVINGS account, verify if customer has at least one credit card in the system
-                        return creditCardService.getCustomerCreditCards(customer.getId())
-                            .collectList()
-                            .flatMap(cards -> {
-                                if (cards.isEmpty()) {
-                                    return Mono.error(new BadRequestException("PERSONAL VIP customers must have at least one CREDIT CARD for SAVINGS account"));
-                                }
-                                return validatePersonalCustomerAccounts(request)
-                                    .map(acr -> Tuples.of(customer, acr));
-                            });
-                    }
-                    return validatePersonalCustomerAccounts(request)
-                        .map(acr -> Tuples.of(customer, acr));
-
-                } else {
-                    if (BusinessCustomerType.PYME.toString().equals(customer.getSubType())) {
-                        // if business subtype is PYME we just can create CHECKING accounts
-                        if (!AccountType.CHECKING.toString().equals(request.getAccountType())) {
-                            return Mono.error(new BadRequestException("BUSINESS PYME customers can just have CHECKING account"));
-                        }
-                        return creditCardService.getCustomerCreditCards(customer.getId())
-                            .collectList()
-                            .flatMap(cards -> {
-                                if (cards.isEmpty()) {
-                                    return Mono.error(
-                                        new BadRequestException("BUSINESS PYME customers must have at least one CREDIT CARD for CHECKING account"));
-                                }
-                                return validateBusinessCustomerAccounts(request)
-                                    .map(acr -> Tuples.of(customer, acr));
-                            });
-                    }
-                }
+        EligibilityRule rule = accountEligibilityTable.getRule(customer.getType(), customer.getSubType(), AccountType.valueOf(request.getAccountType()));
+        if (rule.isRejected()) {
+            return Mono.error(new BadRequestException(rule.getRejectionMessage()));
+        }
+        return Mono.just(rule);
+    }
 
-                return validateBusinessCustomerAccounts(request)
-                    .map(acr -> Tuples.of(customer, acr));
-            });
+    /**
+     * Starts together the remote lookups required by the eligibility checks.
+     * Each outcome is materialized so checks can be evaluated afterwards in their original order.
+     *
+     * @param customer Customer that owns the account
+     * @param checks   Remote checks of the eligibility rules to evaluate
+     * @return Credit cards and credit debts signals
+     */
+    private Mono<Tuple2<Signal<List<CreditCardResponse>>, Signal<CreditDebtsResponse>>> fetchEligibilityLookups(
+        CustomerResponse customer, Set<EligibilityCheck> checks) {
+        Mono<List<CreditCardResponse>> creditCards = checks.contains(EligibilityCheck.CREDIT_CARDS)
+            ? creditCardService.getCustomerCreditCards(customer.getId()).collectList()
+            : Mono.just(Collections.emptyList());
+        Mono<CreditDebtsResponse> creditDebts = checks.contains(EligibilityCheck.CREDIT_DEBTS)
+            ? creditCardService.getCreditDebtsByCustomerId(customer.getId())
+            : Mono.just(new CreditDebtsResponse());
+
+        return Mono.zip(creditCards.materialize(), creditDebts.materialize());
     }
 
     /**
-     * Validates business customer account creation rules
+     * Evaluates the remote eligibility checks, keeping the precedence of the sequential flow:
+     * credit cards, account members and then credit debts
      *
-     * @param request Account request to validate
+     * @param customer Customer that owns the account
+     * @param request  Account request to validate
+     * @param rule     Eligibility rule of the request
+     * @param lookups  Outcomes of {@link #fetchEligibilityLookups}
      * @return Valid account request or error
      */
-    private Mono<AccountRequest> validateBusinessCustomerAccounts(AccountRequest request) {
-        AccountType accountType = AccountType.valueOf(request.getAccountType());
-        if (accountType.equals(AccountType.SAVINGS) || accountType.equals(AccountType.FIXED_TERM)) {
-            return Mono.error(new BadRequestException("BUSINESS customers cannot have " + accountType + " account"));
+    private Mono<AccountRequest> validateEligibilityLookups(
+        CustomerResponse customer, AccountRequest request, EligibilityRule rule,
+        Tuple2<Signal<List<CreditCardResponse>>, Signal<CreditDebtsResponse>> lookups) {
+        Mono<AccountRequest> validation = Mono.just(request);
+        if (rule.requires(EligibilityCheck.CREDIT_CARDS)) {
+            validation = validation.then(Mono.just(lookups.getT1()).<List<CreditCardResponse>>dematerialize())
+                .flatMap(cards -> cards.isEmpty()
+                    ? Mono.error(new BadRequestException(rule.getMissingCreditCardMessage()))
+                    : Mono.just(request));
         }
-        return Mono.just(request);
+        return validation
+            .flatMap(req -> validateAccountMembers(req, customer))
+            .flatMap(req -> Mono.just(lookups.getT2()).<CreditDebtsResponse>dematerialize()
+                .flatMap(this::validateCreditDebts)
+                .map(__ -> req));
     }
 
     /**
-     * Validates personal customer account creation rules
+     * Saves a new account. The one SAVINGS / one CHECKING rule of PERSONAL customers is enforced by
+     * partial unique indexes, so a violation surfaces here as a duplicate key error
      *
-     * @param request Account request to validate
-     * @return Valid account request or error
+     * @param account Account to save
+     * @return Saved account or error
      */
-    private Mono<AccountRequest> validatePersonalCustomerAccounts(AccountRequest request) {
-        return accountRepository.findByCustomerId(request.getCustomerId())
-            .collectList()
-            .flatMap(accounts -> {
-                AccountType accountType = AccountType.valueOf(request.getAccountType());
-                long accountTypeCount = accounts.stream()
-                    .filter(acc -> acc.getAccountType().equals(accountType))
-                    .count();
-                if (accountType.equals(AccountType.SAVINGS) && accountTypeCount > 0) {
-                    return Mono.error(new BadRequestException("PERSONAL customers can only have one SAVINGS account"));
-                }
-                if (accountType.equals(AccountType.CHECKING) && accountTypeCount > 0) {
-                    return Mono.error(new BadRequestException("PERSONAL customers can only have one CHECKING account"));
-                }
-                return Mono.just(request);
-            });
+    private Mono<Account> saveNewAccount(Account account) {
+        return accountRepository.save(account)
+            .onErrorMap(DuplicateKeyException.class, this::getDuplicateAccountError);
+    }
+
+    private Throwable getDuplicateAccountError(DataAccessException e) {
+        String message = String.valueOf(e.getMessage());
+        if (message.contains(MongoIndexInitializer.PERSONAL_SAVINGS_UNIQUE_INDEX)) {
+            return new BadRequestException(getUniqueAccountTypeMessage(AccountType.SAVINGS));
+        }
+        if (message.contains(MongoIndexInitializer.PERSONAL_CHECKING_UNIQUE_INDEX)) {
+            return new BadRequestException(getUniqueAccountTypeMessage(AccountType.CHECKING));
+        }
+        return e;
+    }
+
+    private static String getUniqueAccountTypeMessage(AccountType accountType) {
+        return "PERSONAL customers can only have one " + accountType + " account";
     }
 
     /**
@@ -261,4 +778,63 @@ public class AccountServiceImpl implements AccountService {
             return false;
         }
     }
+
+    /**
+     * One account of a batch create, holding the account to insert once validated or the rejection message
+     */
+    private static final class BatchCreateItem {
+        private final int index;
+
+        private final AccountRequest request;
+
+        private EligibilityRule rule;
+
+        private Account account;
+
+        private String rejection;
+
+        private BatchCreateItem(int index, AccountRequest request) {
+            this.index = index;
+            this.request = request;
+        }
+
+        int getIndex() {
+            return index;
+        }
+
+        AccountRequest getRequest() {
+            return request;
+        }
+
+        EligibilityRule getRule() {
+            return rule;
+        }
+
+        void setRule(EligibilityRule rule) {
+            this.rule = rule;
+        }
+
+        Account getAccount() {
+            return account;
+        }
+
+        String getRejection() {
+            return rejection;
+        }
+
+        boolean isRejected() {
+            return rejection != null;
+        }
+
+        BatchCreateItem accept(Account account) {
+            this.account = account;
+            return this;
+        }
+
+        BatchCreateItem reject(Throwable error) {
+            this.account = null;
+            this.rejection = String.valueOf(error.getMessage());
+            return this;
+        }
+    }
 }
@@ -0,0 +1,78 @@
+package com.project1.ms_account_service.business.service;
+
+import com.project1.ms_account_service.model.entity.Account;
+import com.project1.ms_account_service.model.entity.AccountStatus;
+import com.project1.ms_account_service.model.entity.CustomerAccountSummary;
+import com.project1.ms_account_service.repository.CustomerAccountSummaryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Keeps the {@link CustomerAccountSummary} read model in step with the account writes. A summary only exists once it
+ * holds every account of its customer: writes to customers without one leave it to be built from the accounts
+ * collection, either by the account creation itself or by the first read. The writes have already succeeded when the
+ * projection runs, so a failed projection is logged instead of failing the request, and the summary is left for
+ * {@link com.project1.ms_account_service.repository.CustomerAccountSummaryRebuild} to repair
+ */
+@Component
+@Slf4j
+public class CustomerAccountSummaryProjector {
+
+    @Autowired
+    private CustomerAccountSummaryRepository customerAccountSummaryRepository;
+
+    /**
+     * Puts new or updated accounts in the summary of their customer, building the summary when the customer has none
+     *
+     * @param customerId Customer of the accounts
+     * @param accounts Accounts as stored after the write
+     * @return Completion once the summary is updated
+     */
+    public Mono<Void> putAccounts(String customerId, List<Account> accounts) {
+        if (customerId == null || accounts.isEmpty()) {
+            return Mono.empty();
+        }
+        return customerAccountSummaryRepository.putAccounts(customerId, accounts)
+            .filter(updated -> !updated)
+            .flatMap(missing -> customerAccountSummaryRepository.rebuild(customerId))
+            .onErrorResume(e -> {
+                log.warn("Could not update the account summary of customer {}", customerId, e);
+                return Mono.empty();
+            });
+    }
+
+    /**
+     * Sets the balance and status of an account after a movement or status change. Customers without a summary
+     * are left as they are, their summary is built with the current state on the first read
+     *
+     * @param accountId Account updated
+     * @param balance Balance after the write, null if it did not change
+     * @param status Status after the write, null if it did not change
+     * @return Completion once the summary is updated
+     */
+    public Mono<Void> updateAccountState(String accountId, BigDecimal balance, AccountStatus status) {
+        return customerAccountSummaryRepository.updateAccountState(accountId, balance, status)
+            .onErrorResume(e -> {
+                log.warn("Could not update account {} in its customer account summary", accountId, e);
+                return Mono.empty();
+            })
+            .then();
+    }
+
+    /**
+     * @param customerId Customer id
+     * @return Summary of the customer with one point read, built from the accounts collection first if it does not exist
+     */
+    public Mono<CustomerAccountSummary> getSummary(String customerId) {
+        return customerAccountSummaryRepository.findById(customerId)
+            .switchIfEmpty(Mono.defer(() -> customerAccountSummaryRepository.rebuild(customerId)
+                .then(customerAccountSummaryRepository.findById(customerId))))
+            .defaultIfEmpty(new CustomerAccountSummary(customerId, Collections.emptyList()));
+    }
+}
@@ -0,0 +1,63 @@
+package com.project1.ms_account_service.business.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project1.ms_account_service.model.CustomerSummaryResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Optional read-through customerId to customer summary map for screens that reload the summary often.
+ * Summaries are not evicted on writes, so balances and accounts may be up to ttl old; disabled by default
+ */
+@Component
+public class CustomerSummaryCache {
+
+    static final String CACHE_NAME = "customerSummaryCache";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${application.config.cache.customerSummary.enabled:false}")
+    private boolean enabled;
+
+    @Value("${application.config.cache.customerSummary.maximumSize:10000}")
+    private long maximumSize;
+
+    @Value("${application.config.cache.customerSummary.ttl:5s}")
+    private Duration ttl;
+
+    private AsyncCache<String, CustomerSummaryResponse> cache;
+
+    @PostConstruct
+    void initCache() {
+        cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * @param customerId Customer id
+     * @param loader Summary query, called on every lookup when the cache is disabled and on a miss otherwise
+     * @return Summary of the customer
+     */
+    public Mono<CustomerSummaryResponse> getCustomerSummary(String customerId, Function<String, Mono<CustomerSummaryResponse>> loader) {
+        if (!enabled) {
+            return loader.apply(customerId);
+        }
+        // copy() keeps a cancelled subscriber from cancelling the load shared with other callers
+        return Mono.fromFuture(() -> cache.get(customerId, (key, executor) -> loader.apply(key).toFuture())
+            .copy());
+    }
+}
@@ -0,0 +1,85 @@
+package com.project1.ms_account_service.business.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project1.ms_account_service.model.entity.DebitCard;
+import com.project1.ms_account_service.model.entity.DebitCardAssociation;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Read-through cardNumber to debit card map for card-present flows, holding the debit card id, owner and
+ * associations ordered by position. Concurrent lookups of the same card share one query, and
+ * {@link #evictDebitCard(String)} also drops a query still in flight, so a lookup that started before an
+ * association was written does not put the previous associations back. Writes made by other instances
+ * are only seen once the ttl expires
+ */
+@Component
+public class DebitCardNumberCache {
+
+    static final String CACHE_NAME = "debitCardNumberCache";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${application.config.cache.debitCardNumber.maximumSize:100000}")
+    private long maximumSize;
+
+    @Value("${application.config.cache.debitCardNumber.ttl:30s}")
+    private Duration ttl;
+
+    private AsyncCache<String, DebitCard> cache;
+
+    @PostConstruct
+    void initCache() {
+        cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * @param cardNumber Card number
+     * @param loader Query of the debit card by card number, called on a miss
+     * @return Debit card with its associations ordered by position and unmodifiable, or empty if there is none
+     */
+    public Mono<DebitCard> getDebitCard(String cardNumber, Function<String, Mono<DebitCard>> loader) {
+        // copy() keeps a cancelled subscriber from cancelling the load shared with other callers
+        return Mono.fromFuture(() -> cache.get(cardNumber, (key, executor) -> loader.apply(key)
+                .map(DebitCardNumberCache::toCachedDebitCard)
+                .toFuture())
+            .copy());
+    }
+
+    public void evictDebitCard(String cardNumber) {
+        if (cardNumber != null) {
+            cache.synchronous().invalidate(cardNumber);
+        }
+    }
+
+    private static DebitCard toCachedDebitCard(DebitCard debitCard) {
+        List<DebitCardAssociation> associations = Optional.ofNullable(debitCard.getAssociations())
+            .orElse(Collections.emptyList())
+            .stream()
+            .sorted(Comparator.comparing(DebitCardAssociation::getPosition, Comparator.nullsLast(Comparator.naturalOrder())))
+            .collect(Collectors.toUnmodifiableList());
+        return debitCard.toBuilder()
+            .associations(associations)
+            .build();
+    }
+}
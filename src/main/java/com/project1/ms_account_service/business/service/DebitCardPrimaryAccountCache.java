@@ -0,0 +1,62 @@
+package com.project1.ms_account_service.business.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+
+/**
+ * Short-lived debitCardId to primaryAccountId map, so repeated balance checks of the same card
+ * read only the account balance instead of running the debit card aggregation. Writes made by other
+ * instances are only seen once the ttl expires
+ */
+@Component
+public class DebitCardPrimaryAccountCache {
+
+    static final String CACHE_NAME = "debitCardPrimaryAccountCache";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${application.config.cache.debitCardPrimaryAccount.enabled:true}")
+    private boolean enabled;
+
+    @Value("${application.config.cache.debitCardPrimaryAccount.maximumSize:10000}")
+    private long maximumSize;
+
+    @Value("${application.config.cache.debitCardPrimaryAccount.ttl:30s}")
+    private Duration ttl;
+
+    private Cache<String, String> cache;
+
+    @PostConstruct
+    void initCache() {
+        cache = Caffeine.newBuilder()
+            .maximumSize(enabled ? maximumSize : 0)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public Mono<String> getPrimaryAccountId(String debitCardId) {
+        return Mono.justOrEmpty(cache.getIfPresent(debitCardId));
+    }
+
+    public void putPrimaryAccountId(String debitCardId, String primaryAccountId) {
+        if (enabled) {
+            cache.put(debitCardId, primaryAccountId);
+        }
+    }
+
+    public void evictPrimaryAccountId(String debitCardId) {
+        cache.invalidate(debitCardId);
+    }
+}
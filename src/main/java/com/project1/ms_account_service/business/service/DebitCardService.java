@@ -1,5 +1,7 @@
 package com.project1.ms_account_service.business.service;
 
+import com.project1.ms_account_service.model.AccountMovementRequest;
+import com.project1.ms_account_service.model.DebitCardAuthorizationResponse;
 import com.project1.ms_account_service.model.DebitCardBalanceResponse;
 import com.project1.ms_account_service.model.DebitCardCreationRequest;
 import com.project1.ms_account_service.model.DebitCardCreationResponse;
@@ -14,4 +16,10 @@ public interface DebitCardService {
     Mono<DebitCardResponse> getDebitCardById(String debitCardId);
 
     Mono<DebitCardBalanceResponse> getDebitCardPrimaryAccountBalance(String debitCardId);
+
+    Mono<DebitCardResponse> getDebitCardByCardNumber(String cardNumber);
+
+    Mono<DebitCardBalanceResponse> getDebitCardPrimaryAccountBalanceByCardNumber(String cardNumber);
+
+    Mono<DebitCardAuthorizationResponse> authorizeDebitCardPayment(String cardNumber, Mono<AccountMovementRequest> request);
 }
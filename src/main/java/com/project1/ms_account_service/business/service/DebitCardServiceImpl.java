@@ -1,25 +1,38 @@
 package com.project1.ms_account_service.business.service;
 
 import com.project1.ms_account_service.business.adapter.CreditCardService;
+import com.project1.ms_account_service.business.generator.CardNumberAllocator;
 import com.project1.ms_account_service.business.mapper.DebitCardMapper;
 import com.project1.ms_account_service.exception.BadRequestException;
 import com.project1.ms_account_service.exception.NotFoundException;
 import com.project1.ms_account_service.model.*;
+import com.project1.ms_account_service.model.entity.Account;
+import com.project1.ms_account_service.model.entity.AccountBalance;
+import com.project1.ms_account_service.model.entity.AccountStatus;
 import com.project1.ms_account_service.model.entity.DebitCard;
 import com.project1.ms_account_service.model.entity.DebitCardAssociation;
+import com.project1.ms_account_service.repository.AccountRepository;
 import com.project1.ms_account_service.repository.DebitCardRepository;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
+import java.math.BigDecimal;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
+@Slf4j
 public class DebitCardServiceImpl implements DebitCardService {
 
+    private static final int CARD_NUMBER_COLLISION_RETRIES = 3;
+
     @Autowired
     private DebitCardRepository debitCardRepository;
 
@@ -29,27 +42,57 @@ public class DebitCardServiceImpl implements DebitCardService {
     @Autowired
     private AccountService accountService;
 
+    @Autowired
+    private AccountRepository accountRepository;
+
     @Autowired
     private CreditCardService creditCardService;
 
+    @Autowired
+    private CardNumberAllocator cardNumberAllocator;
+
+    @Autowired
+    private DebitCardPrimaryAccountCache debitCardPrimaryAccountCache;
+
+    @Autowired
+    private DebitCardNumberCache debitCardNumberCache;
+
+    @Autowired
+    private CustomerAccountSummaryProjector customerAccountSummaryProjector;
+
     @Override
     public Mono<DebitCardCreationResponse> createDebitCard(Mono<DebitCardCreationRequest> request) {
         return request.flatMap(req ->
                 accountService.getAccountById(req.getAccountId())
-                    .map(accountResponse -> {
-                        DebitCard debitCardCreationEntity = debitCardMapper.getDebitCardCreationEntity(req);
-                        debitCardCreationEntity.setCustomerId(accountResponse.getCustomerId());
-                        return debitCardCreationEntity;
-                    })
-            )
-            .flatMap(debitCard ->
-                customerHasCreditDebts(debitCard.getCustomerId())
-                    .thenReturn(debitCard)
+                    .flatMap(accountResponse ->
+                        customerHasCreditDebts(accountResponse.getCustomerId())
+                            .then(issueDebitCard(req, accountResponse.getCustomerId()))
+                    )
             )
-            .flatMap(debitCardRepository::save)
             .map(debitCardMapper::getDebitCardCreationResponse);
     }
 
+    /**
+     * Saves a new debit card with the next allocated card number. Legacy cards were numbered at random,
+     * so a number can still collide with one of them; the unique cardNumber index rejects it and a new number is taken
+     *
+     * @param req Debit card creation request
+     * @param customerId Customer who owns the account
+     * @return Saved debit card
+     */
+    private Mono<DebitCard> issueDebitCard(DebitCardCreationRequest req, String customerId) {
+        return Mono.defer(cardNumberAllocator::nextCardNumber)
+            .map(cardNumber -> {
+                DebitCard debitCardCreationEntity = debitCardMapper.getDebitCardCreationEntity(req, cardNumber);
+                debitCardCreationEntity.setCustomerId(customerId);
+                return debitCardCreationEntity;
+            })
+            .flatMap(debitCardRepository::save)
+            .retryWhen(Retry.max(CARD_NUMBER_COLLISION_RETRIES)
+                .filter(DuplicateKeyException.class::isInstance)
+                .onRetryExhaustedThrow((retrySpec, signal) -> signal.failure()));
+    }
+
     public Mono<Boolean> customerHasCreditDebts(String customerId) {
         return creditCardService.getCreditDebtsByCustomerId(customerId)
             .flatMap(creditDebtsResponse -> {
@@ -74,8 +117,9 @@ public class DebitCardServiceImpl implements DebitCardService {
     public Mono<DebitCardCreationResponse> createDebitCardAssociation(String debitCardId, Mono<DebitCardCreationRequest> request) {
         return request.flatMap(req ->
             validateDebitCardAssociationEntities(req, debitCardId)
-                .map(debitCard -> addAssociation(debitCard, req.getAccountId()))
-                .flatMap(debitCardRepository::save)
+                .then(Mono.defer(() -> debitCardRepository.appendAssociation(debitCardId, req.getAccountId())))
+                .switchIfEmpty(Mono.error(new BadRequestException("Account is already associated with the debit card")))
+                .doOnNext(debitCard -> debitCardNumberCache.evictDebitCard(debitCard.getCardNumber()))
                 .map(debitCardMapper::getDebitCardCreationResponse)
         );
     }
@@ -89,61 +133,185 @@ public class DebitCardServiceImpl implements DebitCardService {
 
     @Override
     public Mono<DebitCardBalanceResponse> getDebitCardPrimaryAccountBalance(String debitCardId) {
-        return debitCardRepository.findById(debitCardId)
-            .switchIfEmpty(Mono.error(new NotFoundException("Debit card not found with id: " + debitCardId)))
-            .flatMap(debitCard -> {
-                String primaryAccountId = debitCard.getAssociations().stream()
-                    .min(Comparator.comparing(DebitCardAssociation::getPosition))
-                    .map(DebitCardAssociation::getAccountId)
-                    .orElseThrow();
+        return debitCardPrimaryAccountCache.getPrimaryAccountId(debitCardId)
+            .flatMap(primaryAccountId -> accountService.getAccountBalanceById(primaryAccountId)
+                .flatMap(balance -> Mono.justOrEmpty(balance.getBalance())))
+            .switchIfEmpty(Mono.defer(() -> findPrimaryAccountBalance(debitCardId)))
+            .map(balance -> {
+                DebitCardBalanceResponse debitCardBalanceResponse = new DebitCardBalanceResponse();
+                debitCardBalanceResponse.setBalance(balance);
+                return debitCardBalanceResponse;
+            });
+    }
 
-                return accountService.getAccountById(primaryAccountId);
+    @Override
+    public Mono<DebitCardResponse> getDebitCardByCardNumber(String cardNumber) {
+        return findDebitCardByCardNumber(cardNumber)
+            .map(debitCardMapper::getDebitCardResponse);
+    }
+
+    @Override
+    public Mono<DebitCardBalanceResponse> getDebitCardPrimaryAccountBalanceByCardNumber(String cardNumber) {
+        return findDebitCardByCardNumber(cardNumber)
+            .flatMap(debitCard -> {
+                if (debitCard.getAssociations().isEmpty()) {
+                    return Mono.error(new NotFoundException("Debit card has no associated accounts: " + cardNumber));
+                }
+                return accountService.getAccountBalanceById(debitCard.getAssociations().get(0).getAccountId());
             })
-            .map(accountResponse -> {
+            .map(accountBalanceResponse -> {
                 DebitCardBalanceResponse debitCardBalanceResponse = new DebitCardBalanceResponse();
-                debitCardBalanceResponse.setBalance(accountResponse.getBalance());
+                debitCardBalanceResponse.setBalance(accountBalanceResponse.getBalance());
                 return debitCardBalanceResponse;
             });
     }
 
-    private Mono<DebitCard> validateDebitCardAssociationEntities(DebitCardCreationRequest req, String debitCardId) {
-        return debitCardRepository.findById(debitCardId)
-            .switchIfEmpty(Mono.error(new NotFoundException("Debit card not found with id: " + debitCardId)))
-            .flatMap(debitCard ->
-                accountService.getAccountById(req.getAccountId())
-                    .flatMap(accountResponse -> {
-                        if (accountResponse.getCustomerId() != null) {
-                            if (!accountResponse.getCustomerId().equals(debitCard.getCustomerId())) {
-                                return Mono.error(
-                                    new BadRequestException("Cannot associate. Provided ACCOUNT does not belong to the CUSTOMER who owns the debit card"));
-                            }
-                        }
-                        return Mono.just(accountResponse);
-                    })
-                    .flatMap(debitCardCreationRequest -> Mono.just(debitCard))
-            );
-    }
-
-    private DebitCard addAssociation(DebitCard debitCard, String accountId) {
-        List<DebitCardAssociation> associations = debitCard.getAssociations();
-        boolean isAccountAlreadyAssociated = associations.stream()
-            .anyMatch(association -> association.getAccountId().equals(accountId));
-        if (isAccountAlreadyAssociated) {
-            throw new BadRequestException("Account is already associated with the debit card");
+    /**
+     * Debits the amount from the first associated account, in position order, that can pay it.
+     * The ordered associations come from {@link DebitCardNumberCache}. The primary account, which pays most of the time,
+     * is tried straight away; when it rejects the movement the other accounts are read with one query, so the ones that
+     * cannot pay are skipped without a write
+     *
+     * @param cardNumber Card number
+     * @param request Amount to pay
+     * @return Account charged and its new balance, or error when no associated account can pay
+     */
+    @Override
+    public Mono<DebitCardAuthorizationResponse> authorizeDebitCardPayment(String cardNumber, Mono<AccountMovementRequest> request) {
+        return request.flatMap(this::validateAuthorizationAmount)
+            .flatMap(amount -> findDebitCardByCardNumber(cardNumber)
+                .flatMap(debitCard -> {
+                    List<DebitCardAssociation> associations = debitCard.getAssociations();
+                    if (associations.isEmpty()) {
+                        return Mono.error(new NotFoundException("Debit card has no associated accounts: " + cardNumber));
+                    }
+                    return chargeAccount(associations.get(0), amount)
+                        .switchIfEmpty(Mono.defer(() -> chargeFirstAvailableAccount(associations.subList(1, associations.size()), amount)))
+                        .switchIfEmpty(Mono.error(new BadRequestException("No account associated to the debit card can pay the amount")))
+                        .doOnSuccess(authorization -> log.info("Authorized payment of {} with debit card {} from account: {}",
+                            amount, debitCard.getId(), authorization.getAccountId()));
+                }));
+    }
+
+    /**
+     * The conditional update of applyMovement has the last word: an account that changed after it was read
+     * and rejects the movement is passed over for the next one
+     *
+     * @param associations Associations in position order
+     * @param amount Amount to pay
+     * @return Authorization of the first account that paid, or empty if none could
+     */
+    private Mono<DebitCardAuthorizationResponse> chargeFirstAvailableAccount(List<DebitCardAssociation> associations, BigDecimal amount) {
+        if (associations.isEmpty()) {
+            return Mono.empty();
+        }
+        List<String> accountIds = associations.stream()
+            .map(DebitCardAssociation::getAccountId)
+            .collect(Collectors.toList());
+        return accountRepository.findMovementStatesByIdIn(accountIds)
+            .collectMap(Account::getId)
+            .flatMap(accounts -> Flux.fromIterable(associations)
+                .filter(association -> canPay(accounts.get(association.getAccountId()), amount))
+                .concatMap(association -> chargeAccount(association, amount))
+                .next());
+    }
+
+    /**
+     * @return Authorization with the new balance, or empty if the account rejected the movement
+     */
+    private Mono<DebitCardAuthorizationResponse> chargeAccount(DebitCardAssociation association, BigDecimal amount) {
+        return accountRepository.applyMovement(association.getAccountId(), amount.negate())
+            .flatMap(balance -> customerAccountSummaryProjector.updateAccountState(association.getAccountId(), balance.getBalance(), balance.getStatus())
+                .thenReturn(balance))
+            .map(balance -> getDebitCardAuthorizationResponse(association, balance));
+    }
+
+    private Mono<BigDecimal> validateAuthorizationAmount(AccountMovementRequest request) {
+        if (request.getAmount() == null || request.getAmount().signum() <= 0) {
+            return Mono.error(new BadRequestException("Amount must be greater than zero"));
+        }
+        return Mono.just(request.getAmount());
+    }
+
+    /**
+     * Same conditions as the filter of applyMovement, checked on the state read before trying the account
+     *
+     * @param account Account read, null when it no longer exists
+     * @param amount Amount to pay
+     * @return true if the account is ACTIVE, below its monthly movements limit and its balance covers amount
+     */
+    private boolean canPay(Account account, BigDecimal amount) {
+        if (account == null || !AccountStatus.ACTIVE.equals(account.getStatus())) {
+            return false;
+        }
+        Integer maxMonthlyMovements = AccountServiceImpl.getMaxMonthlyMovements(account);
+        if (maxMonthlyMovements != null && Optional.ofNullable(account.getMonthlyMovements()).orElse(0) >= maxMonthlyMovements) {
+            return false;
         }
+        return Optional.ofNullable(account.getBalance()).orElse(BigDecimal.ZERO).compareTo(amount) >= 0;
+    }
 
-        int nextPosition = associations.stream()
-            .map(DebitCardAssociation::getPosition)
-            .max(Integer::compareTo)
-            .orElse(0) + 1;
+    private DebitCardAuthorizationResponse getDebitCardAuthorizationResponse(DebitCardAssociation association, AccountBalance balance) {
+        DebitCardAuthorizationResponse response = new DebitCardAuthorizationResponse();
+        response.setAccountId(association.getAccountId());
+        response.setAccountNumber(balance.getAccountNumber());
+        response.setPosition(association.getPosition());
+        response.setBalance(balance.getBalance());
+        return response;
+    }
 
-        DebitCardAssociation debitCardAssociation = DebitCardAssociation.builder()
-            .accountId(accountId)
-            .position(nextPosition)
-            .build();
+    /**
+     * @param cardNumber Card number
+     * @return Debit card with its associations ordered by position, from {@link DebitCardNumberCache} when present
+     */
+    private Mono<DebitCard> findDebitCardByCardNumber(String cardNumber) {
+        return debitCardNumberCache.getDebitCard(cardNumber, debitCardRepository::findByCardNumber)
+            .switchIfEmpty(Mono.error(new NotFoundException("Debit card not found with card number: " + cardNumber)));
+    }
 
-        associations.add(debitCardAssociation);
-        debitCard.setAssociations(associations);
-        return debitCard;
+    private Mono<BigDecimal> findPrimaryAccountBalance(String debitCardId) {
+        return debitCardRepository.findPrimaryAccountBalance(debitCardId)
+            .switchIfEmpty(Mono.error(new NotFoundException("Debit card not found with id: " + debitCardId)))
+            .flatMap(primaryBalance -> {
+                if (primaryBalance.getPrimaryAccountId() == null) {
+                    return Mono.error(new NotFoundException("Debit card has no associated accounts: " + debitCardId));
+                }
+                if (primaryBalance.getAccount() == null) {
+                    return Mono.error(new NotFoundException("Account not found with id: " + primaryBalance.getPrimaryAccountId()));
+                }
+                debitCardPrimaryAccountCache.putPrimaryAccountId(debitCardId, primaryBalance.getPrimaryAccountId());
+                return Mono.justOrEmpty(primaryBalance.getAccount().getBalance());
+            });
+    }
+
+    /**
+     * Reads the debit card and the account at the same time and checks that the account can be associated.
+     * The append itself skips accounts already associated, this only avoids the write when the card read shows it
+     *
+     * @param req Association request
+     * @param debitCardId Debit card id
+     * @return Debit card read, or error
+     */
+    private Mono<DebitCard> validateDebitCardAssociationEntities(DebitCardCreationRequest req, String debitCardId) {
+        return Mono.zip(
+                debitCardRepository.findById(debitCardId)
+                    .switchIfEmpty(Mono.error(new NotFoundException("Debit card not found with id: " + debitCardId))),
+                Mono.defer(() -> accountService.getAccountById(req.getAccountId())))
+            .flatMap(cardAndAccount -> {
+                DebitCard debitCard = cardAndAccount.getT1();
+                AccountResponse accountResponse = cardAndAccount.getT2();
+                if (accountResponse.getCustomerId() != null && !accountResponse.getCustomerId().equals(debitCard.getCustomerId())) {
+                    return Mono.error(
+                        new BadRequestException("Cannot associate. Provided ACCOUNT does not belong to the CUSTOMER who owns the debit card"));
+                }
+                boolean isAccountAlreadyAssociated = Optional.ofNullable(debitCard.getAssociations())
+                    .orElse(Collections.emptyList())
+                    .stream()
+                    .anyMatch(association -> req.getAccountId().equals(association.getAccountId()));
+                if (isAccountAlreadyAssociated) {
+                    return Mono.error(new BadRequestException("Account is already associated with the debit card"));
+                }
+                return Mono.just(debitCard);
+            });
     }
 }
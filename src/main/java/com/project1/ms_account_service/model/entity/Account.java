@@ -11,7 +11,6 @@ import org.springframework.data.mongodb.core.mapping.Document;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.UUID;
 
 @Data
 @Document(collection = "accounts")
@@ -48,8 +47,4 @@ public class Account {
     private Integer maxMonthlyMovementsNoFee;
 
     private BigDecimal transactionCommissionFeePercentage;
-
-    public static String generateAccountNumber() {
-        return "ACC-" + UUID.randomUUID().toString();
-    }
 }
@@ -0,0 +1,22 @@
+package com.project1.ms_account_service.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Balance read model of an account, read straight from the accounts collection
+ * without loading holders, signers or the fields of each account type
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountBalance {
+    private String accountNumber;
+
+    private BigDecimal balance;
+
+    private AccountStatus status;
+}
@@ -0,0 +1,18 @@
+package com.project1.ms_account_service.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountTypeTotal {
+    private AccountType accountType;
+
+    private long accounts;
+
+    private BigDecimal balance;
+}
@@ -0,0 +1,28 @@
+package com.project1.ms_account_service.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+import org.springframework.data.mongodb.core.mapping.MongoId;
+
+import java.util.List;
+
+/**
+ * Read model with one document per customer holding the state of each of their accounts, kept up to date by
+ * the account write paths and rebuilt from the accounts collection when missing or on demand. The id is always a
+ * string, as written by the rebuild $merge, even for customer ids that look like an ObjectId
+ */
+@Data
+@Document(collection = "customer-account-summaries")
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder(toBuilder = true)
+public class CustomerAccountSummary {
+    @MongoId(FieldType.STRING)
+    private String customerId;
+
+    private List<CustomerAccountSummaryEntry> accounts;
+}
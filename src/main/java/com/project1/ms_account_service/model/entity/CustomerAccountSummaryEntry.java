@@ -0,0 +1,24 @@
+package com.project1.ms_account_service.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder(toBuilder = true)
+public class CustomerAccountSummaryEntry {
+    private String accountId;
+
+    private String accountNumber;
+
+    private AccountType accountType;
+
+    private AccountStatus status;
+
+    private BigDecimal balance;
+}
@@ -0,0 +1,21 @@
+package com.project1.ms_account_service.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Accounts, debit cards and ACTIVE balance per account type of a customer, read with a single aggregation
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerSummary {
+    private List<Account> accounts;
+
+    private List<AccountTypeTotal> totals;
+
+    private List<DebitCard> debitCards;
+}
@@ -9,7 +9,6 @@ import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.List;
-import java.util.Random;
 
 @Data
 @Document(collection = "debit-cards")
@@ -26,14 +25,8 @@ public class DebitCard {
 
     private List<DebitCardAssociation> associations;
 
-    public static String generateDebitCardNumber() {
-        Random random = new Random();
-        StringBuilder sb = new StringBuilder("4");
-
-        for (int i = 0; i < 15; i++) {
-            sb.append(random.nextInt(10));
-        }
-        return sb.toString();
-    }
-
+    /**
+     * Highest position handed out to an association, increased by every append so concurrent appends get different positions
+     */
+    private Integer lastAssociationPosition;
 }
@@ -0,0 +1,18 @@
+package com.project1.ms_account_service.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Primary account of a debit card joined with its balance, null fields meaning the card
+ * has no associations or its primary account does not exist
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DebitCardPrimaryBalance {
+    private String primaryAccountId;
+
+    private AccountBalance account;
+}
@@ -0,0 +1,33 @@
+package com.project1.ms_account_service.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a data migration or import, saved after every batch so a restarted run resumes after lastId
+ */
+@Data
+@Document(collection = "migrations")
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder(toBuilder = true)
+public class MigrationCheckpoint {
+    @Id
+    private String id;
+
+    private Object lastId;
+
+    private long migrated;
+
+    private long rejected;
+
+    private boolean completed;
+
+    private LocalDateTime updatedAt;
+}
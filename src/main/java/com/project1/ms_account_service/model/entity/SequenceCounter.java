@@ -0,0 +1,23 @@
+package com.project1.ms_account_service.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Last value handed out by a sequence, increased with $inc by whole blocks at a time
+ */
+@Data
+@Document(collection = "counters")
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder(toBuilder = true)
+public class SequenceCounter {
+    @Id
+    private String id;
+
+    private long value;
+}
@@ -0,0 +1,147 @@
+package com.project1.ms_account_service.repository;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOneModel;
+import com.project1.ms_account_service.model.entity.Account;
+import com.project1.ms_account_service.model.entity.MigrationCheckpoint;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonType;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Rewrites the BigDecimal fields of existing accounts from strings to Decimal128 in batches.
+ * Each batch is one unordered bulk write whose updates convert the values on the server, so movements
+ * applied while the migration runs are never overwritten. Progress is saved as a {@link MigrationCheckpoint}
+ * after each batch and a restarted migration continues after the last migrated id. Once a pass has completed,
+ * every startup scans again from the lowest id, since instances still running the previous version keep writing
+ * strings during a rolling deploy, also to accounts behind the checkpoint.
+ */
+@Component
+@Slf4j
+public class AccountDecimalMigration {
+
+    public static final String MIGRATION_ID = "account-decimal128";
+
+    static final List<String> DECIMAL_FIELDS = List.of("balance", "maintenanceFee", "transactionCommissionFeePercentage");
+
+    @Autowired
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Value("${application.config.migration.decimal128.enabled:false}")
+    private boolean enabled;
+
+    @Value("${application.config.migration.decimal128.batchSize:500}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startMigration() {
+        if (!enabled) {
+            return;
+        }
+        migrate().subscribe(
+            checkpoint -> log.info("Decimal128 migration finished: {} accounts migrated", checkpoint.getMigrated()),
+            e -> log.error("Decimal128 migration stopped, it will resume from its last checkpoint", e));
+    }
+
+    public Mono<MigrationCheckpoint> migrate() {
+        return reactiveMongoTemplate.findById(MIGRATION_ID, MigrationCheckpoint.class)
+            .defaultIfEmpty(MigrationCheckpoint.builder().id(MIGRATION_ID).build())
+            .map(this::getStartCheckpoint)
+            .flatMap(checkpoint -> Mono.just(checkpoint)
+                .expand(this::migrateNextBatch)
+                .last());
+    }
+
+    /**
+     * @param checkpoint Saved checkpoint
+     * @return The checkpoint of an interrupted pass, or a new pass from the lowest id after a completed one
+     */
+    private MigrationCheckpoint getStartCheckpoint(MigrationCheckpoint checkpoint) {
+        if (!checkpoint.isCompleted()) {
+            return checkpoint;
+        }
+        log.info("Decimal128 migration completed before, scanning again for string values written since");
+        return checkpoint.toBuilder().lastId(null).completed(false).build();
+    }
+
+    private Mono<MigrationCheckpoint> migrateNextBatch(MigrationCheckpoint checkpoint) {
+        if (checkpoint.isCompleted()) {
+            return Mono.empty();
+        }
+        return reactiveMongoTemplate.find(getNextBatchQuery(checkpoint.getLastId()), Document.class, getAccountsCollection())
+            .map(document -> document.get("_id"))
+            .collectList()
+            .flatMap(ids -> {
+                if (ids.isEmpty()) {
+                    return saveCheckpoint(checkpoint.toBuilder().completed(true).build());
+                }
+                return convertToDecimal(ids)
+                    .map(migrated -> checkpoint.toBuilder()
+                        .lastId(ids.get(ids.size() - 1))
+                        .migrated(checkpoint.getMigrated() + migrated)
+                        .build())
+                    .flatMap(this::saveCheckpoint)
+                    .doOnNext(saved -> log.info("Decimal128 migration: {} accounts migrated, last id {}", saved.getMigrated(), saved.getLastId()));
+            });
+    }
+
+    /**
+     * Next accounts after lastId, in _id order, that still hold any of the fields as a string
+     */
+    private Query getNextBatchQuery(Object lastId) {
+        Criteria stringFields = new Criteria().orOperator(DECIMAL_FIELDS.stream()
+            .map(field -> Criteria.where(field).type(BsonType.STRING.getValue()))
+            .toArray(Criteria[]::new));
+        Criteria criteria = lastId == null ? stringFields : new Criteria().andOperator(Criteria.where("_id").gt(lastId), stringFields);
+
+        Query query = new Query(criteria)
+            .with(Sort.by(Sort.Direction.ASC, "_id"))
+            .limit(batchSize);
+        query.fields().include("_id");
+        return query;
+    }
+
+    private Mono<Long> convertToDecimal(List<Object> ids) {
+        Document convertedFields = new Document();
+        DECIMAL_FIELDS.forEach(field -> convertedFields.append(field, new Document("$cond", Arrays.asList(
+            new Document("$eq", Arrays.asList(new Document("$type", "$" + field), "string")),
+            new Document("$toDecimal", "$" + field),
+            "$" + field))));
+        List<Document> update = List.of(new Document("$set", convertedFields));
+
+        List<UpdateOneModel<Document>> updates = ids.stream()
+            .map(id -> new UpdateOneModel<Document>(Filters.eq("_id", id), update))
+            .collect(Collectors.toList());
+
+        return reactiveMongoTemplate.getCollection(getAccountsCollection())
+            .flatMap(collection -> Mono.from(collection.bulkWrite(updates, new BulkWriteOptions().ordered(false))))
+            .map(BulkWriteResult::getModifiedCount)
+            .map(Integer::longValue);
+    }
+
+    private Mono<MigrationCheckpoint> saveCheckpoint(MigrationCheckpoint checkpoint) {
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        return reactiveMongoTemplate.save(checkpoint);
+    }
+
+    private String getAccountsCollection() {
+        return reactiveMongoTemplate.getCollectionName(Account.class);
+    }
+}
@@ -1,14 +1,29 @@
 package com.project1.ms_account_service.repository;
 
 import com.project1.ms_account_service.model.entity.Account;
+import com.project1.ms_account_service.model.entity.AccountBalance;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+
 @Repository
-public interface AccountRepository extends ReactiveMongoRepository<Account, String> {
+public interface AccountRepository extends ReactiveMongoRepository<Account, String>, AccountRepositoryCustom {
     Flux<Account> findByCustomerId(String customerId);
 
     Mono<Account> findByAccountNumber(String accountNumber);
+
+    Flux<Account> findByAccountNumberIn(Collection<String> accountNumbers);
+
+    /**
+     * Covered by {@link MongoIndexInitializer#ACCOUNT_BALANCE_COVERING_INDEX}, so the document itself is never read
+     */
+    @Query(value = "{ 'accountNumber': ?0 }", fields = "{ '_id': 0, 'accountNumber': 1, 'balance': 1, 'status': 1 }")
+    Mono<AccountBalance> findBalanceByAccountNumber(String accountNumber);
+
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'accountNumber': 1, 'balance': 1, 'status': 1 }")
+    Mono<AccountBalance> findBalanceById(String id);
 }
@@ -0,0 +1,57 @@
+package com.project1.ms_account_service.repository;
+
+import com.project1.ms_account_service.model.entity.Account;
+import com.project1.ms_account_service.model.entity.AccountBalance;
+import com.project1.ms_account_service.model.entity.AccountStatus;
+import com.project1.ms_account_service.model.entity.CustomerSummary;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface AccountRepositoryCustom {
+    /**
+     * Accounts of a customer in id order, starting after afterId when given
+     *
+     * @param limit     Maximum accounts returned, 0 for no limit
+     * @param batchSize Documents fetched from MongoDB per cursor batch
+     */
+    Flux<Account> findByCustomerIdAfter(String customerId, String afterId, int limit, int batchSize);
+
+    /**
+     * Accounts with only the fields that decide whether a movement can be applied: accountNumber, balance, status,
+     * monthlyMovements and maxMonthlyMovements, read with a single query
+     */
+    Flux<Account> findMovementStatesByIdIn(Collection<String> ids);
+
+    /**
+     * Accounts, debit cards and ACTIVE balance per account type of the customer, read with a single aggregation
+     */
+    Mono<CustomerSummary> findCustomerSummary(String customerId);
+
+    Mono<AccountBalance> applyMovement(String id, BigDecimal amount);
+
+    /**
+     * Applies the update to the account and returns it updated, or nothing when the account does not exist
+     * or a monthlyMovements being set is above its maxMonthlyMovements. An empty update only reads the account
+     */
+    Mono<Account> updateAccountFields(String id, Update update);
+
+    /**
+     * @return Number of accounts matched, 0 when the account does not exist
+     */
+    Mono<Long> updateAccountStatus(String id, AccountStatus status);
+
+    /**
+     * Inserts the accounts with one unordered insertMany, so an account rejected by a unique index
+     * does not stop the ones after it. Accounts without id get one assigned before the insert
+     *
+     * @return Write errors by position in accounts, empty when every account was inserted
+     */
+    Mono<Map<Integer, DataAccessException>> insertAllUnordered(List<Account> accounts);
+}
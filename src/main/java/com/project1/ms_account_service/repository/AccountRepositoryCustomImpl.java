@@ -0,0 +1,148 @@
+package com.project1.ms_account_service.repository;
+
+import com.project1.ms_account_service.model.entity.Account;
+import com.project1.ms_account_service.model.entity.AccountBalance;
+import com.project1.ms_account_service.model.entity.AccountStatus;
+import com.project1.ms_account_service.model.entity.CustomerSummary;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public class AccountRepositoryCustomImpl implements AccountRepositoryCustom {
+
+    @Autowired
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Override
+    public Flux<Account> findByCustomerIdAfter(String customerId, String afterId, int limit, int batchSize) {
+        Criteria criteria = Criteria.where("customerId").is(customerId);
+        if (afterId != null) {
+            criteria = criteria.and("id").gt(afterId);
+        }
+        Query query = new Query(criteria)
+            .with(Sort.by(Sort.Direction.ASC, "id"))
+            .limit(limit)
+            .cursorBatchSize(batchSize);
+        return reactiveMongoTemplate.find(query, Account.class);
+    }
+
+    @Override
+    public Flux<Account> findMovementStatesByIdIn(Collection<String> ids) {
+        Query query = new Query(Criteria.where("id").in(ids));
+        // _class keeps savings and fixed term accounts mapped to their type, which holds maxMonthlyMovements
+        query.fields().include("accountNumber", "balance", "status", "monthlyMovements", "maxMonthlyMovements", "_class");
+        return reactiveMongoTemplate.find(query, Account.class);
+    }
+
+    /**
+     * One $facet over the accounts of the customer returns them in id order together with the count and
+     * balance of the ACTIVE ones per account type, and the debit cards of the customer are joined to that
+     * single result with an uncorrelated $lookup, so the customer index of each collection serves the whole
+     * summary in one round trip. $facet always yields a document, so a customer without accounts still gets
+     * their debit cards and empty lists.
+     */
+    @Override
+    public Mono<CustomerSummary> findCustomerSummary(String customerId) {
+        Document totals = new Document("$group", new Document("_id", "$accountType")
+            .append("accounts", new Document("$sum", 1))
+            .append("balance", new Document("$sum", storedBalance())));
+        TypedAggregation<Account> aggregation = Aggregation.newAggregation(Account.class,
+            Aggregation.match(Criteria.where("customerId").is(customerId)),
+            context -> new Document("$facet", new Document()
+                .append("accounts", List.of(new Document("$sort", new Document("_id", 1))))
+                .append("totals", List.of(
+                    new Document("$match", new Document("status", AccountStatus.ACTIVE.toString())),
+                    totals,
+                    new Document("$sort", new Document("_id", 1)),
+                    new Document("$project", new Document("_id", 0)
+                        .append("accountType", "$_id")
+                        .append("accounts", 1)
+                        .append("balance", 1))))),
+            context -> new Document("$lookup", new Document("from", "debit-cards")
+                .append("pipeline", List.of(
+                    new Document("$match", new Document("customerId", customerId)),
+                    new Document("$sort", new Document("_id", 1))))
+                .append("as", "debitCards")));
+
+        return reactiveMongoTemplate.aggregate(aggregation, CustomerSummary.class).next();
+    }
+
+    /**
+     * Adds a signed amount to the balance and counts one monthly movement in a single findAndModify.
+     * The account is only modified while it is ACTIVE, below its maxMonthlyMovements (savings and fixed term)
+     * and the resulting balance is not negative; otherwise nothing is returned.
+     * The update is a pipeline instead of $inc so that balances still stored as strings, not yet rewritten by
+     * {@link AccountDecimalMigration}, are converted to Decimal128 by the same update.
+     */
+    @Override
+    public Mono<AccountBalance> applyMovement(String id, BigDecimal amount) {
+        Decimal128 decimalAmount = new Decimal128(amount);
+        Document newBalance = new Document("$add", Arrays.asList(storedBalance(), decimalAmount));
+
+        Query query = new Query(Criteria.where("id").is(id)
+            .and("status").is(AccountStatus.ACTIVE.toString())
+            .and("$expr").is(new Document("$and", Arrays.asList(
+                new Document("$lt", Arrays.asList(
+                    new Document("$ifNull", Arrays.asList("$monthlyMovements", 0)),
+                    new Document("$ifNull", Arrays.asList("$maxMonthlyMovements", Integer.MAX_VALUE)))),
+                new Document("$gte", Arrays.asList(newBalance, new Decimal128(BigDecimal.ZERO)))))));
+        query.fields().include("accountNumber", "balance", "status");
+
+        AggregationUpdate update = AggregationUpdate.from(List.of(context -> new Document("$set", new Document()
+            .append("balance", newBalance)
+            .append("monthlyMovements", new Document("$add", Arrays.asList(
+                new Document("$ifNull", Arrays.asList("$monthlyMovements", 0)), 1))))));
+
+        return reactiveMongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Account.class)
+            .map(account -> new AccountBalance(account.getAccountNumber(), account.getBalance(), account.getStatus()));
+    }
+
+    @Override
+    public Mono<Account> updateAccountFields(String id, Update update) {
+        Query query = new Query(Criteria.where("id").is(id));
+        if (update.getUpdateObject().isEmpty()) {
+            return reactiveMongoTemplate.findOne(query, Account.class);
+        }
+        Document set = update.getUpdateObject().get("$set", Document.class);
+        Object monthlyMovements = set != null ? set.get("monthlyMovements") : null;
+        if (monthlyMovements != null) {
+            // also matches accounts without a limit, where maxMonthlyMovements is missing
+            query.addCriteria(Criteria.where("maxMonthlyMovements").not().lt(monthlyMovements));
+        }
+        return reactiveMongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Account.class);
+    }
+
+    @Override
+    public Mono<Long> updateAccountStatus(String id, AccountStatus status) {
+        return reactiveMongoTemplate.updateFirst(new Query(Criteria.where("id").is(id)), Update.update("status", status), Account.class)
+            .map(UpdateResult::getMatchedCount);
+    }
+
+    @Override
+    public Mono<Map<Integer, DataAccessException>> insertAllUnordered(List<Account> accounts) {
+        return UnorderedInserts.insertAll(reactiveMongoTemplate, accounts, Account.class);
+    }
+
+    private static Document storedBalance() {
+        return new Document("$toDecimal", new Document("$ifNull", Arrays.asList("$balance", "0")));
+    }
+}
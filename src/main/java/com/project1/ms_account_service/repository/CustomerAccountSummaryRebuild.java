@@ -0,0 +1,45 @@
+package com.project1.ms_account_service.repository;
+
+import com.project1.ms_account_service.model.entity.CustomerAccountSummary;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Repairs the {@link CustomerAccountSummary} read model by rebuilding the summary of every customer from the
+ * accounts collection, for instance after a bulk import or a projection that failed. It runs on startup when enabled
+ * and can be started again without harm, as each summary is replaced as a whole
+ */
+@Component
+@Slf4j
+public class CustomerAccountSummaryRebuild {
+
+    @Autowired
+    private CustomerAccountSummaryRepository customerAccountSummaryRepository;
+
+    @Value("${application.config.readModel.customerAccountSummaries.rebuild.enabled:false}")
+    private boolean enabled;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startRebuild() {
+        if (!enabled) {
+            return;
+        }
+        rebuild().subscribe(
+            count -> log.info("Customer account summaries rebuilt: {} customers", count),
+            e -> log.error("Customer account summaries rebuild failed", e));
+    }
+
+    /**
+     * @return Number of summaries once every one is rebuilt
+     */
+    public Mono<Long> rebuild() {
+        log.info("Rebuilding customer account summaries");
+        return customerAccountSummaryRepository.rebuild(null)
+            .then(customerAccountSummaryRepository.count());
+    }
+}
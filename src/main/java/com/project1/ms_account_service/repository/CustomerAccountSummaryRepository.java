@@ -0,0 +1,9 @@
+package com.project1.ms_account_service.repository;
+
+import com.project1.ms_account_service.model.entity.CustomerAccountSummary;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CustomerAccountSummaryRepository extends ReactiveMongoRepository<CustomerAccountSummary, String>, CustomerAccountSummaryRepositoryCustom {
+}
@@ -0,0 +1,31 @@
+package com.project1.ms_account_service.repository;
+
+import com.project1.ms_account_service.model.entity.Account;
+import com.project1.ms_account_service.model.entity.AccountStatus;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface CustomerAccountSummaryRepositoryCustom {
+    /**
+     * Replaces the entries of the accounts in the summary of the customer, appending the ones it does not hold yet.
+     * Only existing summaries are updated
+     *
+     * @return true if the customer has a summary, false if it has to be rebuilt
+     */
+    Mono<Boolean> putAccounts(String customerId, List<Account> accounts);
+
+    /**
+     * Sets the balance and status of the account in the summary that holds it, leaving null values unchanged
+     *
+     * @return Number of summaries that hold the account, 0 until the summary of its customer is built
+     */
+    Mono<Long> updateAccountState(String accountId, BigDecimal balance, AccountStatus status);
+
+    /**
+     * Replaces the summary of the customer, or of every customer when customerId is null, with one built from
+     * the accounts collection
+     */
+    Mono<Void> rebuild(String customerId);
+}
@@ -0,0 +1,96 @@
+package com.project1.ms_account_service.repository;
+
+import com.project1.ms_account_service.model.entity.Account;
+import com.project1.ms_account_service.model.entity.AccountStatus;
+import com.project1.ms_account_service.model.entity.CustomerAccountSummary;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+public class CustomerAccountSummaryRepositoryCustomImpl implements CustomerAccountSummaryRepositoryCustom {
+
+    @Autowired
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    /**
+     * One pipeline update that keeps the entries of the other accounts and appends the new entries, so concurrent
+     * writes to different accounts of the customer never overwrite each other. Summaries are not upserted here,
+     * as one created from these accounts alone would hide the other accounts of the customer
+     */
+    @Override
+    public Mono<Boolean> putAccounts(String customerId, List<Account> accounts) {
+        List<String> accountIds = accounts.stream()
+            .map(Account::getId)
+            .collect(Collectors.toList());
+        List<Document> entries = accounts.stream()
+            .map(CustomerAccountSummaryRepositoryCustomImpl::toEntry)
+            .collect(Collectors.toList());
+
+        Document otherEntries = new Document("$filter", new Document("input", new Document("$ifNull", Arrays.asList("$accounts", Collections.emptyList())))
+            .append("cond", new Document("$not", List.of(new Document("$in", Arrays.asList("$$this.accountId", accountIds))))));
+        AggregationUpdate update = AggregationUpdate.from(List.of(context -> new Document("$set", new Document("accounts",
+            new Document("$concatArrays", Arrays.asList(otherEntries, new Document("$literal", entries)))))));
+
+        return reactiveMongoTemplate.updateFirst(new Query(Criteria.where("customerId").is(customerId)), update, CustomerAccountSummary.class)
+            .map(result -> result.getMatchedCount() > 0);
+    }
+
+    @Override
+    public Mono<Long> updateAccountState(String accountId, BigDecimal balance, AccountStatus status) {
+        Update update = new Update();
+        Optional.ofNullable(balance).ifPresent(value -> update.set("accounts.$.balance", new Decimal128(value)));
+        Optional.ofNullable(status).ifPresent(value -> update.set("accounts.$.status", value.toString()));
+        return reactiveMongoTemplate.updateFirst(new Query(Criteria.where("accounts.accountId").is(accountId)), update, CustomerAccountSummary.class)
+            .map(UpdateResult::getMatchedCount);
+    }
+
+    /**
+     * Groups the accounts by customer in customerId and id order, through {@link MongoIndexInitializer#CUSTOMER_ACCOUNTS_INDEX},
+     * and $merge replaces each summary with the result on the server. Writes that update a summary while it is being
+     * rebuilt may be overwritten by the state read before them, until the next write to the same account
+     */
+    @Override
+    public Mono<Void> rebuild(String customerId) {
+        Document match = customerId != null
+            ? new Document("customerId", customerId)
+            : new Document("customerId", new Document("$type", "string"));
+        Document entry = new Document("accountId", new Document("$toString", "$_id"))
+            .append("accountNumber", "$accountNumber")
+            .append("accountType", "$accountType")
+            .append("status", "$status")
+            .append("balance", new Document("$toDecimal", new Document("$ifNull", Arrays.asList("$balance", "0"))));
+        List<Document> pipeline = List.of(
+            new Document("$match", match),
+            new Document("$sort", new Document("customerId", 1).append("_id", 1)),
+            new Document("$group", new Document("_id", "$customerId").append("accounts", new Document("$push", entry))),
+            new Document("$merge", new Document("into", reactiveMongoTemplate.getCollectionName(CustomerAccountSummary.class))
+                .append("on", "_id")
+                .append("whenMatched", "replace")
+                .append("whenNotMatched", "insert")));
+
+        return reactiveMongoTemplate.getCollection(reactiveMongoTemplate.getCollectionName(Account.class))
+            .flatMap(collection -> Mono.from(collection.aggregate(pipeline).allowDiskUse(true).toCollection()));
+    }
+
+    private static Document toEntry(Account account) {
+        return new Document("accountId", account.getId())
+            .append("accountNumber", account.getAccountNumber())
+            .append("accountType", Optional.ofNullable(account.getAccountType()).map(Enum::toString).orElse(null))
+            .append("status", Optional.ofNullable(account.getStatus()).map(Enum::toString).orElse(null))
+            .append("balance", Optional.ofNullable(account.getBalance()).map(Decimal128::new).orElse(null));
+    }
+}
@@ -1,9 +1,20 @@
 package com.project1.ms_account_service.repository;
 
 import com.project1.ms_account_service.model.entity.DebitCard;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @Service
-public interface DebitCardRepository extends ReactiveMongoRepository<DebitCard, String> {
+public interface DebitCardRepository extends ReactiveMongoRepository<DebitCard, String>, DebitCardRepositoryCustom {
+    Mono<DebitCard> findByCardNumber(String cardNumber);
+
+    /**
+     * Ids and card numbers of the debit cards associated to the account, through
+     * {@link MongoIndexInitializer#DEBIT_CARD_ASSOCIATION_ACCOUNT_INDEX}
+     */
+    @Query(value = "{ 'associations.accountId': ?0 }", fields = "{ 'cardNumber': 1 }")
+    Flux<DebitCard> findByAssociatedAccountId(String accountId);
 }
@@ -0,0 +1,35 @@
+package com.project1.ms_account_service.repository;
+
+import com.project1.ms_account_service.model.entity.DebitCard;
+import com.project1.ms_account_service.model.entity.DebitCardPrimaryBalance;
+import org.springframework.dao.DataAccessException;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+public interface DebitCardRepositoryCustom {
+    Mono<DebitCardPrimaryBalance> findPrimaryAccountBalance(String debitCardId);
+
+    /**
+     * Appends an association to the account at the position after lastAssociationPosition, in one conditional update
+     *
+     * @return Debit card updated, or nothing when it does not exist or the account is already associated
+     */
+    Mono<DebitCard> appendAssociation(String debitCardId, String accountId);
+
+    /**
+     * Removes the account from the associations of every debit card that holds it, with one updateMany,
+     * and numbers the remaining associations again from 1
+     *
+     * @return Number of debit cards modified
+     */
+    Mono<Long> detachAccount(String accountId);
+
+    /**
+     * Inserts the debit cards with one unordered insertMany. Debit cards without id get one assigned before the insert
+     *
+     * @return Write errors by position in debitCards, empty when every debit card was inserted
+     */
+    Mono<Map<Integer, DataAccessException>> insertAllUnordered(List<DebitCard> debitCards);
+}
@@ -0,0 +1,120 @@
+package com.project1.ms_account_service.repository;
+
+import com.project1.ms_account_service.model.entity.DebitCard;
+import com.project1.ms_account_service.model.entity.DebitCardPrimaryBalance;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+public class DebitCardRepositoryCustomImpl implements DebitCardRepositoryCustom {
+
+    @Autowired
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    /**
+     * Finds the association with the lowest position and joins its account in the same round trip,
+     * returning only the fields of the balance projection
+     */
+    @Override
+    public Mono<DebitCardPrimaryBalance> findPrimaryAccountBalance(String debitCardId) {
+        TypedAggregation<DebitCard> aggregation = Aggregation.newAggregation(DebitCard.class,
+            Aggregation.match(Criteria.where("id").is(debitCardId)),
+            Aggregation.unwind("associations", true),
+            Aggregation.sort(Sort.Direction.ASC, "associations.position"),
+            Aggregation.limit(1),
+            context -> primaryAccountLookup(),
+            context -> new Document("$project", new Document("_id", 0)
+                .append("primaryAccountId", "$associations.accountId")
+                .append("account", new Document("$arrayElemAt", Arrays.asList("$account", 0)))));
+
+        return reactiveMongoTemplate.aggregate(aggregation, DebitCardPrimaryBalance.class).next();
+    }
+
+    /**
+     * A single findAndModify whose filter skips cards where the account is already associated. The pipeline first
+     * increases lastAssociationPosition, starting from the highest position on cards created before the field existed,
+     * and then appends the association with it, so two concurrent appends never get the same position or overwrite each other
+     */
+    @Override
+    public Mono<DebitCard> appendAssociation(String debitCardId, String accountId) {
+        Query query = new Query(Criteria.where("id").is(debitCardId)
+            .and("associations.accountId").ne(accountId));
+
+        Document lastPosition = new Document("$ifNull", Arrays.asList("$lastAssociationPosition",
+            new Document("$ifNull", Arrays.asList(new Document("$max", "$associations.position"), 0))));
+        Document association = new Document("accountId", new Document("$literal", accountId))
+            .append("position", "$lastAssociationPosition");
+        AggregationUpdate update = AggregationUpdate.from(List.of(
+            context -> new Document("$set", new Document("lastAssociationPosition",
+                new Document("$add", Arrays.asList(lastPosition, 1)))),
+            context -> new Document("$set", new Document("associations", new Document("$concatArrays", Arrays.asList(
+                new Document("$ifNull", Arrays.asList("$associations", List.of())),
+                List.of(association)))))));
+
+        return reactiveMongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), DebitCard.class);
+    }
+
+    /**
+     * The filter uses the multikey {@link MongoIndexInitializer#DEBIT_CARD_ASSOCIATION_ACCOUNT_INDEX}, so only cards holding
+     * the account are visited. The pipeline drops the association and then gives the remaining ones positions 1..n
+     * in array order, which is position order since associations are only ever appended with increasing positions
+     */
+    @Override
+    public Mono<Long> detachAccount(String accountId) {
+        Query query = new Query(Criteria.where("associations.accountId").is(accountId));
+
+        Document remainingAssociations = new Document("$filter", new Document("input", "$associations")
+            .append("cond", new Document("$ne", Arrays.asList("$$this.accountId", new Document("$literal", accountId)))));
+        Document rankedAssociations = new Document("$map", new Document("input", new Document("$range",
+                Arrays.asList(0, new Document("$size", "$associations"))))
+            .append("as", "index")
+            .append("in", new Document("$mergeObjects", Arrays.asList(
+                new Document("$arrayElemAt", Arrays.asList("$associations", "$$index")),
+                new Document("position", new Document("$add", Arrays.asList("$$index", 1)))))));
+        AggregationUpdate update = AggregationUpdate.from(List.of(
+            context -> new Document("$set", new Document("associations", remainingAssociations)),
+            context -> new Document("$set", new Document("associations", rankedAssociations)
+                .append("lastAssociationPosition", new Document("$size", "$associations")))));
+
+        return reactiveMongoTemplate.updateMulti(query, update, DebitCard.class)
+            .map(UpdateResult::getModifiedCount);
+    }
+
+    @Override
+    public Mono<Map<Integer, DataAccessException>> insertAllUnordered(List<DebitCard> debitCards) {
+        return UnorderedInserts.insertAll(reactiveMongoTemplate, debitCards, DebitCard.class);
+    }
+
+    /**
+     * accountId is stored as a string while account ids are ObjectIds, so it is converted before joining
+     */
+    private static Document primaryAccountLookup() {
+        Document accountId = new Document("$convert", new Document("input", "$associations.accountId")
+            .append("to", "objectId")
+            .append("onError", "$associations.accountId"));
+        List<Document> pipeline = List.of(
+            new Document("$match", new Document("$expr", new Document("$eq", Arrays.asList("$_id", "$$accountId")))),
+            new Document("$project", new Document("_id", 0)
+                .append("accountNumber", 1)
+                .append("balance", 1)
+                .append("status", 1)));
+        return new Document("$lookup", new Document("from", "accounts")
+            .append("let", new Document("accountId", accountId))
+            .append("pipeline", pipeline)
+            .append("as", "account"));
+    }
+}
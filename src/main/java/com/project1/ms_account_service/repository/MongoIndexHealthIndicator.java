@@ -0,0 +1,35 @@
+package com.project1.ms_account_service.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.AbstractReactiveHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+
+/**
+ * Reports DEGRADED while any index declared by {@link MongoIndexInitializer} is missing,
+ * since the service still answers but the affected queries scan the whole collection
+ */
+@Component("mongoIndexes")
+public class MongoIndexHealthIndicator extends AbstractReactiveHealthIndicator {
+
+    public static final Status DEGRADED = new Status("DEGRADED", "Required MongoDB indexes are missing");
+
+    @Autowired
+    private MongoIndexInitializer mongoIndexInitializer;
+
+    @Override
+    protected Mono<Health> doHealthCheck(Health.Builder builder) {
+        Set<String> missingIndexes = mongoIndexInitializer.getMissingIndexes();
+        if (missingIndexes == null) {
+            return Mono.just(builder.unknown().withDetail("reason", "Index initialization has not finished").build());
+        }
+        if (!missingIndexes.isEmpty()) {
+            return Mono.just(builder.status(DEGRADED).withDetail("missing", missingIndexes).build());
+        }
+        return Mono.just(builder.up().build());
+    }
+}
@@ -0,0 +1,259 @@
+package com.project1.ms_account_service.repository;
+
+import com.project1.ms_account_service.model.entity.Account;
+import com.project1.ms_account_service.model.entity.AccountStatus;
+import com.project1.ms_account_service.model.entity.AccountType;
+import com.project1.ms_account_service.model.entity.CustomerAccountSummary;
+import com.project1.ms_account_service.model.entity.CustomerType;
+import com.project1.ms_account_service.model.entity.DebitCard;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Declares the indexes the service relies on and, when the application starts, either creates them
+ * or only checks that they exist. Missing indexes are reported by {@link MongoIndexHealthIndicator}
+ * or, with fail fast enabled, stop the application.
+ */
+@Component
+@Slf4j
+public class MongoIndexInitializer {
+
+    public static final String ACCOUNT_NUMBER_UNIQUE_INDEX = "account_number_unique";
+
+    public static final String ACCOUNT_BALANCE_COVERING_INDEX = "account_number_balance_status";
+
+    public static final String CUSTOMER_ACCOUNTS_INDEX = "customer_accounts";
+
+    public static final String CUSTOMER_ACCOUNT_TYPE_STATUS_INDEX = "customer_account_type_status";
+
+    public static final String PERSONAL_SAVINGS_UNIQUE_INDEX = "personal_active_savings_unique";
+
+    public static final String PERSONAL_CHECKING_UNIQUE_INDEX = "personal_active_checking_unique";
+
+    public static final String CARD_NUMBER_UNIQUE_INDEX = "card_number_unique";
+
+    public static final String DEBIT_CARD_CUSTOMER_INDEX = "debit_card_customer";
+
+    public static final String DEBIT_CARD_ASSOCIATION_ACCOUNT_INDEX = "debit_card_association_account";
+
+    public static final String CUSTOMER_ACCOUNT_SUMMARY_ACCOUNT_INDEX = "customer_account_summary_account";
+
+    public enum Mode {
+        CREATE,
+        VERIFY
+    }
+
+    @Autowired
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Value("${application.config.mongo.indexes.mode:CREATE}")
+    private Mode mode;
+
+    @Value("${application.config.mongo.indexes.failFast:false}")
+    private boolean failFast;
+
+    @Value("${application.config.mongo.indexes.timeout:30s}")
+    private Duration timeout;
+
+    private volatile Set<String> missingIndexes;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeIndexes() {
+        // indexes that could not be created are reported as missing instead of leaving the health UNKNOWN
+        Mono<Set<String>> initialization = (mode == Mode.CREATE ? dropChangedIndexes().thenMany(ensureIndexes()).then() : Mono.<Void>empty())
+            .onErrorResume(e -> {
+                log.error("Could not create MongoDB indexes", e);
+                return Mono.empty();
+            })
+            .then(findMissingIndexes())
+            .doOnNext(this::reportMissingIndexes);
+
+        if (failFast) {
+            Set<String> missing = initialization.block(timeout);
+            if (missing != null && !missing.isEmpty()) {
+                throw new IllegalStateException("Missing MongoDB indexes: " + missing);
+            }
+            return;
+        }
+        initialization.subscribe(
+            missing -> { },
+            e -> log.error("Could not initialize MongoDB indexes", e));
+    }
+
+    /**
+     * Creates each required index on its own, so one that fails, like a unique index over existing duplicates,
+     * does not keep the others from being created
+     *
+     * @return Names of the indexes created or already present
+     */
+    public Flux<String> ensureIndexes() {
+        return Flux.fromIterable(getRequiredIndexes().entrySet())
+            .concatMap(entry -> Flux.fromIterable(entry.getValue())
+                .concatMap(index -> reactiveMongoTemplate.indexOps(entry.getKey()).ensureIndex(index)
+                    .onErrorResume(e -> {
+                        log.error("Could not create index {}", getIndexName(index), e);
+                        return Mono.empty();
+                    })))
+            .doOnNext(index -> log.info("Index ready: {}", index));
+    }
+
+    /**
+     * Drops the existing indexes whose keys, uniqueness or partial filter differ from their declaration, so
+     * {@link #ensureIndexes()} creates them again instead of failing on the conflicting options
+     *
+     * @return Names of the dropped indexes
+     */
+    public Flux<String> dropChangedIndexes() {
+        return Flux.fromIterable(getRequiredIndexes().entrySet())
+            .concatMap(entry -> getExistingIndexes(entry.getKey())
+                .flatMapIterable(existing -> entry.getValue().stream()
+                    .filter(index -> existing.containsKey(getIndexName(index)) && !matches(existing.get(getIndexName(index)), index))
+                    .map(MongoIndexInitializer::getIndexName)
+                    .collect(Collectors.toList()))
+                .concatMap(name -> reactiveMongoTemplate.indexOps(entry.getKey()).dropIndex(name).thenReturn(name)
+                    .onErrorResume(e -> {
+                        log.error("Could not drop index {}", name, e);
+                        return Mono.empty();
+                    })))
+            .doOnNext(name -> log.info("Index dropped to be created with its current options: {}", name));
+    }
+
+    /**
+     * @return Names of the required indexes that do not exist, or exist with different keys, uniqueness or partial filter
+     */
+    public Mono<Set<String>> findMissingIndexes() {
+        return Flux.fromIterable(getRequiredIndexes().entrySet())
+            .concatMap(entry -> getExistingIndexes(entry.getKey())
+                .flatMapIterable(existing -> entry.getValue().stream()
+                    .filter(index -> !existing.containsKey(getIndexName(index)) || !matches(existing.get(getIndexName(index)), index))
+                    .map(MongoIndexInitializer::getIndexName)
+                    .collect(Collectors.toList())))
+            .collect(Collectors.toCollection(TreeSet::new))
+            .map(Collections::unmodifiableSet);
+    }
+
+    /**
+     * Index names still missing after the last initialization, or null while it has not finished
+     */
+    public Set<String> getMissingIndexes() {
+        return missingIndexes;
+    }
+
+    void reportMissingIndexes(Set<String> missing) {
+        missingIndexes = missing;
+        if (missing.isEmpty()) {
+            log.info("All required MongoDB indexes are present");
+        } else {
+            log.warn("Missing MongoDB indexes, affected queries will scan the collection: {}", missing);
+        }
+    }
+
+    Map<Class<?>, List<Index>> getRequiredIndexes() {
+        Map<Class<?>, List<Index>> indexes = new LinkedHashMap<>();
+        indexes.put(Account.class, List.of(
+            new Index().on("accountNumber", Sort.Direction.ASC).unique().background().named(ACCOUNT_NUMBER_UNIQUE_INDEX),
+            new Index()
+                .on("accountNumber", Sort.Direction.ASC)
+                .on("balance", Sort.Direction.ASC)
+                .on("status", Sort.Direction.ASC)
+                .background()
+                .named(ACCOUNT_BALANCE_COVERING_INDEX),
+            new Index()
+                .on("customerId", Sort.Direction.ASC)
+                .on("_id", Sort.Direction.ASC)
+                .background()
+                .named(CUSTOMER_ACCOUNTS_INDEX),
+            new Index()
+                .on("customerId", Sort.Direction.ASC)
+                .on("accountType", Sort.Direction.ASC)
+                .on("status", Sort.Direction.ASC)
+                .background()
+                .named(CUSTOMER_ACCOUNT_TYPE_STATUS_INDEX),
+            personalAccountTypeIndex(PERSONAL_SAVINGS_UNIQUE_INDEX, AccountType.SAVINGS),
+            personalAccountTypeIndex(PERSONAL_CHECKING_UNIQUE_INDEX, AccountType.CHECKING)));
+        indexes.put(DebitCard.class, List.of(
+            new Index().on("cardNumber", Sort.Direction.ASC).unique().background().named(CARD_NUMBER_UNIQUE_INDEX),
+            new Index().on("customerId", Sort.Direction.ASC).background().named(DEBIT_CARD_CUSTOMER_INDEX),
+            new Index().on("associations.accountId", Sort.Direction.ASC).background().named(DEBIT_CARD_ASSOCIATION_ACCOUNT_INDEX)));
+        indexes.put(CustomerAccountSummary.class, List.of(
+            new Index().on("accounts.accountId", Sort.Direction.ASC).background().named(CUSTOMER_ACCOUNT_SUMMARY_ACCOUNT_INDEX)));
+        return indexes;
+    }
+
+    /**
+     * @param entityClass Entity of the collection
+     * @return Existing indexes of the collection by name
+     */
+    private Mono<Map<String, IndexInfo>> getExistingIndexes(Class<?> entityClass) {
+        return reactiveMongoTemplate.indexOps(entityClass).getIndexInfo()
+            .collectMap(IndexInfo::getName);
+    }
+
+    /**
+     * One unique index per account type, as partial filters only accept $in from MongoDB 6.0 on
+     */
+    private static Index personalAccountTypeIndex(String name, AccountType accountType) {
+        return new Index()
+            .on("customerId", Sort.Direction.ASC)
+            .on("accountType", Sort.Direction.ASC)
+            .unique()
+            .background()
+            .partial(PartialIndexFilter.of(Criteria.where("status").is(AccountStatus.ACTIVE.toString())
+                .and("customerType").is(CustomerType.PERSONAL.toString())
+                .and("accountType").is(accountType.toString())))
+            .named(name);
+    }
+
+    private static String getIndexName(Index index) {
+        return (String) index.getIndexOptions().get("name");
+    }
+
+    /**
+     * @param existing Index found in the collection under the name of the declared one
+     * @param index Declared index
+     * @return Whether both have the same keys in the same order, uniqueness and partial filter
+     */
+    private static boolean matches(IndexInfo existing, Index index) {
+        Document options = index.getIndexOptions();
+        Document existingPartialFilter = Optional.ofNullable(existing.getPartialFilterExpression())
+            .map(Document::parse)
+            .orElse(null);
+        return existing.isUnique() == Boolean.TRUE.equals(options.get("unique"))
+            && getKeys(existing).equals(new ArrayList<>(index.getIndexKeys().entrySet()))
+            && Objects.equals(existingPartialFilter, options.get("partialFilterExpression"));
+    }
+
+    /**
+     * @return Keys of the index in order, with 1 or -1 as in an index declaration
+     */
+    private static List<Map.Entry<String, Object>> getKeys(IndexInfo indexInfo) {
+        return indexInfo.getIndexFields().stream()
+            .map(field -> Map.entry(field.getKey(), (Object) (field.getDirection() == Sort.Direction.DESC ? -1 : 1)))
+            .collect(Collectors.toList());
+    }
+}
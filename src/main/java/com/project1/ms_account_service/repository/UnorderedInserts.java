@@ -0,0 +1,67 @@
+package com.project1.ms_account_service.repository;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.InsertManyOptions;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Unordered insertMany shared by the repository fragments, where one rejected document
+ * does not stop the ones after it
+ */
+final class UnorderedInserts {
+
+    private UnorderedInserts() {
+    }
+
+    /**
+     * Entities without id get one assigned before the insert
+     *
+     * @return Write errors by position in entities, empty when every entity was inserted
+     */
+    static <T> Mono<Map<Integer, DataAccessException>> insertAll(ReactiveMongoTemplate reactiveMongoTemplate, List<T> entities, Class<T> entityClass) {
+        MongoPersistentEntity<?> persistentEntity = reactiveMongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(entityClass);
+        MongoPersistentProperty idProperty = persistentEntity.getRequiredIdProperty();
+        List<Document> documents = entities.stream()
+            .map(entity -> {
+                PersistentPropertyAccessor<T> accessor = persistentEntity.getPropertyAccessor(entity);
+                if (accessor.getProperty(idProperty) == null) {
+                    accessor.setProperty(idProperty, new ObjectId().toHexString());
+                }
+                Document document = new Document();
+                reactiveMongoTemplate.getConverter().write(entity, document);
+                return document;
+            })
+            .collect(Collectors.toList());
+
+        return reactiveMongoTemplate.getCollection(reactiveMongoTemplate.getCollectionName(entityClass))
+            .flatMap(collection -> Mono.from(collection.insertMany(documents, new InsertManyOptions().ordered(false))))
+            .map(result -> Collections.<Integer, DataAccessException>emptyMap())
+            .onErrorResume(MongoBulkWriteException.class, e -> e.getWriteConcernError() != null
+                ? Mono.error(e)
+                : Mono.just(e.getWriteErrors().stream()
+                    .collect(Collectors.toMap(BulkWriteError::getIndex, UnorderedInserts::getWriteError))));
+    }
+
+    private static DataAccessException getWriteError(BulkWriteError error) {
+        if (ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY) {
+            return new DuplicateKeyException(error.getMessage());
+        }
+        return new DataIntegrityViolationException(error.getMessage());
+    }
+}
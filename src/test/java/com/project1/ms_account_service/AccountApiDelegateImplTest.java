@@ -1,6 +1,8 @@
 package com.project1.ms_account_service;
 
+import com.project1.ms_account_service.business.adapter.CreditProfileCache;
 import com.project1.ms_account_service.business.mapper.AccountMapper;
+import com.project1.ms_account_service.business.service.AccountPage;
 import com.project1.ms_account_service.business.service.AccountService;
 import com.project1.ms_account_service.business.service.DebitCardService;
 import com.project1.ms_account_service.model.*;
@@ -16,6 +18,9 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.math.BigDecimal;
+import java.util.List;
+
 import static org.mockito.Mockito.*;
 
 @SpringBootTest
@@ -32,6 +37,9 @@ public class AccountApiDelegateImplTest {
     @MockBean
     private AccountMapper accountMapper;
 
+    @MockBean
+    private CreditProfileCache creditProfileCache;
+
     @Autowired
     private AccountApiDelegateImpl accountApiDelegate;
 
@@ -75,6 +83,50 @@ public class AccountApiDelegateImplTest {
             .verifyComplete();
     }
 
+    @Test
+    void depositToAccount_Success() {
+        AccountBalanceResponse response = new AccountBalanceResponse();
+        Mono<AccountMovementRequest> request = Mono.just(new AccountMovementRequest(BigDecimal.TEN));
+        when(accountService.depositToAccount("1", request)).thenReturn(Mono.just(response));
+
+        StepVerifier.create(accountApiDelegate.depositToAccount("1", request, null))
+            .expectNext(ResponseEntity.ok(response))
+            .verifyComplete();
+    }
+
+    @Test
+    void withdrawFromAccount_Success() {
+        AccountBalanceResponse response = new AccountBalanceResponse();
+        Mono<AccountMovementRequest> request = Mono.just(new AccountMovementRequest(BigDecimal.TEN));
+        when(accountService.withdrawFromAccount("1", request)).thenReturn(Mono.just(response));
+
+        StepVerifier.create(accountApiDelegate.withdrawFromAccount("1", request, null))
+            .expectNext(ResponseEntity.ok(response))
+            .verifyComplete();
+    }
+
+    @Test
+    void getAccountsBatch_Success() {
+        AccountBatchGetResponse response = new AccountBatchGetResponse();
+        Mono<AccountBatchGetRequest> request = Mono.just(new AccountBatchGetRequest());
+        when(accountService.getAccountsBatch(request)).thenReturn(Mono.just(response));
+
+        StepVerifier.create(accountApiDelegate.getAccountsBatch(request, null))
+            .expectNext(ResponseEntity.ok(response))
+            .verifyComplete();
+    }
+
+    @Test
+    void createAccountsBatch_Success() {
+        AccountBatchCreateResponse response = new AccountBatchCreateResponse();
+        Mono<AccountBatchCreateRequest> request = Mono.just(new AccountBatchCreateRequest());
+        when(accountService.createAccountsBatch(request)).thenReturn(Mono.just(response));
+
+        StepVerifier.create(accountApiDelegate.createAccountsBatch(request, null))
+            .expectNext(ResponseEntity.ok(response))
+            .verifyComplete();
+    }
+
     @Test
     void getAccountByAccountNumber_Success() {
         AccountResponse response = new AccountResponse();
@@ -91,13 +143,50 @@ public class AccountApiDelegateImplTest {
         when(accountService.getAccountsByCustomerId("customerId"))
             .thenReturn(Flux.just(response));
 
-        StepVerifier.create(accountApiDelegate.getAccountsByCustomer("customerId", null))
+        StepVerifier.create(accountApiDelegate.getAccountsByCustomer("customerId", null, null, null))
             .expectNextMatches(responseEntity ->
                 responseEntity.getStatusCode() == HttpStatus.OK &&
                     responseEntity.getBody() != null)
             .verifyComplete();
     }
 
+    @Test
+    void getAccountsByCustomer_PageSetsNextCursorHeader() {
+        AccountResponse response = new AccountResponse();
+        when(accountService.getAccountsPageByCustomerId("customerId", null, 1))
+            .thenReturn(Mono.just(new AccountPage(List.of(response), "next")));
+
+        StepVerifier.create(accountApiDelegate.getAccountsByCustomer("customerId", 1, null, null))
+            .expectNextMatches(responseEntity ->
+                responseEntity.getStatusCode() == HttpStatus.OK &&
+                    "next".equals(responseEntity.getHeaders().getFirst(AccountApiDelegateImpl.NEXT_CURSOR_HEADER)))
+            .verifyComplete();
+    }
+
+    @Test
+    void getCustomerAccountSummary_Success() {
+        CustomerAccountSummaryResponse response = new CustomerAccountSummaryResponse();
+        when(accountService.getCustomerAccountSummary("customerId")).thenReturn(Mono.just(response));
+
+        StepVerifier.create(accountApiDelegate.getCustomerAccountSummary("customerId", null))
+            .expectNextMatches(responseEntity ->
+                responseEntity.getStatusCode() == HttpStatus.OK &&
+                    responseEntity.getBody() == response)
+            .verifyComplete();
+    }
+
+    @Test
+    void getCustomerSummary_Success() {
+        CustomerSummaryResponse response = new CustomerSummaryResponse();
+        when(accountService.getCustomerSummary("customerId")).thenReturn(Mono.just(response));
+
+        StepVerifier.create(accountApiDelegate.getCustomerSummary("customerId", null))
+            .expectNextMatches(responseEntity ->
+                responseEntity.getStatusCode() == HttpStatus.OK &&
+                    responseEntity.getBody() == response)
+            .verifyComplete();
+    }
+
     @Test
     void updateAccountById_Success() {
         String id = "1";
@@ -158,4 +247,43 @@ public class AccountApiDelegateImplTest {
             .verifyComplete();
     }
 
+    @Test
+    void getDebitCardByCardNumber_Success() {
+        DebitCardResponse response = new DebitCardResponse();
+        when(debitCardService.getDebitCardByCardNumber("4000001234567899")).thenReturn(Mono.just(response));
+
+        StepVerifier.create(accountApiDelegate.getDebitCardByCardNumber("4000001234567899", null))
+            .expectNext(ResponseEntity.ok(response))
+            .verifyComplete();
+    }
+
+    @Test
+    void getDebitCardPrimaryBalanceByCardNumber_Success() {
+        DebitCardBalanceResponse response = new DebitCardBalanceResponse();
+        when(debitCardService.getDebitCardPrimaryAccountBalanceByCardNumber("4000001234567899")).thenReturn(Mono.just(response));
+
+        StepVerifier.create(accountApiDelegate.getDebitCardPrimaryBalanceByCardNumber("4000001234567899", null))
+            .expectNext(ResponseEntity.ok(response))
+            .verifyComplete();
+    }
+
+    @Test
+    void authorizeDebitCardPayment_Success() {
+        DebitCardAuthorizationResponse response = new DebitCardAuthorizationResponse();
+        Mono<AccountMovementRequest> request = Mono.just(new AccountMovementRequest());
+        when(debitCardService.authorizeDebitCardPayment("4000001234567899", request)).thenReturn(Mono.just(response));
+
+        StepVerifier.create(accountApiDelegate.authorizeDebitCardPayment("4000001234567899", request, null))
+            .expectNext(ResponseEntity.ok(response))
+            .verifyComplete();
+    }
+
+    @Test
+    void evictCreditProfile_Success() {
+        when(creditProfileCache.evictCreditProfile("customerId")).thenReturn(Mono.empty());
+
+        StepVerifier.create(accountApiDelegate.evictCreditProfile("customerId", null))
+            .expectNext(ResponseEntity.noContent().build())
+            .verifyComplete();
+    }
 }
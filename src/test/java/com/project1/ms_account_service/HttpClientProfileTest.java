@@ -0,0 +1,79 @@
+package com.project1.ms_account_service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HttpClientProfileTest {
+
+    private DisposableServer server;
+
+    private ConnectionProvider connectionProvider;
+
+    @AfterEach
+    void tearDown() {
+        connectionProvider.dispose();
+        server.disposeNow();
+    }
+
+    @Test
+    void createHttpClient_RequestsAndDecodesGzipResponses() {
+        server = HttpServer.create()
+            .port(0)
+            .compress(true)
+            .route(routes -> routes.get("/accept-encoding", (request, response) ->
+                response.sendString(Mono.just(String.valueOf(request.requestHeaders().get("Accept-Encoding"))))))
+            .bindNow();
+        HttpClientProfile profile = new HttpClientProfile();
+
+        StepVerifier.create(getWebClient(profile).get().uri("/accept-encoding").retrieve().bodyToMono(String.class))
+            .expectNext("gzip")
+            .verifyComplete();
+    }
+
+    @Test
+    void createConnectionProvider_FailsRequestsBeyondThePendingAcquireLimit() {
+        server = HttpServer.create()
+            .port(0)
+            .route(routes -> routes.get("/slow", (request, response) ->
+                response.sendString(Mono.just("ok").delayElement(Duration.ofMillis(300)))))
+            .bindNow();
+        HttpClientProfile profile = new HttpClientProfile();
+        profile.setMaxConnections(1);
+        profile.setPendingAcquireMaxCount(1);
+        WebClient webClient = getWebClient(profile);
+
+        assertEquals(1, connectionProvider.maxConnections());
+        StepVerifier.create(Flux.range(0, 3)
+                .flatMap(i -> webClient.get().uri("/slow").retrieve().bodyToMono(String.class)
+                    .onErrorResume(WebClientRequestException.class, e -> Mono.just(e.getCause().getClass().getSimpleName()))))
+            .recordWith(ArrayList::new)
+            .expectNextCount(3)
+            .consumeRecordedWith(results -> {
+                assertEquals(2, results.stream().filter("ok"::equals).count());
+                assertEquals(1, results.stream().filter("PoolAcquirePendingLimitException"::equals).count());
+            })
+            .verifyComplete();
+    }
+
+    private WebClient getWebClient(HttpClientProfile profile) {
+        connectionProvider = profile.createConnectionProvider("test");
+        return WebClient.builder()
+            .clientConnector(new ReactorClientHttpConnector(profile.createHttpClient(connectionProvider)))
+            .baseUrl("http://localhost:" + server.port())
+            .build();
+    }
+}
@@ -0,0 +1,129 @@
+package com.project1.ms_account_service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyAwareLoadBalancerTest {
+
+    private static final String SERVICE_ID = "ms-customer-service";
+
+    private final ServiceInstance fast = new DefaultServiceInstance("fast", SERVICE_ID, "10.0.0.1", 8080, false);
+
+    private final ServiceInstance slow = new DefaultServiceInstance("slow", SERVICE_ID, "10.0.0.2", 8080, false);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private ServiceInstanceLoadTracker serviceInstanceLoadTracker;
+
+    private LatencyAwareLoadBalancer loadBalancer;
+
+    @BeforeEach
+    void setUp() {
+        serviceInstanceLoadTracker = new ServiceInstanceLoadTracker();
+        ReflectionTestUtils.setField(serviceInstanceLoadTracker, "decay", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(serviceInstanceLoadTracker, "ejectionErrors", 3);
+        ReflectionTestUtils.setField(serviceInstanceLoadTracker, "ejectionDuration", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(serviceInstanceLoadTracker, "nanoClock", (LongSupplier) clock::get);
+        loadBalancer = new LatencyAwareLoadBalancer(ServiceInstanceListSuppliers.toProvider(SERVICE_ID, fast, slow), SERVICE_ID,
+            serviceInstanceLoadTracker);
+    }
+
+    @Test
+    void choose_PrefersTheInstanceWithLowerResponseTime() {
+        exchange(fast, Duration.ofMillis(10), HttpStatus.OK);
+        exchange(slow, Duration.ofMillis(500), HttpStatus.OK);
+
+        for (int i = 0; i < 10; i++) {
+            StepVerifier.create(loadBalancer.choose())
+                .assertNext(response -> assertEquals(fast, response.getServer()))
+                .verifyComplete();
+        }
+    }
+
+    @Test
+    void choose_TriesASlowInstanceAgainOnceItsAverageDecays() {
+        exchange(fast, Duration.ofMillis(10), HttpStatus.OK);
+        exchange(slow, Duration.ofMillis(500), HttpStatus.OK);
+
+        clock.addAndGet(Duration.ofMinutes(1).toNanos());
+        exchange(fast, Duration.ofMillis(10), HttpStatus.OK);
+
+        assertEquals(slow, loadBalancer.getInstanceResponse(List.of(fast, slow)).getServer());
+    }
+
+    @Test
+    void choose_SkipsEjectedInstanceUntilEjectionEnds() {
+        exchange(fast, Duration.ofMillis(500), HttpStatus.OK);
+        for (int i = 0; i < 3; i++) {
+            exchange(slow, Duration.ofMillis(1), HttpStatus.SERVICE_UNAVAILABLE);
+        }
+
+        assertTrue(serviceInstanceLoadTracker.isEjected(slow));
+        assertEquals(fast, loadBalancer.getInstanceResponse(List.of(fast, slow)).getServer());
+
+        clock.addAndGet(Duration.ofSeconds(30).toNanos());
+
+        assertEquals(slow, loadBalancer.getInstanceResponse(List.of(fast, slow)).getServer());
+    }
+
+    @Test
+    void choose_UsesEjectedInstancesWhenEveryInstanceIsEjected() {
+        for (int i = 0; i < 3; i++) {
+            exchange(fast, Duration.ofMillis(1), HttpStatus.BAD_GATEWAY);
+            exchange(slow, Duration.ofMillis(1), HttpStatus.BAD_GATEWAY);
+        }
+
+        Response<ServiceInstance> response = loadBalancer.getInstanceResponse(List.of(fast, slow));
+
+        assertTrue(response.hasServer());
+    }
+
+    @Test
+    void filter_CountsCancelledRequestAsResponseTime() {
+        exchange(fast, Duration.ofMillis(10), HttpStatus.OK);
+        Disposable timedOut = serviceInstanceLoadTracker.filter(request(slow), request -> Mono.never()).subscribe();
+        assertEquals(1, serviceInstanceLoadTracker.getInFlight(slow));
+
+        clock.addAndGet(Duration.ofSeconds(2).toNanos());
+        timedOut.dispose();
+
+        assertEquals(0, serviceInstanceLoadTracker.getInFlight(slow));
+        assertTrue(serviceInstanceLoadTracker.getCost(slow) > serviceInstanceLoadTracker.getCost(fast));
+        assertEquals(fast, loadBalancer.getInstanceResponse(List.of(fast, slow)).getServer());
+    }
+
+    /**
+     * Sends one request to the instance through the tracker, answered after the response time on the test clock
+     */
+    private void exchange(ServiceInstance instance, Duration responseTime, HttpStatus status) {
+        serviceInstanceLoadTracker.filter(request(instance), request -> Mono.fromSupplier(() -> {
+            clock.addAndGet(responseTime.toNanos());
+            return ClientResponse.create(status).build();
+        })).block();
+    }
+
+    private static ClientRequest request(ServiceInstance instance) {
+        return ClientRequest.create(HttpMethod.GET, URI.create("http://" + instance.getHost() + ":" + instance.getPort() + "/customers/1")).build();
+    }
+}
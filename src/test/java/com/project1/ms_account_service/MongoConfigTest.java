@@ -0,0 +1,68 @@
+package com.project1.ms_account_service;
+
+import com.project1.ms_account_service.model.entity.Account;
+import com.project1.ms_account_service.model.entity.AccountBalance;
+import com.project1.ms_account_service.model.entity.CustomerAccountSummary;
+import com.project1.ms_account_service.model.entity.SavingsAccount;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+public class MongoConfigTest {
+
+    @Autowired
+    private MappingMongoConverter mappingMongoConverter;
+
+    @Test
+    void write_StoresBigDecimalFieldsAsDecimal128() {
+        Account account = SavingsAccount.builder()
+            .balance(new BigDecimal("150.25"))
+            .maintenanceFee(BigDecimal.ZERO)
+            .transactionCommissionFeePercentage(new BigDecimal("5"))
+            .build();
+
+        Document document = new Document();
+        mappingMongoConverter.write(account, document);
+
+        assertEquals(new Decimal128(new BigDecimal("150.25")), document.get("balance"));
+        assertEquals(new Decimal128(BigDecimal.ZERO), document.get("maintenanceFee"));
+        assertEquals(new Decimal128(new BigDecimal("5")), document.get("transactionCommissionFeePercentage"));
+    }
+
+    @Test
+    void read_AcceptsStringAndDecimal128Balances() {
+        Account legacy = mappingMongoConverter.read(Account.class, new Document("balance", "150.25"));
+        Account migrated = mappingMongoConverter.read(Account.class, new Document("balance", new Decimal128(new BigDecimal("150.25"))));
+        AccountBalance projected = mappingMongoConverter.read(AccountBalance.class, new Document("balance", "99.5"));
+
+        assertEquals(new BigDecimal("150.25"), legacy.getBalance());
+        assertEquals(new BigDecimal("150.25"), migrated.getBalance());
+        assertEquals(new BigDecimal("99.5"), projected.getBalance());
+    }
+
+    @Test
+    void customerAccountSummary_KeepsObjectIdShapedCustomerIdAsString() {
+        String customerId = "65f1a2b3c4d5e6f708192a3b";
+        QueryMapper queryMapper = new QueryMapper(mappingMongoConverter);
+
+        Document query = queryMapper.getMappedObject(new Query(Criteria.where("customerId").is(customerId)).getQueryObject(),
+            mappingMongoConverter.getMappingContext().getPersistentEntity(CustomerAccountSummary.class));
+        Document document = new Document();
+        mappingMongoConverter.write(new CustomerAccountSummary(customerId, Collections.emptyList()), document);
+
+        assertEquals(new Document("_id", customerId), query);
+        assertEquals(customerId, document.get("_id"));
+    }
+}
@@ -0,0 +1,97 @@
+package com.project1.ms_account_service.benchmark;
+
+import com.project1.ms_account_service.business.eligibility.AccountEligibilityTable;
+import com.project1.ms_account_service.business.eligibility.EligibilityRule;
+import com.project1.ms_account_service.model.entity.AccountType;
+import com.project1.ms_account_service.model.entity.BusinessCustomerType;
+import com.project1.ms_account_service.model.entity.CustomerType;
+import com.project1.ms_account_service.model.entity.PersonalCustomerType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of resolving the eligibility of every (customer type, subtype, account type)
+ * combination with {@link AccountEligibilityTable}, against the nested string comparisons the
+ * service evaluated before the table existed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountEligibilityBenchmark {
+
+    private static final String[][] CUSTOMERS = {
+        {CustomerType.PERSONAL.toString(), null},
+        {CustomerType.PERSONAL.toString(), PersonalCustomerType.VIP.toString()},
+        {CustomerType.BUSINESS.toString(), null},
+        {CustomerType.BUSINESS.toString(), BusinessCustomerType.PYME.toString()}
+    };
+
+    private static final String[] ACCOUNT_TYPES = {
+        AccountType.SAVINGS.toString(), AccountType.CHECKING.toString(), AccountType.FIXED_TERM.toString()
+    };
+
+    private final AccountEligibilityTable accountEligibilityTable = new AccountEligibilityTable();
+
+    @Benchmark
+    public void decisionTable(Blackhole blackhole) {
+        for (String[] customer : CUSTOMERS) {
+            for (String accountType : ACCOUNT_TYPES) {
+                EligibilityRule rule = accountEligibilityTable.getRule(customer[0], customer[1], AccountType.valueOf(accountType));
+                blackhole.consume(rule);
+            }
+        }
+    }
+
+    @Benchmark
+    public void nestedConditions(Blackhole blackhole) {
+        for (String[] customer : CUSTOMERS) {
+            for (String accountType : ACCOUNT_TYPES) {
+                blackhole.consume(nestedConditions(customer[0], customer[1], accountType));
+            }
+        }
+    }
+
+    /**
+     * The decision logic of the previous validateCustomerAccountLimits, validateBusinessCustomerAccounts
+     * and validatePersonalCustomerAccounts, reduced to its rejection message or the remote checks it ran
+     */
+    private static String nestedConditions(String customerType, String subType, String requestAccountType) {
+        if (CustomerType.PERSONAL.toString().equals(customerType)) {
+            if (PersonalCustomerType.VIP.toString().equals(subType)) {
+                if (!AccountType.SAVINGS.toString().equals(requestAccountType)) {
+                    return "PERSONAL VIP customers can just have SAVINGS account";
+                }
+                return "CREDIT_CARDS,EXISTING_ACCOUNTS,CREDIT_DEBTS";
+            }
+            AccountType.valueOf(requestAccountType);
+            return "EXISTING_ACCOUNTS,CREDIT_DEBTS";
+        } else {
+            if (BusinessCustomerType.PYME.toString().equals(subType)) {
+                if (!AccountType.CHECKING.toString().equals(requestAccountType)) {
+                    return "BUSINESS PYME customers can just have CHECKING account";
+                }
+                return "CREDIT_CARDS,CREDIT_DEBTS";
+            }
+        }
+        AccountType accountType = AccountType.valueOf(requestAccountType);
+        if (accountType.equals(AccountType.SAVINGS) || accountType.equals(AccountType.FIXED_TERM)) {
+            return "BUSINESS customers cannot have " + accountType + " account";
+        }
+        return "CREDIT_DEBTS";
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(AccountEligibilityBenchmark.class.getSimpleName())
+            .build())
+            .run();
+    }
+}
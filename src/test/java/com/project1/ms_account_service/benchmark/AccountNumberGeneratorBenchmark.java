@@ -0,0 +1,53 @@
+package com.project1.ms_account_service.benchmark;
+
+import com.project1.ms_account_service.business.generator.AccountNumberGenerator;
+import com.project1.ms_account_service.business.generator.SnowflakeAccountNumberGenerator;
+import com.project1.ms_account_service.business.generator.UuidAccountNumberGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of generating one account number with the previous "ACC-" + UUID format and with
+ * {@link SnowflakeAccountNumberGenerator}. Run with -t 4 to compare them under contention.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class AccountNumberGeneratorBenchmark {
+
+    private AccountNumberGenerator uuidGenerator;
+
+    private AccountNumberGenerator snowflakeGenerator;
+
+    @Setup
+    public void setUp() {
+        uuidGenerator = new UuidAccountNumberGenerator();
+        snowflakeGenerator = new SnowflakeAccountNumberGenerator();
+        ReflectionTestUtils.setField(snowflakeGenerator, "nodeId", 1L);
+    }
+
+    @Benchmark
+    public String uuid() {
+        return uuidGenerator.nextAccountNumber();
+    }
+
+    @Benchmark
+    public String snowflake() {
+        return snowflakeGenerator.nextAccountNumber();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(AccountNumberGeneratorBenchmark.class.getSimpleName())
+            .build())
+            .run();
+    }
+}
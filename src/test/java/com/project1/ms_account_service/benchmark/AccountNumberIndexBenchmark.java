@@ -0,0 +1,96 @@
+package com.project1.ms_account_service.benchmark;
+
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import com.mongodb.reactivestreams.client.MongoDatabase;
+import com.project1.ms_account_service.business.generator.AccountNumberGenerator;
+import com.project1.ms_account_service.business.generator.SnowflakeAccountNumberGenerator;
+import com.project1.ms_account_service.business.generator.UuidAccountNumberGenerator;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert throughput into a collection with a unique accountNumber index, and the size of that index once
+ * the trial ends, for each account number format. Needs a MongoDB reachable at the benchmark.mongo.uri
+ * system property (mongodb://localhost:27017 by default); the benchmark_account_numbers collection is dropped.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@OperationsPerInvocation(AccountNumberIndexBenchmark.BATCH_SIZE)
+public class AccountNumberIndexBenchmark {
+
+    static final int BATCH_SIZE = 1000;
+
+    private static final String COLLECTION = "benchmark_account_numbers";
+
+    private static final String INDEX_NAME = "account_number_unique";
+
+    @Param({"uuid", "snowflake"})
+    private String generator;
+
+    private AccountNumberGenerator accountNumberGenerator;
+
+    private MongoClient mongoClient;
+
+    private MongoDatabase database;
+
+    private MongoCollection<Document> collection;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("uuid".equals(generator)) {
+            accountNumberGenerator = new UuidAccountNumberGenerator();
+        } else {
+            accountNumberGenerator = new SnowflakeAccountNumberGenerator();
+            ReflectionTestUtils.setField(accountNumberGenerator, "nodeId", 1L);
+        }
+        mongoClient = MongoClients.create(System.getProperty("benchmark.mongo.uri", "mongodb://localhost:27017"));
+        database = mongoClient.getDatabase("benchmark");
+        collection = database.getCollection(COLLECTION);
+        Mono.from(collection.drop()).block();
+        Mono.from(collection.createIndex(Indexes.ascending("accountNumber"), new IndexOptions().unique(true).name(INDEX_NAME))).block();
+    }
+
+    @Benchmark
+    public Object insertBatch() {
+        List<Document> documents = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            documents.add(new Document("accountNumber", accountNumberGenerator.nextAccountNumber()));
+        }
+        return Mono.from(collection.insertMany(documents, new InsertManyOptions().ordered(false))).block();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Document stats = Mono.from(database.runCommand(new Document("collStats", COLLECTION))).block();
+        long count = ((Number) stats.get("count")).longValue();
+        long indexSize = ((Number) stats.get("indexSizes", Document.class).get(INDEX_NAME)).longValue();
+        System.out.printf("%n%s: %d documents, %s index %d bytes, %.1f bytes per key%n",
+            generator, count, INDEX_NAME, indexSize, (double) indexSize / Math.max(count, 1));
+        mongoClient.close();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(AccountNumberIndexBenchmark.class.getSimpleName())
+            .build())
+            .run();
+    }
+}
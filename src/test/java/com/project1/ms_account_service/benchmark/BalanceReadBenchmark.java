@@ -0,0 +1,140 @@
+package com.project1.ms_account_service.benchmark;
+
+import com.project1.ms_account_service.MongoConfig;
+import com.project1.ms_account_service.business.generator.UuidAccountNumberGenerator;
+import com.project1.ms_account_service.business.mapper.AccountMapper;
+import com.project1.ms_account_service.model.AccountBalanceResponse;
+import com.project1.ms_account_service.model.entity.Account;
+import com.project1.ms_account_service.model.entity.AccountBalance;
+import com.project1.ms_account_service.model.entity.AccountMember;
+import com.project1.ms_account_service.model.entity.AccountStatus;
+import com.project1.ms_account_service.model.entity.AccountType;
+import com.project1.ms_account_service.model.entity.CustomerType;
+import com.project1.ms_account_service.model.entity.FixedTermAccount;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Client-side cost of one balance read: decoding the BSON returned by MongoDB and mapping it to the response.
+ * fullDocument reads the whole polymorphic account and maps it through {@link AccountMapper#getAccountResponse},
+ * as the debit card primary balance did; projection reads only the fields returned by the balance queries.
+ * The BSON size of each reply, the bytes sent over the wire per request, is printed when the trial starts.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BalanceReadBenchmark {
+
+    @Param({"1", "4"})
+    private int members;
+
+    private final AccountMapper accountMapper = new AccountMapper();
+
+    private final DocumentCodec documentCodec = new DocumentCodec();
+
+    private MappingMongoConverter converter;
+
+    private byte[] fullDocument;
+
+    private byte[] projectedDocument;
+
+    @Setup
+    public void setUp() {
+        MongoCustomConversions conversions = new MongoConfig().mongoCustomConversions();
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        List<AccountMember> accountMembers = IntStream.range(0, members)
+            .mapToObj(i -> AccountMember.builder()
+                .dni("7000000" + i)
+                .name("Name " + i)
+                .lastName("Last name " + i)
+                .email("member" + i + "@mail.com")
+                .build())
+            .collect(Collectors.toList());
+        FixedTermAccount account = FixedTermAccount.builder()
+            .id("65f1c2a9e4b0a1b2c3d4e5f6")
+            .accountNumber(new UuidAccountNumberGenerator().nextAccountNumber())
+            .accountType(AccountType.FIXED_TERM)
+            .customerType(CustomerType.BUSINESS)
+            .balance(new BigDecimal("1520.75"))
+            .customerId("65f1c2a9e4b0a1b2c3d4e5f7")
+            .creationDate(LocalDateTime.now())
+            .status(AccountStatus.ACTIVE)
+            .monthlyMovements(0)
+            .maintenanceFee(BigDecimal.ZERO)
+            .holders(accountMembers)
+            .signers(accountMembers)
+            .maxMonthlyMovementsNoFee(5)
+            .transactionCommissionFeePercentage(new BigDecimal("5"))
+            .endDay(LocalDateTime.now().plusMonths(12))
+            .maxMonthlyMovements(1)
+            .availableDayForMovements(20)
+            .termInMonths(12)
+            .build();
+
+        Document document = new Document();
+        converter.write(account, document);
+        fullDocument = toBytes(document);
+
+        Document projection = new Document("accountNumber", document.get("accountNumber"))
+            .append("balance", document.get("balance"))
+            .append("status", document.get("status"));
+        projectedDocument = toBytes(projection);
+
+        System.out.printf("%nBytes read per request: fullDocument=%d projection=%d%n", fullDocument.length, projectedDocument.length);
+    }
+
+    @Benchmark
+    public AccountBalanceResponse fullDocument() {
+        Account account = converter.read(Account.class, decode(fullDocument));
+        AccountBalanceResponse accountBalanceResponse = new AccountBalanceResponse();
+        accountBalanceResponse.setBalance(accountMapper.getAccountResponse(account).getBalance());
+        return accountBalanceResponse;
+    }
+
+    @Benchmark
+    public AccountBalanceResponse projection() {
+        AccountBalance accountBalance = converter.read(AccountBalance.class, decode(projectedDocument));
+        return accountMapper.getAccountBalanceResponse(accountBalance);
+    }
+
+    private Document decode(byte[] bytes) {
+        return new RawBsonDocument(bytes).decode(documentCodec);
+    }
+
+    private byte[] toBytes(Document document) {
+        RawBsonDocument rawBsonDocument = new RawBsonDocument(document, documentCodec);
+        byte[] bytes = new byte[rawBsonDocument.getByteBuffer().remaining()];
+        rawBsonDocument.getByteBuffer().get(bytes);
+        return bytes;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BalanceReadBenchmark.class.getSimpleName()).build()).run();
+    }
+}
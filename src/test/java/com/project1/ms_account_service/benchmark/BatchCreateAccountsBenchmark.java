@@ -0,0 +1,163 @@
+package com.project1.ms_account_service.benchmark;
+
+import com.project1.ms_account_service.business.adapter.CreditCardService;
+import com.project1.ms_account_service.business.adapter.CustomerService;
+import com.project1.ms_account_service.business.eligibility.AccountEligibilityTable;
+import com.project1.ms_account_service.business.factory.AccountFactory;
+import com.project1.ms_account_service.business.mapper.AccountMapper;
+import com.project1.ms_account_service.business.service.AccountServiceImpl;
+import com.project1.ms_account_service.business.service.CustomerAccountSummaryProjector;
+import com.project1.ms_account_service.model.*;
+import com.project1.ms_account_service.model.AccountMember;
+import com.project1.ms_account_service.model.entity.Account;
+import com.project1.ms_account_service.model.entity.AccountStatus;
+import com.project1.ms_account_service.model.entity.AccountType;
+import com.project1.ms_account_service.model.entity.BusinessCustomerType;
+import com.project1.ms_account_service.model.entity.CustomerStatus;
+import com.project1.ms_account_service.model.entity.CustomerType;
+import com.project1.ms_account_service.repository.AccountRepository;
+import com.project1.ms_account_service.repository.CustomerAccountSummaryRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Accounts created per second when onboarding {@value #CUSTOMERS} BUSINESS customers with
+ * {@value #ACCOUNTS_PER_CUSTOMER} CHECKING accounts each: one {@link AccountServiceImpl#createAccountsBatch}
+ * against the same accounts sent one by one to {@link AccountServiceImpl#createAccount}.
+ * Downstream calls and MongoDB writes are simulated with a fixed delay.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@OperationsPerInvocation(BatchCreateAccountsBenchmark.CUSTOMERS * BatchCreateAccountsBenchmark.ACCOUNTS_PER_CUSTOMER)
+public class BatchCreateAccountsBenchmark {
+
+    static final int CUSTOMERS = 10;
+
+    static final int ACCOUNTS_PER_CUSTOMER = 10;
+
+    @Param({"2", "10"})
+    private long downstreamLatencyMs;
+
+    private AccountServiceImpl accountService;
+
+    private List<AccountRequest> requests;
+
+    @Setup
+    public void setUp() {
+        Duration latency = Duration.ofMillis(downstreamLatencyMs);
+
+        CreditDebtsResponse creditDebtsResponse = new CreditDebtsResponse();
+        creditDebtsResponse.setDebts(new CreditDebtsResponseDebts());
+
+        Account account = new Account();
+        account.setId("1");
+        account.setAccountType(AccountType.CHECKING);
+        account.setCustomerType(CustomerType.BUSINESS);
+        account.setStatus(AccountStatus.ACTIVE);
+
+        CustomerService customerService = id -> {
+            CustomerResponse customer = new CustomerResponse();
+            customer.setId(id);
+            customer.setType(CustomerType.BUSINESS.toString());
+            customer.setStatus(CustomerStatus.ACTIVE.toString());
+            customer.setSubType(BusinessCustomerType.PYME.toString());
+            return Mono.just(customer).delayElement(latency);
+        };
+        CreditCardService creditCardService = new CreditCardService() {
+            @Override
+            public Flux<CreditCardResponse> getCustomerCreditCards(String customerId) {
+                return Flux.just(new CreditCardResponse()).delayElements(latency);
+            }
+
+            @Override
+            public Mono<CreditDebtsResponse> getCreditDebtsByCustomerId(String customerId) {
+                return Mono.just(creditDebtsResponse).delayElement(latency);
+            }
+        };
+        AccountRepository accountRepository = mock(AccountRepository.class);
+        when(accountRepository.save(any())).thenAnswer(invocation -> Mono.just(account).delayElement(latency));
+        when(accountRepository.insertAllUnordered(anyList())).thenAnswer(invocation -> Mono.just(Collections.emptyMap()).delayElement(latency));
+        AccountFactory accountFactory = mock(AccountFactory.class);
+        when(accountFactory.getAccount(any(), any())).thenAnswer(invocation -> {
+            Account created = new Account();
+            created.setAccountType(AccountType.CHECKING);
+            created.setCustomerType(CustomerType.BUSINESS);
+            created.setStatus(AccountStatus.ACTIVE);
+            return created;
+        });
+
+        accountService = new AccountServiceImpl();
+        ReflectionTestUtils.setField(accountService, "customerService", customerService);
+        ReflectionTestUtils.setField(accountService, "creditCardService", creditCardService);
+        ReflectionTestUtils.setField(accountService, "accountRepository", accountRepository);
+        ReflectionTestUtils.setField(accountService, "accountFactory", accountFactory);
+        ReflectionTestUtils.setField(accountService, "accountMapper", new AccountMapper());
+        ReflectionTestUtils.setField(accountService, "accountEligibilityTable", new AccountEligibilityTable());
+        CustomerAccountSummaryRepository customerAccountSummaryRepository = mock(CustomerAccountSummaryRepository.class);
+        when(customerAccountSummaryRepository.putAccounts(any(), anyList())).thenAnswer(invocation -> Mono.just(true).delayElement(latency));
+        CustomerAccountSummaryProjector customerAccountSummaryProjector = new CustomerAccountSummaryProjector();
+        ReflectionTestUtils.setField(customerAccountSummaryProjector, "customerAccountSummaryRepository", customerAccountSummaryRepository);
+        ReflectionTestUtils.setField(accountService, "customerAccountSummaryProjector", customerAccountSummaryProjector);
+        ReflectionTestUtils.setField(accountService, "maxBatchCreateAccounts", CUSTOMERS * ACCOUNTS_PER_CUSTOMER);
+        ReflectionTestUtils.setField(accountService, "batchCreateCustomerConcurrency", 8);
+
+        AccountMember holder = new AccountMember();
+        holder.setName("Holder");
+        requests = new ArrayList<>();
+        for (int customer = 0; customer < CUSTOMERS; customer++) {
+            for (int i = 0; i < ACCOUNTS_PER_CUSTOMER; i++) {
+                AccountRequest request = new AccountRequest();
+                request.setAccountType(AccountType.CHECKING.toString());
+                request.setCustomerId("customer-" + customer);
+                request.setHolders(List.of(holder));
+                request.setSigners(new ArrayList<>());
+                requests.add(request);
+            }
+        }
+    }
+
+    @Benchmark
+    public AccountBatchCreateResponse batchCreate() {
+        AccountBatchCreateRequest request = new AccountBatchCreateRequest();
+        request.setAccounts(requests);
+        return accountService.createAccountsBatch(Mono.just(request)).block();
+    }
+
+    /**
+     * The same accounts as separate POST /accounts calls sent one after another
+     */
+    @Benchmark
+    public List<AccountResponse> sequentialSingleCreates() {
+        return Flux.fromIterable(requests)
+            .concatMap(request -> accountService.createAccount(Mono.just(request)))
+            .collectList()
+            .block();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(BatchCreateAccountsBenchmark.class.getSimpleName())
+            .build())
+            .run();
+    }
+}
@@ -0,0 +1,78 @@
+package com.project1.ms_account_service.benchmark;
+
+import com.project1.ms_account_service.business.generator.CardNumberAllocator;
+import com.project1.ms_account_service.model.entity.SequenceCounter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cost of numbering one debit card with the previous 15 random digits from a new {@link Random} and with
+ * {@link CardNumberAllocator}, whose counter document is answered in memory so only the allocation itself
+ * and one reservation every blockSize cards are measured. The allocator is subscribed to without blocking, as in
+ * the createDebitCard chain. Run with -t 4 to compare them under contention.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class CardNumberAllocatorBenchmark {
+
+    private CardNumberAllocator allocator;
+
+    @Setup
+    public void setUp() {
+        AtomicLong counter = new AtomicLong();
+        ReactiveMongoTemplate reactiveMongoTemplate = mock(ReactiveMongoTemplate.class);
+        when(reactiveMongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(SequenceCounter.class)))
+            .thenAnswer(invocation -> Mono.fromSupplier(() -> new SequenceCounter("debit-card-number", counter.addAndGet(1000))));
+
+        allocator = new CardNumberAllocator();
+        ReflectionTestUtils.setField(allocator, "reactiveMongoTemplate", reactiveMongoTemplate);
+        ReflectionTestUtils.setField(allocator, "bin", "400000");
+        ReflectionTestUtils.setField(allocator, "blockSize", 1000);
+        ReflectionTestUtils.setField(allocator, "permutationKey", 7L);
+        ReflectionTestUtils.invokeMethod(allocator, "init");
+    }
+
+    @Benchmark
+    public String random() {
+        Random random = new Random();
+        StringBuilder sb = new StringBuilder("4");
+        for (int i = 0; i < 15; i++) {
+            sb.append(random.nextInt(10));
+        }
+        return sb.toString();
+    }
+
+    @Benchmark
+    public void allocator(Blackhole blackhole) {
+        allocator.nextCardNumber().subscribe(blackhole::consume);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(CardNumberAllocatorBenchmark.class.getSimpleName())
+            .build())
+            .run();
+    }
+}
@@ -0,0 +1,146 @@
+package com.project1.ms_account_service.benchmark;
+
+import com.project1.ms_account_service.business.adapter.CreditCardService;
+import com.project1.ms_account_service.business.adapter.CustomerService;
+import com.project1.ms_account_service.business.eligibility.AccountEligibilityTable;
+import com.project1.ms_account_service.business.factory.AccountFactory;
+import com.project1.ms_account_service.business.mapper.AccountMapper;
+import com.project1.ms_account_service.business.service.AccountServiceImpl;
+import com.project1.ms_account_service.business.service.CustomerAccountSummaryProjector;
+import com.project1.ms_account_service.model.*;
+import com.project1.ms_account_service.model.entity.Account;
+import com.project1.ms_account_service.model.entity.AccountType;
+import com.project1.ms_account_service.model.entity.CustomerStatus;
+import com.project1.ms_account_service.model.entity.CustomerType;
+import com.project1.ms_account_service.model.entity.PersonalCustomerType;
+import com.project1.ms_account_service.repository.AccountRepository;
+import com.project1.ms_account_service.repository.CustomerAccountSummaryRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Latency of {@link AccountServiceImpl#createAccount} for a PERSONAL VIP customer, where every
+ * remote check is needed, against the remote calls alone in the order the pipeline made them before
+ * they were started together, each one waiting for the previous one. Both end with the save and the
+ * customer account summary write, so only the lookup step differs; the validations in between take
+ * microseconds against the simulated downstream delay.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class CreateAccountPipelineBenchmark {
+
+    @Param({"5", "20"})
+    private long downstreamLatencyMs;
+
+    private AccountServiceImpl accountService;
+
+    private CustomerService customerService;
+
+    private CreditCardService creditCardService;
+
+    private AccountRepository accountRepository;
+
+    private CustomerAccountSummaryRepository customerAccountSummaryRepository;
+
+    private AccountRequest request;
+
+    @Setup
+    public void setUp() {
+        Duration latency = Duration.ofMillis(downstreamLatencyMs);
+
+        CustomerResponse customer = new CustomerResponse();
+        customer.setId("123");
+        customer.setType(CustomerType.PERSONAL.toString());
+        customer.setStatus(CustomerStatus.ACTIVE.toString());
+        customer.setSubType(PersonalCustomerType.VIP.toString());
+
+        CreditDebtsResponse creditDebtsResponse = new CreditDebtsResponse();
+        creditDebtsResponse.setDebts(new CreditDebtsResponseDebts());
+
+        Account account = new Account();
+        account.setId("1");
+        account.setCustomerId("123");
+
+        customerService = id -> Mono.just(customer).delayElement(latency);
+        creditCardService = new CreditCardService() {
+            @Override
+            public Flux<CreditCardResponse> getCustomerCreditCards(String customerId) {
+                return Flux.just(new CreditCardResponse()).delayElements(latency);
+            }
+
+            @Override
+            public Mono<CreditDebtsResponse> getCreditDebtsByCustomerId(String customerId) {
+                return Mono.just(creditDebtsResponse).delayElement(latency);
+            }
+        };
+        accountRepository = mock(AccountRepository.class);
+        when(accountRepository.findByCustomerId(any())).thenAnswer(invocation -> Flux.<Account>empty().delaySubscription(latency));
+        when(accountRepository.save(any())).thenAnswer(invocation -> Mono.just(account).delayElement(latency));
+        AccountFactory accountFactory = mock(AccountFactory.class);
+        when(accountFactory.getAccount(any(), any())).thenReturn(account);
+
+        accountService = new AccountServiceImpl();
+        ReflectionTestUtils.setField(accountService, "customerService", customerService);
+        ReflectionTestUtils.setField(accountService, "creditCardService", creditCardService);
+        ReflectionTestUtils.setField(accountService, "accountRepository", accountRepository);
+        ReflectionTestUtils.setField(accountService, "accountFactory", accountFactory);
+        ReflectionTestUtils.setField(accountService, "accountMapper", new AccountMapper());
+        ReflectionTestUtils.setField(accountService, "accountEligibilityTable", new AccountEligibilityTable());
+        customerAccountSummaryRepository = mock(CustomerAccountSummaryRepository.class);
+        when(customerAccountSummaryRepository.putAccounts(any(), anyList())).thenAnswer(invocation -> Mono.just(true).delayElement(latency));
+        CustomerAccountSummaryProjector customerAccountSummaryProjector = new CustomerAccountSummaryProjector();
+        ReflectionTestUtils.setField(customerAccountSummaryProjector, "customerAccountSummaryRepository", customerAccountSummaryRepository);
+        ReflectionTestUtils.setField(accountService, "customerAccountSummaryProjector", customerAccountSummaryProjector);
+
+        request = new AccountRequest();
+        request.setAccountType(AccountType.SAVINGS.toString());
+        request.setCustomerId("123");
+        request.setHolders(new ArrayList<>());
+        request.setSigners(new ArrayList<>());
+    }
+
+    @Benchmark
+    public AccountResponse concurrentLookups() {
+        return accountService.createAccount(Mono.just(request)).block();
+    }
+
+    /**
+     * Customer, credit cards, existing accounts, credit debts, save and summary write, each one waiting for the previous one
+     */
+    @Benchmark
+    public Account sequentialLookups() {
+        return customerService.getCustomerById(request.getCustomerId())
+            .flatMap(customer -> creditCardService.getCustomerCreditCards(customer.getId()).collectList()
+                .then(accountRepository.findByCustomerId(request.getCustomerId()).collectList())
+                .then(creditCardService.getCreditDebtsByCustomerId(customer.getId()))
+                .then(accountRepository.save(new Account()))
+                .flatMap(account -> customerAccountSummaryRepository.putAccounts(customer.getId(), List.of(account)).thenReturn(account)))
+            .block();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(CreateAccountPipelineBenchmark.class.getSimpleName())
+            .build())
+            .run();
+    }
+}
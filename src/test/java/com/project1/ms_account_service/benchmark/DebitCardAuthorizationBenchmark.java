@@ -0,0 +1,147 @@
+package com.project1.ms_account_service.benchmark;
+
+import com.project1.ms_account_service.business.service.CustomerAccountSummaryProjector;
+import com.project1.ms_account_service.business.service.DebitCardNumberCache;
+import com.project1.ms_account_service.business.service.DebitCardServiceImpl;
+import com.project1.ms_account_service.model.AccountMovementRequest;
+import com.project1.ms_account_service.model.DebitCardAuthorizationResponse;
+import com.project1.ms_account_service.model.entity.Account;
+import com.project1.ms_account_service.model.entity.AccountBalance;
+import com.project1.ms_account_service.model.entity.AccountStatus;
+import com.project1.ms_account_service.model.entity.DebitCard;
+import com.project1.ms_account_service.model.entity.DebitCardAssociation;
+import com.project1.ms_account_service.repository.AccountRepository;
+import com.project1.ms_account_service.repository.CustomerAccountSummaryRepository;
+import com.project1.ms_account_service.repository.DebitCardRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Debit card payments authorized per second, {@value #CONCURRENT_AUTHORIZATIONS} at a time, on cards whose
+ * associations are all ACTIVE but only the last one has funds, the worst case for both:
+ * {@link DebitCardServiceImpl#authorizeDebitCardPayment} against trying the conditional update of each association
+ * in position order.
+ * Card lookups hit {@link DebitCardNumberCache} and MongoDB reads and writes are simulated with a fixed delay.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@OperationsPerInvocation(DebitCardAuthorizationBenchmark.CONCURRENT_AUTHORIZATIONS)
+public class DebitCardAuthorizationBenchmark {
+
+    static final int CONCURRENT_AUTHORIZATIONS = 100;
+
+    private static final String CARD_NUMBER = "4000001234567899";
+
+    @Param({"1", "5", "10"})
+    private int associations;
+
+    @Param({"2"})
+    private long mongoLatencyMs;
+
+    private DebitCardServiceImpl debitCardService;
+
+    private AccountRepository accountRepository;
+
+    private List<String> accountIds;
+
+    private final BigDecimal amount = BigDecimal.TEN;
+
+    @Setup
+    public void setUp() {
+        Duration latency = Duration.ofMillis(mongoLatencyMs);
+        accountIds = new ArrayList<>();
+        List<DebitCardAssociation> debitCardAssociations = new ArrayList<>();
+        List<Account> accounts = new ArrayList<>();
+        for (int position = 1; position <= associations; position++) {
+            String accountId = "account-" + position;
+            accountIds.add(accountId);
+            debitCardAssociations.add(DebitCardAssociation.builder().accountId(accountId).position(position).build());
+            accounts.add(Account.builder()
+                .id(accountId)
+                .status(AccountStatus.ACTIVE)
+                .balance(position == associations ? BigDecimal.valueOf(1_000_000) : BigDecimal.ZERO)
+                .build());
+        }
+        String fundedAccountId = accountIds.get(associations - 1);
+        AccountBalance balance = new AccountBalance("ACC-1", BigDecimal.valueOf(1_000_000), AccountStatus.ACTIVE);
+        DebitCard debitCard = DebitCard.builder().id("1").cardNumber(CARD_NUMBER).associations(debitCardAssociations).build();
+
+        DebitCardRepository debitCardRepository = mock(DebitCardRepository.class);
+        when(debitCardRepository.findByCardNumber(CARD_NUMBER)).thenAnswer(invocation -> Mono.just(debitCard).delayElement(latency));
+        accountRepository = mock(AccountRepository.class);
+        when(accountRepository.findMovementStatesByIdIn(anyCollection()))
+            .thenAnswer(invocation -> Flux.fromIterable(accounts).delaySubscription(latency));
+        when(accountRepository.applyMovement(anyString(), any())).thenAnswer(invocation -> fundedAccountId.equals(invocation.getArgument(0))
+            ? Mono.just(balance).delayElement(latency)
+            : Mono.empty().delaySubscription(latency));
+
+        DebitCardNumberCache debitCardNumberCache = new DebitCardNumberCache();
+        ReflectionTestUtils.setField(debitCardNumberCache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(debitCardNumberCache, "maximumSize", 1000L);
+        ReflectionTestUtils.setField(debitCardNumberCache, "ttl", Duration.ofMinutes(10));
+        ReflectionTestUtils.invokeMethod(debitCardNumberCache, "initCache");
+
+        debitCardService = new DebitCardServiceImpl();
+        ReflectionTestUtils.setField(debitCardService, "debitCardRepository", debitCardRepository);
+        ReflectionTestUtils.setField(debitCardService, "accountRepository", accountRepository);
+        ReflectionTestUtils.setField(debitCardService, "debitCardNumberCache", debitCardNumberCache);
+        // summary updates are answered at once, so both strategies pay the same MongoDB round trips
+        CustomerAccountSummaryRepository customerAccountSummaryRepository = mock(CustomerAccountSummaryRepository.class);
+        when(customerAccountSummaryRepository.updateAccountState(anyString(), any(), any())).thenReturn(Mono.just(1L));
+        CustomerAccountSummaryProjector customerAccountSummaryProjector = new CustomerAccountSummaryProjector();
+        ReflectionTestUtils.setField(customerAccountSummaryProjector, "customerAccountSummaryRepository", customerAccountSummaryRepository);
+        ReflectionTestUtils.setField(debitCardService, "customerAccountSummaryProjector", customerAccountSummaryProjector);
+    }
+
+    @Benchmark
+    public List<DebitCardAuthorizationResponse> waterfall() {
+        AccountMovementRequest request = new AccountMovementRequest();
+        request.setAmount(amount);
+        return Flux.range(0, CONCURRENT_AUTHORIZATIONS)
+            .flatMap(i -> debitCardService.authorizeDebitCardPayment(CARD_NUMBER, Mono.just(request)))
+            .collectList()
+            .block();
+    }
+
+    /**
+     * Conditional update of each association in position order until one is accepted, without reading the accounts first
+     */
+    @Benchmark
+    public List<AccountBalance> updateEachAssociation() {
+        return Flux.range(0, CONCURRENT_AUTHORIZATIONS)
+            .flatMap(i -> Flux.fromIterable(accountIds)
+                .concatMap(accountId -> accountRepository.applyMovement(accountId, amount.negate()))
+                .next())
+            .collectList()
+            .block();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(DebitCardAuthorizationBenchmark.class.getSimpleName())
+            .build())
+            .run();
+    }
+}
@@ -0,0 +1,115 @@
+package com.project1.ms_account_service.benchmark;
+
+import com.project1.ms_account_service.HttpClientProfile;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batches of {@code concurrency} concurrent GETs against a local stub customer service that answers after
+ * {@code serverLatencyMs}, through the shared reactor-netty pool of a plain WebClient and through
+ * {@link HttpClientProfile} with and without gzip. One operation is one batch: throughput times concurrency gives
+ * requests per second and the sample time is the latency of the slowest request of the batch. Requests rejected by a
+ * full pending acquire queue are counted in the rejected counter instead of waiting.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class DownstreamConnectionPoolBenchmark {
+
+    private static final String CUSTOMER = "{\"id\":\"123\",\"documentNumber\":\"12345678\",\"type\":\"PERSONAL\",\"subType\":\"VIP\","
+        + "\"status\":\"ACTIVE\",\"name\":\"John\",\"lastName\":\"Doe\",\"email\":\"john.doe@example.com\"}";
+
+    @Param({"shared", "profile", "profileNoGzip"})
+    private String profile;
+
+    @Param({"16", "64", "256"})
+    private int concurrency;
+
+    @Param({"10"})
+    private long serverLatencyMs;
+
+    private DisposableServer server;
+
+    private ConnectionProvider connectionProvider;
+
+    private WebClient webClient;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+        public long succeeded;
+
+        public long rejected;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            succeeded = 0;
+            rejected = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        Duration latency = Duration.ofMillis(serverLatencyMs);
+        server = HttpServer.create()
+            .port(0)
+            .compress(true)
+            .route(routes -> routes.get("/customers/{id}", (request, response) -> response
+                .header("Content-Type", "application/json")
+                .sendString(Mono.just(CUSTOMER).delayElement(latency))))
+            .bindNow();
+
+        WebClient.Builder builder = WebClient.builder().baseUrl("http://localhost:" + server.port() + "/customers");
+        if (!"shared".equals(profile)) {
+            HttpClientProfile httpClientProfile = new HttpClientProfile();
+            httpClientProfile.setCompress("profile".equals(profile));
+            httpClientProfile.setMetrics(false);
+            connectionProvider = httpClientProfile.createConnectionProvider(profile);
+            builder.clientConnector(new ReactorClientHttpConnector(httpClientProfile.createHttpClient(connectionProvider)));
+        }
+        webClient = builder.build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (connectionProvider != null) {
+            connectionProvider.dispose();
+        }
+        server.disposeNow();
+    }
+
+    @Benchmark
+    public long batch(Outcomes outcomes) {
+        long succeeded = Flux.range(0, concurrency)
+            .flatMap(i -> webClient.get().uri("/{id}", i).retrieve().bodyToMono(String.class)
+                .map(body -> 1)
+                .onErrorReturn(0), concurrency)
+            .reduce(0L, Long::sum)
+            .block();
+        outcomes.succeeded += succeeded;
+        outcomes.rejected += concurrency - succeeded;
+        return succeeded;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(DownstreamConnectionPoolBenchmark.class.getSimpleName())
+            .build())
+            .run();
+    }
+}
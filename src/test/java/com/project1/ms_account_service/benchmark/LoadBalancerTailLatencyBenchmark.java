@@ -0,0 +1,150 @@
+package com.project1.ms_account_service.benchmark;
+
+import com.project1.ms_account_service.LatencyAwareLoadBalancer;
+import com.project1.ms_account_service.ServiceInstanceLoadTracker;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerProperties;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response time percentiles of customer lookups spread by the load balancer over {@value #INSTANCES} local stub
+ * instances of the customer service, one of them answering after {@code slowLatencyMs} instead of
+ * {@code latencyMs}, with Spring Cloud LoadBalancer's default round robin and with {@link LatencyAwareLoadBalancer}.
+ * Requests go through the same load balancer filter as the @LoadBalanced WebClient, 4 at a time.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Threads(4)
+@Fork(1)
+public class LoadBalancerTailLatencyBenchmark {
+
+    static final int INSTANCES = 4;
+
+    private static final String SERVICE_ID = "ms-customer-service";
+
+    private static final String CUSTOMER = "{\"id\":\"123\",\"documentNumber\":\"12345678\",\"type\":\"PERSONAL\",\"status\":\"ACTIVE\"}";
+
+    @Param({"roundRobin", "latencyAware"})
+    private String loadBalancer;
+
+    @Param({"5"})
+    private long latencyMs;
+
+    @Param({"100", "500"})
+    private long slowLatencyMs;
+
+    private final List<DisposableServer> servers = new ArrayList<>();
+
+    private WebClient webClient;
+
+    @Setup
+    public void setUp() {
+        ServiceInstance[] instances = new ServiceInstance[INSTANCES];
+        for (int i = 0; i < INSTANCES; i++) {
+            Duration latency = Duration.ofMillis(i == 0 ? slowLatencyMs : latencyMs);
+            DisposableServer server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes.get("/customers/{id}", (request, response) -> response
+                    .header("Content-Type", "application/json")
+                    .sendString(Mono.just(CUSTOMER).delayElement(latency))))
+                .bindNow();
+            servers.add(server);
+            instances[i] = new DefaultServiceInstance(SERVICE_ID + "-" + i, SERVICE_ID, "localhost", server.port(), false);
+        }
+
+        ServiceInstanceLoadTracker serviceInstanceLoadTracker = new ServiceInstanceLoadTracker();
+        ReflectionTestUtils.setField(serviceInstanceLoadTracker, "decay", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(serviceInstanceLoadTracker, "ejectionErrors", 3);
+        ReflectionTestUtils.setField(serviceInstanceLoadTracker, "ejectionDuration", Duration.ofSeconds(30));
+        ObjectProvider<ServiceInstanceListSupplier> supplierProvider = ServiceInstanceListSuppliers.toProvider(SERVICE_ID, instances);
+        ReactorServiceInstanceLoadBalancer reactorLoadBalancer = "latencyAware".equals(loadBalancer)
+            ? new LatencyAwareLoadBalancer(supplierProvider, SERVICE_ID, serviceInstanceLoadTracker)
+            : new RoundRobinLoadBalancer(supplierProvider, SERVICE_ID);
+
+        webClient = WebClient.builder()
+            .filter(new ReactorLoadBalancerExchangeFilterFunction(new SingleLoadBalancerFactory(reactorLoadBalancer), Collections.emptyList()))
+            .filter(serviceInstanceLoadTracker)
+            .baseUrl("http://" + SERVICE_ID + "/customers")
+            .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        servers.forEach(DisposableServer::disposeNow);
+    }
+
+    @Benchmark
+    public String getCustomer() {
+        return webClient.get()
+            .uri("/{id}", "123")
+            .retrieve()
+            .bodyToMono(String.class)
+            .block();
+    }
+
+    /**
+     * Stands in for the per service contexts of Spring Cloud LoadBalancer, with no lifecycle beans
+     */
+    private static final class SingleLoadBalancerFactory implements ReactiveLoadBalancer.Factory<ServiceInstance> {
+        private final ReactorServiceInstanceLoadBalancer loadBalancer;
+
+        private final LoadBalancerProperties properties = new LoadBalancerProperties();
+
+        private SingleLoadBalancerFactory(ReactorServiceInstanceLoadBalancer loadBalancer) {
+            this.loadBalancer = loadBalancer;
+        }
+
+        @Override
+        public ReactiveLoadBalancer<ServiceInstance> getInstance(String serviceId) {
+            return loadBalancer;
+        }
+
+        @Override
+        public <X> Map<String, X> getInstances(String name, Class<X> type) {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public <X> X getInstance(String name, Class<?> clazz, Class<?>... generics) {
+            return null;
+        }
+
+        @Override
+        public LoadBalancerProperties getProperties(String serviceId) {
+            return properties;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(LoadBalancerTailLatencyBenchmark.class.getSimpleName())
+            .build())
+            .run();
+    }
+}
@@ -0,0 +1,102 @@
+package com.project1.ms_account_service.business.adapter;
+
+import com.project1.ms_account_service.exception.BadRequestException;
+import com.project1.ms_account_service.exception.NotFoundException;
+import com.project1.ms_account_service.model.CreditCardResponse;
+import com.project1.ms_account_service.model.CreditDebtsResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+public class CachingCreditCardServiceTest {
+    @MockBean
+    private CreditCardServiceImpl creditCardServiceImpl;
+
+    @Autowired
+    private CachingCreditCardService cachingCreditCardService;
+
+    @Autowired
+    private CreditProfileCache creditProfileCache;
+
+    @Test
+    void creditCardsAndDebts_ShareOneProfileLoad() {
+        CreditCardResponse creditCard = new CreditCardResponse();
+        CreditDebtsResponse creditDebts = new CreditDebtsResponse();
+        when(creditCardServiceImpl.getCustomerCreditCards("profile-1")).thenReturn(Flux.just(creditCard));
+        when(creditCardServiceImpl.getCreditDebtsByCustomerId("profile-1")).thenReturn(Mono.just(creditDebts));
+
+        StepVerifier.create(cachingCreditCardService.getCustomerCreditCards("profile-1"))
+            .expectNext(creditCard)
+            .verifyComplete();
+        StepVerifier.create(cachingCreditCardService.getCreditDebtsByCustomerId("profile-1"))
+            .expectNext(creditDebts)
+            .verifyComplete();
+
+        verify(creditCardServiceImpl, times(1)).getCustomerCreditCards("profile-1");
+        verify(creditCardServiceImpl, times(1)).getCreditDebtsByCustomerId("profile-1");
+    }
+
+    @Test
+    void evictCreditProfile_ForcesReload() {
+        when(creditCardServiceImpl.getCustomerCreditCards("profile-2")).thenReturn(Flux.empty());
+        when(creditCardServiceImpl.getCreditDebtsByCustomerId("profile-2")).thenReturn(Mono.just(new CreditDebtsResponse()));
+
+        StepVerifier.create(cachingCreditCardService.getCreditDebtsByCustomerId("profile-2"))
+            .expectNextCount(1)
+            .verifyComplete();
+        StepVerifier.create(creditProfileCache.evictCreditProfile("profile-2"))
+            .verifyComplete();
+        StepVerifier.create(cachingCreditCardService.getCreditDebtsByCustomerId("profile-2"))
+            .expectNextCount(1)
+            .verifyComplete();
+
+        verify(creditCardServiceImpl, times(2)).getCreditDebtsByCustomerId("profile-2");
+    }
+
+    @Test
+    void unavailableCreditService_IsNotCached() {
+        when(creditCardServiceImpl.getCustomerCreditCards("profile-3"))
+            .thenReturn(Flux.error(new BadRequestException("Credit service unavailable. Retry again later")));
+        when(creditCardServiceImpl.getCreditDebtsByCustomerId("profile-3")).thenReturn(Mono.just(new CreditDebtsResponse()));
+
+        StepVerifier.create(cachingCreditCardService.getCustomerCreditCards("profile-3"))
+            .expectError(BadRequestException.class)
+            .verify();
+        StepVerifier.create(cachingCreditCardService.getCustomerCreditCards("profile-3"))
+            .expectError(BadRequestException.class)
+            .verify();
+
+        verify(creditCardServiceImpl, times(2)).getCustomerCreditCards("profile-3");
+    }
+
+    @Test
+    void cachedNotFound_IsReplayedAsNewException() {
+        when(creditCardServiceImpl.getCustomerCreditCards("profile-4")).thenReturn(Flux.error(new NotFoundException("Customer not found")));
+        when(creditCardServiceImpl.getCreditDebtsByCustomerId("profile-4")).thenReturn(Mono.just(new CreditDebtsResponse()));
+
+        AtomicReference<Throwable> first = new AtomicReference<>();
+        StepVerifier.create(cachingCreditCardService.getCustomerCreditCards("profile-4"))
+            .consumeErrorWith(first::set)
+            .verify();
+        StepVerifier.create(cachingCreditCardService.getCustomerCreditCards("profile-4"))
+            .consumeErrorWith(second -> {
+                assertEquals(NotFoundException.class, second.getClass());
+                assertEquals("Customer not found", second.getMessage());
+                assertNotSame(first.get(), second);
+            })
+            .verify();
+
+        verify(creditCardServiceImpl, times(1)).getCustomerCreditCards("profile-4");
+    }
+}
@@ -0,0 +1,85 @@
+package com.project1.ms_account_service.business.adapter;
+
+import com.project1.ms_account_service.exception.NotFoundException;
+import com.project1.ms_account_service.model.CustomerResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+public class CachingCustomerServiceTest {
+    @MockBean
+    private CustomerServiceImpl customerServiceImpl;
+
+    @Autowired
+    private CachingCustomerService cachingCustomerService;
+
+    @Test
+    void getCustomerById_CachesFoundCustomer() {
+        CustomerResponse customer = new CustomerResponse();
+        customer.setId("cached-1");
+        when(customerServiceImpl.getCustomerById("cached-1")).thenReturn(Mono.just(customer));
+
+        StepVerifier.create(cachingCustomerService.getCustomerById("cached-1"))
+            .expectNext(customer)
+            .verifyComplete();
+        StepVerifier.create(cachingCustomerService.getCustomerById("cached-1"))
+            .expectNext(customer)
+            .verifyComplete();
+
+        verify(customerServiceImpl, times(1)).getCustomerById("cached-1");
+    }
+
+    @Test
+    void getCustomerById_MergesConcurrentLookups() {
+        CustomerResponse customer = new CustomerResponse();
+        customer.setId("cached-2");
+        when(customerServiceImpl.getCustomerById("cached-2"))
+            .thenReturn(Mono.just(customer).delayElement(Duration.ofMillis(100)));
+
+        StepVerifier.create(Mono.zip(
+                cachingCustomerService.getCustomerById("cached-2"),
+                cachingCustomerService.getCustomerById("cached-2")))
+            .expectNextMatches(tuple -> tuple.getT1() == customer && tuple.getT2() == customer)
+            .verifyComplete();
+
+        verify(customerServiceImpl, times(1)).getCustomerById("cached-2");
+    }
+
+    @Test
+    void getCustomerById_CachesNotFound() {
+        when(customerServiceImpl.getCustomerById("cached-3"))
+            .thenReturn(Mono.error(new NotFoundException("Customer not found")));
+
+        StepVerifier.create(cachingCustomerService.getCustomerById("cached-3"))
+            .expectErrorMatches(e -> e instanceof NotFoundException && e.getMessage().equals("Customer not found"))
+            .verify();
+        StepVerifier.create(cachingCustomerService.getCustomerById("cached-3"))
+            .expectError(NotFoundException.class)
+            .verify();
+
+        verify(customerServiceImpl, times(1)).getCustomerById("cached-3");
+    }
+
+    @Test
+    void getCustomerById_DoesNotCacheOtherErrors() {
+        when(customerServiceImpl.getCustomerById("cached-4"))
+            .thenReturn(Mono.error(new IllegalStateException("boom")));
+
+        StepVerifier.create(cachingCustomerService.getCustomerById("cached-4"))
+            .expectError(IllegalStateException.class)
+            .verify();
+        StepVerifier.create(cachingCustomerService.getCustomerById("cached-4"))
+            .expectError(IllegalStateException.class)
+            .verify();
+
+        verify(customerServiceImpl, times(2)).getCustomerById("cached-4");
+    }
+}
@@ -0,0 +1,86 @@
+package com.project1.ms_account_service.business.eligibility;
+
+import com.project1.ms_account_service.model.entity.AccountType;
+import com.project1.ms_account_service.model.entity.BusinessCustomerType;
+import com.project1.ms_account_service.model.entity.CustomerType;
+import com.project1.ms_account_service.model.entity.PersonalCustomerType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class AccountEligibilityTableTest {
+    @Autowired
+    private AccountEligibilityTable accountEligibilityTable;
+
+    @Test
+    void personalCustomer_OnlyRequiresCreditDebtsForSavingsAndChecking() {
+        for (AccountType accountType : EnumSet.of(AccountType.SAVINGS, AccountType.CHECKING)) {
+            EligibilityRule rule = accountEligibilityTable.getRule(CustomerType.PERSONAL.toString(), null, accountType);
+
+            assertFalse(rule.isRejected());
+            assertEquals(EnumSet.of(EligibilityCheck.CREDIT_DEBTS), rule.getChecks());
+        }
+    }
+
+    @Test
+    void personalCustomer_FixedTermOnlyRequiresCreditDebts() {
+        EligibilityRule rule = accountEligibilityTable.getRule(CustomerType.PERSONAL.toString(), null, AccountType.FIXED_TERM);
+
+        assertEquals(EnumSet.of(EligibilityCheck.CREDIT_DEBTS), rule.getChecks());
+    }
+
+    @Test
+    void personalVipCustomer_SavingsRequiresCreditCard() {
+        EligibilityRule rule = accountEligibilityTable.getRule(
+            CustomerType.PERSONAL.toString(), PersonalCustomerType.VIP.toString(), AccountType.SAVINGS);
+
+        assertEquals(EnumSet.of(EligibilityCheck.CREDIT_CARDS, EligibilityCheck.CREDIT_DEBTS), rule.getChecks());
+        assertEquals("PERSONAL VIP customers must have at least one CREDIT CARD for SAVINGS account", rule.getMissingCreditCardMessage());
+    }
+
+    @Test
+    void personalVipCustomer_RejectsOtherAccountTypes() {
+        for (AccountType accountType : EnumSet.of(AccountType.CHECKING, AccountType.FIXED_TERM)) {
+            EligibilityRule rule = accountEligibilityTable.getRule(
+                CustomerType.PERSONAL.toString(), PersonalCustomerType.VIP.toString(), accountType);
+
+            assertTrue(rule.isRejected());
+            assertEquals("PERSONAL VIP customers can just have SAVINGS account", rule.getRejectionMessage());
+            assertTrue(rule.getChecks().isEmpty());
+        }
+    }
+
+    @Test
+    void businessCustomer_OnlyAcceptsChecking() {
+        assertEquals(EnumSet.of(EligibilityCheck.CREDIT_DEBTS),
+            accountEligibilityTable.getRule(CustomerType.BUSINESS.toString(), null, AccountType.CHECKING).getChecks());
+        assertEquals("BUSINESS customers cannot have SAVINGS account",
+            accountEligibilityTable.getRule(CustomerType.BUSINESS.toString(), null, AccountType.SAVINGS).getRejectionMessage());
+        assertEquals("BUSINESS customers cannot have FIXED_TERM account",
+            accountEligibilityTable.getRule(CustomerType.BUSINESS.toString(), null, AccountType.FIXED_TERM).getRejectionMessage());
+    }
+
+    @Test
+    void businessPymeCustomer_CheckingRequiresCreditCard() {
+        EligibilityRule rule = accountEligibilityTable.getRule(
+            CustomerType.BUSINESS.toString(), BusinessCustomerType.PYME.toString(), AccountType.CHECKING);
+
+        assertEquals(EnumSet.of(EligibilityCheck.CREDIT_CARDS, EligibilityCheck.CREDIT_DEBTS), rule.getChecks());
+        assertEquals("BUSINESS PYME customers must have at least one CREDIT CARD for CHECKING account", rule.getMissingCreditCardMessage());
+        assertEquals("BUSINESS PYME customers can just have CHECKING account",
+            accountEligibilityTable.getRule(CustomerType.BUSINESS.toString(), BusinessCustomerType.PYME.toString(), AccountType.SAVINGS)
+                .getRejectionMessage());
+    }
+
+    @Test
+    void unknownSubtype_FollowsStandardRules() {
+        EligibilityRule rule = accountEligibilityTable.getRule(CustomerType.PERSONAL.toString(), "OTHER", AccountType.SAVINGS);
+
+        assertEquals(EnumSet.of(EligibilityCheck.CREDIT_DEBTS), rule.getChecks());
+    }
+}
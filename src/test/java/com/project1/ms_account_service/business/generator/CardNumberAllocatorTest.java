@@ -0,0 +1,96 @@
+package com.project1.ms_account_service.business.generator;
+
+import com.project1.ms_account_service.model.entity.SequenceCounter;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CardNumberAllocatorTest {
+
+    private static final int BLOCK_SIZE = 100;
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate = mock(ReactiveMongoTemplate.class);
+
+    private final AtomicLong counter = new AtomicLong();
+
+    @Test
+    void nextCardNumber_IsUniqueAndLuhnValidAcrossBlocks() {
+        CardNumberAllocator allocator = getAllocator("400000");
+
+        List<String> numbers = Flux.range(0, 10 * BLOCK_SIZE)
+            .flatMap(i -> allocator.nextCardNumber().subscribeOn(Schedulers.parallel()))
+            .collectList()
+            .block();
+
+        Set<String> unique = new HashSet<>(numbers);
+        assertEquals(10 * BLOCK_SIZE, unique.size());
+        for (String number : numbers) {
+            assertEquals(CardNumberAllocator.CARD_NUMBER_DIGITS, number.length());
+            assertTrue(number.startsWith("400000"));
+            assertTrue(LuhnCheckDigit.isValid(number));
+        }
+        verify(reactiveMongoTemplate, times(10)).findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(SequenceCounter.class));
+    }
+
+    @Test
+    void toCardNumber_DoesNotKeepSequenceOrder() {
+        CardNumberAllocator allocator = getAllocator("400000");
+
+        String first = allocator.toCardNumber(0);
+        String second = allocator.toCardNumber(1);
+
+        assertTrue(Math.abs(Long.parseLong(second.substring(6, 15)) - Long.parseLong(first.substring(6, 15))) > 1);
+    }
+
+    @Test
+    void feistelPermutation_IsBijective() {
+        FeistelPermutation permutation = new FeistelPermutation(10_000, 42);
+        Set<Long> images = new HashSet<>();
+        for (long value = 0; value < 10_000; value++) {
+            long image = permutation.permute(value);
+            assertTrue(image >= 0 && image < 10_000);
+            images.add(image);
+        }
+        assertEquals(10_000, images.size());
+    }
+
+    @Test
+    void init_RejectsInvalidBin() {
+        assertThrows(IllegalStateException.class, () -> getAllocator("0400"));
+        assertThrows(IllegalStateException.class, () -> getAllocator("4000000000"));
+    }
+
+    private CardNumberAllocator getAllocator(String bin) {
+        when(reactiveMongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(SequenceCounter.class)))
+            .thenAnswer(invocation -> Mono.fromSupplier(() -> new SequenceCounter(CardNumberAllocator.COUNTER_ID, counter.addAndGet(BLOCK_SIZE))));
+
+        CardNumberAllocator allocator = new CardNumberAllocator();
+        ReflectionTestUtils.setField(allocator, "reactiveMongoTemplate", reactiveMongoTemplate);
+        ReflectionTestUtils.setField(allocator, "bin", bin);
+        ReflectionTestUtils.setField(allocator, "blockSize", BLOCK_SIZE);
+        ReflectionTestUtils.setField(allocator, "permutationKey", 7L);
+        allocator.init();
+        return allocator;
+    }
+}
@@ -0,0 +1,147 @@
+package com.project1.ms_account_service.business.generator;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.commons.util.InetUtils;
+import org.springframework.cloud.commons.util.InetUtilsProperties;
+import org.springframework.cloud.netflix.eureka.EurekaInstanceConfigBean;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SnowflakeAccountNumberGeneratorTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-18T12:00:00Z");
+
+    @Test
+    void nextAccountNumber_IsIncreasingWithCheckDigitAndNodeId() {
+        SnowflakeAccountNumberGenerator generator = getGenerator("7", Clock.fixed(NOW, ZoneOffset.UTC));
+
+        List<String> numbers = new ArrayList<>();
+        for (int i = 0; i < 4000; i++) {
+            numbers.add(generator.nextAccountNumber());
+        }
+
+        for (int i = 0; i < numbers.size(); i++) {
+            String number = numbers.get(i);
+            assertEquals(SnowflakeAccountNumberGenerator.DIGITS + 1, number.length());
+            assertTrue(LuhnCheckDigit.isValid(number));
+            long id = Long.parseLong(number.substring(0, SnowflakeAccountNumberGenerator.DIGITS));
+            assertEquals(7, (id >>> SnowflakeAccountNumberGenerator.SEQUENCE_BITS) & SnowflakeAccountNumberGenerator.MAX_NODE_ID);
+            if (i > 0) {
+                assertTrue(number.compareTo(numbers.get(i - 1)) > 0);
+            }
+        }
+        assertEquals(NOW.toEpochMilli() - SnowflakeAccountNumberGenerator.EPOCH_MILLIS, getMillis(numbers.get(0)));
+    }
+
+    @Test
+    void nextAccountNumber_WaitsForNextMillisecondWhenSequenceIsExhausted() {
+        AtomicInteger reads = new AtomicInteger();
+        int sequences = 1 << SnowflakeAccountNumberGenerator.SEQUENCE_BITS;
+        Clock clock = mock(Clock.class);
+        when(clock.millis()).thenAnswer(invocation -> NOW.toEpochMilli() + (reads.incrementAndGet() > sequences + 10 ? 1 : 0));
+        SnowflakeAccountNumberGenerator generator = getGenerator("1", clock);
+
+        String last = null;
+        for (int i = 0; i <= sequences; i++) {
+            last = generator.nextAccountNumber();
+        }
+
+        assertEquals(NOW.toEpochMilli() + 1 - SnowflakeAccountNumberGenerator.EPOCH_MILLIS, getMillis(last));
+        assertTrue(reads.get() > sequences + 10);
+    }
+
+    @Test
+    void nextAccountNumber_WaitsForSmallClockStepBack() {
+        Clock clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(NOW.toEpochMilli(), NOW.toEpochMilli() - 2, NOW.toEpochMilli() + 1);
+        SnowflakeAccountNumberGenerator generator = getGenerator("1", clock);
+
+        String first = generator.nextAccountNumber();
+        String second = generator.nextAccountNumber();
+
+        assertTrue(second.compareTo(first) > 0);
+        assertEquals(NOW.toEpochMilli() + 1 - SnowflakeAccountNumberGenerator.EPOCH_MILLIS, getMillis(second));
+    }
+
+    @Test
+    void nextAccountNumber_FailsWhenClockGoesFarBack() {
+        Clock clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(NOW.toEpochMilli(), NOW.toEpochMilli() - 1000);
+        SnowflakeAccountNumberGenerator generator = getGenerator("1", clock);
+
+        generator.nextAccountNumber();
+
+        assertThrows(IllegalStateException.class, generator::nextAccountNumber);
+    }
+
+    @Test
+    void initNodeId_RejectsNodeIdOutOfRange() {
+        assertThrows(IllegalStateException.class, () -> getGenerator("1024", Clock.systemUTC()));
+    }
+
+    @Test
+    void initNodeId_FailsWithoutConfiguredNodeId() {
+        assertThrows(IllegalStateException.class, () -> getGenerator(null, null, Clock.systemUTC()));
+    }
+
+    @Test
+    void initNodeId_FallsBackToProperty() {
+        SnowflakeAccountNumberGenerator generator = getGenerator(null, "12", Clock.fixed(NOW, ZoneOffset.UTC));
+
+        long id = Long.parseLong(generator.nextAccountNumber().substring(0, SnowflakeAccountNumberGenerator.DIGITS));
+
+        assertEquals(12, (id >>> SnowflakeAccountNumberGenerator.SEQUENCE_BITS) & SnowflakeAccountNumberGenerator.MAX_NODE_ID);
+    }
+
+    @Test
+    void luhnCheckDigit_DetectsSingleDigitErrors() {
+        assertTrue(LuhnCheckDigit.isValid("79927398713"));
+        assertFalse(LuhnCheckDigit.isValid("79927398723"));
+        assertFalse(LuhnCheckDigit.isValid("ACC-1"));
+    }
+
+    private static long getMillis(String accountNumber) {
+        return Long.parseLong(accountNumber.substring(0, SnowflakeAccountNumberGenerator.DIGITS))
+            >>> (SnowflakeAccountNumberGenerator.NODE_ID_BITS + SnowflakeAccountNumberGenerator.SEQUENCE_BITS);
+    }
+
+    private static SnowflakeAccountNumberGenerator getGenerator(String nodeId, Clock clock) {
+        return getGenerator(nodeId, "", clock);
+    }
+
+    /**
+     * @param metadataNodeId Node id in the Eureka instance metadata, null for none
+     * @param propertyNodeId Node id property
+     */
+    @SuppressWarnings("unchecked")
+    private static SnowflakeAccountNumberGenerator getGenerator(String metadataNodeId, String propertyNodeId, Clock clock) {
+        EurekaInstanceConfigBean instanceConfig = new EurekaInstanceConfigBean(new InetUtils(new InetUtilsProperties()));
+        if (metadataNodeId != null) {
+            instanceConfig.getMetadataMap().put(SnowflakeAccountNumberGenerator.NODE_ID_METADATA_KEY, metadataNodeId);
+        }
+        ObjectProvider<EurekaInstanceConfigBean> provider = mock(ObjectProvider.class);
+        when(provider.stream()).thenAnswer(invocation -> Stream.of(instanceConfig));
+
+        SnowflakeAccountNumberGenerator generator = new SnowflakeAccountNumberGenerator();
+        ReflectionTestUtils.setField(generator, "eurekaInstanceConfig", provider);
+        ReflectionTestUtils.setField(generator, "nodeIdProperty", propertyNodeId);
+        ReflectionTestUtils.setField(generator, "clock", clock);
+        generator.initNodeId();
+        return generator;
+    }
+}
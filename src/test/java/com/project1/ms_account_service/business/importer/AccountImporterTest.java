@@ -0,0 +1,131 @@
+package com.project1.ms_account_service.business.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project1.ms_account_service.business.factory.AccountFactory;
+import com.project1.ms_account_service.model.entity.Account;
+import com.project1.ms_account_service.model.entity.DebitCard;
+import com.project1.ms_account_service.model.entity.MigrationCheckpoint;
+import com.project1.ms_account_service.repository.AccountRepository;
+import com.project1.ms_account_service.repository.DebitCardRepository;
+import com.project1.ms_account_service.repository.MongoIndexInitializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AccountImporterTest {
+
+    private static final String CHECKPOINT_ID = AccountImporter.IMPORT_ID_PREFIX + "accounts.ndjson";
+
+    private final AccountFactory accountFactory = mock(AccountFactory.class);
+
+    private final AccountRepository accountRepository = mock(AccountRepository.class);
+
+    private final DebitCardRepository debitCardRepository = mock(DebitCardRepository.class);
+
+    private final MongoIndexInitializer mongoIndexInitializer = mock(MongoIndexInitializer.class);
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate = mock(ReactiveMongoTemplate.class);
+
+    private final AccountImporter accountImporter = new AccountImporter();
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        ImportRecordReader importRecordReader = new ImportRecordReader();
+        ReflectionTestUtils.setField(importRecordReader, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(accountImporter, "accountFactory", accountFactory);
+        ReflectionTestUtils.setField(accountImporter, "accountRepository", accountRepository);
+        ReflectionTestUtils.setField(accountImporter, "debitCardRepository", debitCardRepository);
+        ReflectionTestUtils.setField(accountImporter, "mongoIndexInitializer", mongoIndexInitializer);
+        ReflectionTestUtils.setField(accountImporter, "reactiveMongoTemplate", reactiveMongoTemplate);
+        ReflectionTestUtils.setField(accountImporter, "importRecordReader", importRecordReader);
+        ReflectionTestUtils.setField(accountImporter, "batchSize", 2);
+        ReflectionTestUtils.setField(accountImporter, "parallelism", 2);
+        ReflectionTestUtils.setField(accountImporter, "writeConcurrency", 1);
+        ReflectionTestUtils.setField(accountImporter, "reportInterval", Duration.ofMinutes(1));
+
+        when(mongoIndexInitializer.ensureIndexes()).thenReturn(Flux.empty());
+        when(accountFactory.getAccount(any(), any())).thenAnswer(invocation -> new Account());
+        when(reactiveMongoTemplate.save(any(MigrationCheckpoint.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+    }
+
+    @Test
+    void importFile_WritesBatchesAndSavesCheckpoints() throws IOException {
+        Path file = Files.write(tempDir.resolve("accounts.ndjson"), List.of(
+            "{\"recordType\":\"ACCOUNT\",\"accountNumber\":\"ACC-1\",\"accountType\":\"SAVINGS\",\"customerId\":\"c1\",\"customerType\":\"PERSONAL\","
+                + "\"balance\":10}",
+            "{\"recordType\":\"ACCOUNT\",\"accountNumber\":\"ACC-2\",\"accountType\":\"UNKNOWN\",\"customerId\":\"c1\",\"customerType\":\"PERSONAL\"}",
+            "{\"recordType\":\"ACCOUNT\",\"accountNumber\":\"ACC-3\",\"accountType\":\"CHECKING\",\"customerId\":\"c2\",\"customerType\":\"PERSONAL\"}",
+            "{\"recordType\":\"DEBIT_CARD\",\"cardNumber\":\"4000\",\"customerId\":\"c1\",\"accountNumbers\":[\"ACC-1\"]}"));
+        Account imported = new Account();
+        imported.setId("a1");
+        imported.setAccountNumber("ACC-1");
+
+        when(reactiveMongoTemplate.findById(CHECKPOINT_ID, MigrationCheckpoint.class)).thenReturn(Mono.empty());
+        when(accountRepository.insertAllUnordered(anyList()))
+            .thenReturn(Mono.just(Map.of()))
+            .thenReturn(Mono.just(Map.of(0, new DuplicateKeyException("E11000 duplicate key error: ACC-3"))));
+        when(accountRepository.findByAccountNumberIn(List.of("ACC-1"))).thenReturn(Flux.just(imported));
+        when(debitCardRepository.insertAllUnordered(anyList())).thenReturn(Mono.just(Map.of()));
+
+        StepVerifier.create(accountImporter.importFile(file))
+            .expectNextMatches(checkpoint -> checkpoint.isCompleted()
+                && Long.valueOf(4).equals(checkpoint.getLastId())
+                && checkpoint.getMigrated() == 2
+                && checkpoint.getRejected() == 2)
+            .verifyComplete();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<DebitCard>> debitCards = ArgumentCaptor.forClass(List.class);
+        verify(debitCardRepository).insertAllUnordered(debitCards.capture());
+        assertEquals("a1", debitCards.getValue().get(0).getAssociations().get(0).getAccountId());
+        assertEquals(1, debitCards.getValue().get(0).getAssociations().get(0).getPosition());
+        assertEquals(1, debitCards.getValue().get(0).getLastAssociationPosition());
+        verify(accountRepository, times(2)).insertAllUnordered(anyList());
+        verify(reactiveMongoTemplate, times(3)).save(any(MigrationCheckpoint.class));
+    }
+
+    @Test
+    void importFile_ResumesAfterCheckpointOffset() throws IOException {
+        Path file = Files.write(tempDir.resolve("accounts.ndjson"), List.of(
+            "{\"recordType\":\"ACCOUNT\",\"accountNumber\":\"ACC-1\",\"accountType\":\"SAVINGS\",\"customerId\":\"c1\",\"customerType\":\"PERSONAL\"}",
+            "{\"recordType\":\"ACCOUNT\",\"accountNumber\":\"ACC-2\",\"accountType\":\"SAVINGS\",\"customerId\":\"c2\",\"customerType\":\"PERSONAL\"}"));
+        MigrationCheckpoint checkpoint = MigrationCheckpoint.builder().id(CHECKPOINT_ID).lastId(1L).migrated(1).build();
+
+        when(reactiveMongoTemplate.findById(CHECKPOINT_ID, MigrationCheckpoint.class)).thenReturn(Mono.just(checkpoint));
+        when(accountRepository.insertAllUnordered(anyList())).thenReturn(Mono.just(Map.of()));
+
+        StepVerifier.create(accountImporter.importFile(file))
+            .expectNextMatches(saved -> saved.isCompleted() && saved.getMigrated() == 2)
+            .verifyComplete();
+
+        verify(accountRepository).insertAllUnordered(argThat(accounts -> accounts.size() == 1 && "ACC-2".equals(accounts.get(0).getAccountNumber())));
+        verify(debitCardRepository, never()).insertAllUnordered(anyList());
+    }
+}
@@ -0,0 +1,69 @@
+package com.project1.ms_account_service.business.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project1.ms_account_service.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImportRecordReaderTest {
+
+    private final ImportRecordReader importRecordReader = new ImportRecordReader();
+
+    @TempDir
+    Path tempDir;
+
+    ImportRecordReaderTest() {
+        ReflectionTestUtils.setField(importRecordReader, "objectMapper", new ObjectMapper());
+    }
+
+    @Test
+    void splitCsvLine_KeepsQuotedCommasAndEscapedQuotes() {
+        assertEquals(List.of("a", "b,c", "say \"hi\"", ""), ImportRecordReader.splitCsvLine("a,\"b,c\",\"say \"\"hi\"\"\","));
+    }
+
+    @Test
+    void readDataLines_SkipsCsvHeader() throws IOException {
+        Path file = Files.write(tempDir.resolve("accounts.csv"), List.of("recordType,accountNumber", "ACCOUNT,ACC-1", "ACCOUNT,ACC-2"));
+
+        StepVerifier.create(importRecordReader.readDataLines(file))
+            .expectNext("ACCOUNT,ACC-1", "ACCOUNT,ACC-2")
+            .verifyComplete();
+    }
+
+    @Test
+    void getParser_MapsCsvColumnsToRecord() throws IOException {
+        Path file = Files.write(tempDir.resolve("accounts.csv"), List.of("recordType,customerId,balance,holders,accountNumbers"));
+        Function<String, ImportRecord> parser = importRecordReader.getParser(file);
+
+        ImportRecord record = parser.apply("DEBIT_CARD,123,10.50,\"[{\"\"name\"\":\"\"Ana\"\"}]\",ACC-1;ACC-2");
+
+        assertEquals(ImportRecord.RecordType.DEBIT_CARD, record.getRecordType());
+        assertEquals("123", record.getCustomerId());
+        assertEquals(new BigDecimal("10.50"), record.getBalance());
+        assertEquals("Ana", record.getHolders().get(0).getName());
+        assertEquals(List.of("ACC-1", "ACC-2"), record.getAccountNumbers());
+        assertTrue(record.getSigners().isEmpty());
+    }
+
+    @Test
+    void getParser_RejectsMalformedNdjsonLine() throws IOException {
+        Path file = Files.write(tempDir.resolve("accounts.ndjson"), List.of());
+        Function<String, ImportRecord> parser = importRecordReader.getParser(file);
+
+        assertEquals("123", parser.apply("{\"recordType\":\"ACCOUNT\",\"customerId\":\"123\",\"holders\":null}").getCustomerId());
+        assertThrows(BadRequestException.class, () -> parser.apply("{\"recordType\":"));
+    }
+}
@@ -4,7 +4,11 @@ import com.project1.ms_account_service.exception.BadRequestException;
 import com.project1.ms_account_service.model.AccountBalanceResponse;
 import com.project1.ms_account_service.model.AccountPatchRequest;
 import com.project1.ms_account_service.model.AccountResponse;
+import com.project1.ms_account_service.model.AccountTypeTotalResponse;
+import com.project1.ms_account_service.model.CustomerAccountSummaryItem;
+import com.project1.ms_account_service.model.CustomerAccountSummaryResponse;
 import com.project1.ms_account_service.model.entity.*;
+import org.bson.Document;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -40,52 +44,25 @@ public class AccountMapperTest {
     }
 
     @Test
-    void getAccountUpdateEntity_ShouldThrowException_WhenNoFieldsProvided() {
+    void getAccountUpdate_ShouldThrowException_WhenNoFieldsProvided() {
         AccountPatchRequest request = new AccountPatchRequest();
-        Account account = mock(Account.class);
 
         assertThrows(BadRequestException.class, () ->
-            accountMapper.getAccountUpdateEntity(request, account));
+            accountMapper.getAccountUpdate(request));
     }
 
     @Test
-    void getAccountUpdateEntity_ShouldUpdateFields_WhenValidRequest() {
+    void getAccountUpdate_ShouldSetOnlyProvidedFields() {
         AccountPatchRequest request = new AccountPatchRequest();
         request.setBalance(new BigDecimal("1000.0"));
         request.setStatus("ACTIVE");
 
-        Account account = new SavingsAccount();
-
-        Account updated = accountMapper.getAccountUpdateEntity(request, account);
-
-        assertEquals(request.getBalance(), updated.getBalance());
-        assertEquals(AccountStatus.valueOf(request.getStatus()), updated.getStatus());
-    }
-
-    @Test
-    void getAccountUpdateEntity_ShouldThrowExceptionWhenLimitReachedForSavingAccount() {
-        AccountPatchRequest request = new AccountPatchRequest();
-        request.setMonthlyMovements(10);
-
-        SavingsAccount existingAccount = new SavingsAccount();
-        existingAccount.setAccountType(AccountType.SAVINGS);
-        existingAccount.setMaxMonthlyMovements(9);
-
-        assertThrows(BadRequestException.class, () ->
-            accountMapper.getAccountUpdateEntity(request, existingAccount));
-    }
-
-    @Test
-    void getAccountUpdateEntity_ShouldThrowExceptionWhenLimitReachedForFixedTermAccount() {
-        AccountPatchRequest request = new AccountPatchRequest();
-        request.setMonthlyMovements(10);
-
-        FixedTermAccount existingAccount = new FixedTermAccount();
-        existingAccount.setAccountType(AccountType.FIXED_TERM);
-        existingAccount.setMaxMonthlyMovements(9);
+        Document set = accountMapper.getAccountUpdate(request).getUpdateObject().get("$set", Document.class);
 
-        assertThrows(BadRequestException.class, () ->
-            accountMapper.getAccountUpdateEntity(request, existingAccount));
+        assertEquals(request.getBalance(), set.get("balance"));
+        assertEquals(AccountStatus.ACTIVE, set.get("status"));
+        assertFalse(set.containsKey("monthlyMovements"));
+        assertFalse(set.containsKey("holders"));
     }
 
     @Test
@@ -158,6 +135,36 @@ public class AccountMapperTest {
         assertEquals(account.getBalance(), response.getBalance());
     }
 
+    @Test
+    void getAccountTypeTotalResponse_ShouldMapCorrectly() {
+        AccountTypeTotal accountTypeTotal = new AccountTypeTotal(AccountType.SAVINGS, 2, new BigDecimal("300.25"));
+
+        AccountTypeTotalResponse response = accountMapper.getAccountTypeTotalResponse(accountTypeTotal);
+
+        assertEquals("SAVINGS", response.getAccountType());
+        assertEquals(2L, response.getAccounts());
+        assertEquals(accountTypeTotal.getBalance(), response.getBalance());
+    }
+
+    @Test
+    void getCustomerAccountSummaryResponse_ShouldMapEntriesInIdOrder() {
+        CustomerAccountSummary summary = new CustomerAccountSummary("123", List.of(
+            new CustomerAccountSummaryEntry("65f1c2a9e4b0a1b2c3d4e5f2", "ACC-2", AccountType.CHECKING, AccountStatus.INACTIVE, BigDecimal.ONE),
+            new CustomerAccountSummaryEntry("65f1c2a9e4b0a1b2c3d4e5f1", "ACC-1", AccountType.SAVINGS, AccountStatus.ACTIVE, BigDecimal.TEN)));
+
+        CustomerAccountSummaryResponse response = accountMapper.getCustomerAccountSummaryResponse(summary);
+
+        assertEquals("123", response.getCustomerId());
+        assertEquals(2, response.getAccounts().size());
+        CustomerAccountSummaryItem first = response.getAccounts().get(0);
+        assertEquals("65f1c2a9e4b0a1b2c3d4e5f1", first.getId());
+        assertEquals("ACC-1", first.getAccountNumber());
+        assertEquals("SAVINGS", first.getAccountType());
+        assertEquals("ACTIVE", first.getStatus());
+        assertEquals(BigDecimal.TEN, first.getBalance());
+        assertEquals("INACTIVE", response.getAccounts().get(1).getStatus());
+    }
+
     @Test
     void getAccountMember_ShouldMapCorrectly() {
         com.project1.ms_account_service.model.AccountMember request =
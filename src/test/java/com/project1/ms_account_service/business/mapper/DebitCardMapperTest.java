@@ -23,12 +23,13 @@ public class DebitCardMapperTest {
         DebitCardCreationRequest request = new DebitCardCreationRequest();
         request.setAccountId("123");
 
-        DebitCard result = debitCardMapper.getDebitCardCreationEntity(request);
+        DebitCard result = debitCardMapper.getDebitCardCreationEntity(request, "4000001234567899");
 
-        assertNotNull(result.getCardNumber());
+        assertEquals("4000001234567899", result.getCardNumber());
         assertEquals(1, result.getAssociations().size());
         assertEquals("123", result.getAssociations().get(0).getAccountId());
         assertEquals(1, result.getAssociations().get(0).getPosition());
+        assertEquals(1, result.getLastAssociationPosition());
     }
 
     @Test
@@ -10,18 +10,31 @@ import com.project1.ms_account_service.exception.NotFoundException;
 import com.project1.ms_account_service.model.*;
 import com.project1.ms_account_service.model.AccountMember;
 import com.project1.ms_account_service.model.entity.*;
+import com.project1.ms_account_service.model.entity.DebitCardAssociation;
+import com.project1.ms_account_service.model.entity.FixedTermAccount;
+import com.project1.ms_account_service.model.entity.SavingsAccount;
 import com.project1.ms_account_service.repository.AccountRepository;
+import com.project1.ms_account_service.repository.DebitCardRepository;
+import com.project1.ms_account_service.repository.MongoIndexInitializer;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.query.Update;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 import reactor.test.StepVerifier;
+import reactor.test.publisher.PublisherProbe;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -43,9 +56,24 @@ public class AccountServiceImplTest {
     @MockBean
     private CreditCardService creditCardService;
 
+    @MockBean
+    private DebitCardRepository debitCardRepository;
+
+    @Autowired
+    private DebitCardPrimaryAccountCache debitCardPrimaryAccountCache;
+
+    @MockBean
+    private CustomerAccountSummaryProjector customerAccountSummaryProjector;
+
     @Autowired
     private AccountServiceImpl accountService;
 
+    @BeforeEach
+    void setUp() {
+        when(customerAccountSummaryProjector.putAccounts(any(), any())).thenReturn(Mono.empty());
+        when(customerAccountSummaryProjector.updateAccountState(any(), any(), any())).thenReturn(Mono.empty());
+    }
+
     @Test
     void createAccount_Success() {
         AccountRequest request = new AccountRequest();
@@ -87,6 +115,8 @@ public class AccountServiceImplTest {
         StepVerifier.create(accountService.createAccount(Mono.just(request)))
             .expectNext(response)
             .verifyComplete();
+
+        verify(customerAccountSummaryProjector).putAccounts("123", List.of(account));
     }
 
     @Test
@@ -116,15 +146,48 @@ public class AccountServiceImplTest {
     @Test
     void deleteAccount_Success() {
         String id = "123";
-        Account account = new Account();
 
-        when(accountRepository.findById(id)).thenReturn(Mono.just(account));
-        when(accountRepository.save(any())).thenReturn(Mono.just(account));
+        when(accountRepository.updateAccountStatus(id, AccountStatus.INACTIVE)).thenReturn(Mono.just(1L));
+        when(debitCardRepository.findByAssociatedAccountId(id)).thenReturn(Flux.empty());
+
+        StepVerifier.create(accountService.deleteAccount(id))
+            .verifyComplete();
+
+        verify(accountRepository, never()).findById(id);
+        verify(accountRepository, never()).save(any());
+        verify(debitCardRepository, never()).detachAccount(id);
+        verify(customerAccountSummaryProjector).updateAccountState(id, null, AccountStatus.INACTIVE);
+    }
+
+    @Test
+    void deleteAccount_DetachesAccountFromDebitCards() {
+        String id = "124";
+        DebitCard debitCard = DebitCard.builder().id("card-1").cardNumber("4000001234567899").build();
+        debitCardPrimaryAccountCache.putPrimaryAccountId("card-1", id);
+
+        when(accountRepository.updateAccountStatus(id, AccountStatus.INACTIVE)).thenReturn(Mono.just(1L));
+        when(debitCardRepository.findByAssociatedAccountId(id)).thenReturn(Flux.just(debitCard));
+        when(debitCardRepository.detachAccount(id)).thenReturn(Mono.just(1L));
 
         StepVerifier.create(accountService.deleteAccount(id))
             .verifyComplete();
 
-        assertEquals(AccountStatus.INACTIVE, account.getStatus());
+        verify(debitCardRepository).detachAccount(id);
+        StepVerifier.create(debitCardPrimaryAccountCache.getPrimaryAccountId("card-1"))
+            .verifyComplete();
+    }
+
+    @Test
+    void deleteAccount_NotFound() {
+        String id = "123";
+
+        when(accountRepository.updateAccountStatus(id, AccountStatus.INACTIVE)).thenReturn(Mono.just(0L));
+
+        StepVerifier.create(accountService.deleteAccount(id))
+            .expectError(NotFoundException.class)
+            .verify();
+
+        verify(debitCardRepository, never()).findByAssociatedAccountId(id);
     }
 
     @Test
@@ -234,18 +297,21 @@ public class AccountServiceImplTest {
         customer.setStatus(CustomerStatus.ACTIVE.toString());
         customer.setSubType(null);
 
-        List<Account> accountList = new ArrayList<>();
-        Account account1 = new Account();
-        account1.setId("1");
-        account1.setAccountType(AccountType.SAVINGS);
-        accountList.add(account1);
-        Flux<Account> accountFlux = Flux.fromIterable(accountList);
+        Account account = new Account();
+        account.setAccountType(AccountType.SAVINGS);
+
+        CreditDebtsResponse creditDebtsResponse = new CreditDebtsResponse();
+        creditDebtsResponse.setDebts(new CreditDebtsResponseDebts());
 
         when(customerService.getCustomerById("123")).thenReturn(Mono.just(customer));
-        when(accountRepository.findByCustomerId("123")).thenReturn(accountFlux);
+        when(creditCardService.getCreditDebtsByCustomerId("123")).thenReturn(Mono.just(creditDebtsResponse));
+        when(accountFactory.getAccount(any(), any())).thenReturn(account);
+        when(accountRepository.save(any())).thenReturn(Mono.error(new DuplicateKeyException(
+            "E11000 duplicate key error collection: accounts index: " + MongoIndexInitializer.PERSONAL_SAVINGS_UNIQUE_INDEX)));
 
         StepVerifier.create(accountService.createAccount(Mono.just(request)))
-            .expectErrorMatches(throwable -> throwable instanceof BadRequestException)
+            .expectErrorMatches(throwable -> throwable instanceof BadRequestException
+                && throwable.getMessage().equals("PERSONAL customers can only have one SAVINGS account"))
             .verify();
     }
 
@@ -263,18 +329,21 @@ public class AccountServiceImplTest {
         customer.setStatus(CustomerStatus.ACTIVE.toString());
         customer.setSubType(null);
 
-        List<Account> accountList = new ArrayList<>();
-        Account account1 = new Account();
-        account1.setId("1");
-        account1.setAccountType(AccountType.CHECKING);
-        accountList.add(account1);
-        Flux<Account> accountFlux = Flux.fromIterable(accountList);
+        Account account = new Account();
+        account.setAccountType(AccountType.CHECKING);
+
+        CreditDebtsResponse creditDebtsResponse = new CreditDebtsResponse();
+        creditDebtsResponse.setDebts(new CreditDebtsResponseDebts());
 
         when(customerService.getCustomerById("123")).thenReturn(Mono.just(customer));
-        when(accountRepository.findByCustomerId("123")).thenReturn(accountFlux);
+        when(creditCardService.getCreditDebtsByCustomerId("123")).thenReturn(Mono.just(creditDebtsResponse));
+        when(accountFactory.getAccount(any(), any())).thenReturn(account);
+        when(accountRepository.save(any())).thenReturn(Mono.error(new DuplicateKeyException(
+            "E11000 duplicate key error collection: accounts index: " + MongoIndexInitializer.PERSONAL_CHECKING_UNIQUE_INDEX)));
 
         StepVerifier.create(accountService.createAccount(Mono.just(request)))
-            .expectErrorMatches(throwable -> throwable instanceof BadRequestException)
+            .expectErrorMatches(throwable -> throwable instanceof BadRequestException
+                && throwable.getMessage().equals("PERSONAL customers can only have one CHECKING account"))
             .verify();
     }
 
@@ -362,12 +431,17 @@ public class AccountServiceImplTest {
         accountList.add(account1);
         Flux<Account> accountFlux = Flux.fromIterable(accountList);
 
+        CreditDebtsResponse creditDebtsResponse = new CreditDebtsResponse();
+        creditDebtsResponse.setDebts(new CreditDebtsResponseDebts());
+
         when(customerService.getCustomerById("123")).thenReturn(Mono.just(customer));
+        when(creditCardService.getCreditDebtsByCustomerId("123")).thenReturn(Mono.just(creditDebtsResponse));
         when(accountRepository.findByCustomerId("123")).thenReturn(accountFlux);
         when(creditCardService.getCustomerCreditCards("123")).thenReturn(Flux.empty());
 
         StepVerifier.create(accountService.createAccount(Mono.just(request)))
-            .expectErrorMatches(throwable -> throwable instanceof BadRequestException)
+            .expectErrorMatches(throwable -> throwable instanceof BadRequestException
+                && throwable.getMessage().equals("PERSONAL VIP customers must have at least one CREDIT CARD for SAVINGS account"))
             .verify();
     }
 
@@ -534,12 +608,17 @@ public class AccountServiceImplTest {
         accountList.add(account1);
         Flux<Account> accountFlux = Flux.fromIterable(accountList);
 
+        CreditDebtsResponse creditDebtsResponse = new CreditDebtsResponse();
+        creditDebtsResponse.setDebts(new CreditDebtsResponseDebts());
+
         when(customerService.getCustomerById("123")).thenReturn(Mono.just(customer));
+        when(creditCardService.getCreditDebtsByCustomerId("123")).thenReturn(Mono.just(creditDebtsResponse));
         when(accountRepository.findByCustomerId("123")).thenReturn(accountFlux);
         when(creditCardService.getCustomerCreditCards("123")).thenReturn(Flux.empty());
 
         StepVerifier.create(accountService.createAccount(Mono.just(request)))
-            .expectErrorMatches(throwable -> throwable instanceof BadRequestException)
+            .expectErrorMatches(throwable -> throwable instanceof BadRequestException
+                && throwable.getMessage().equals("BUSINESS PYME customers must have at least one CREDIT CARD for CHECKING account"))
             .verify();
     }
 
@@ -700,11 +779,181 @@ public class AccountServiceImplTest {
             .verify();
     }
 
+    @Test
+    void createAccountsBatch_ValidatesEachCustomerOnceAndInsertsUnordered() {
+        CustomerResponse customer = new CustomerResponse();
+        customer.setId("123");
+        customer.setType(CustomerType.PERSONAL.toString());
+        customer.setStatus(CustomerStatus.ACTIVE.toString());
+
+        CreditDebtsResponse creditDebtsResponse = new CreditDebtsResponse();
+        creditDebtsResponse.setDebts(new CreditDebtsResponseDebts());
+
+        AccountBatchCreateRequest request = new AccountBatchCreateRequest();
+        request.setAccounts(List.of(
+            getBatchAccountRequest(AccountType.SAVINGS.toString()),
+            getBatchAccountRequest(AccountType.SAVINGS.toString()),
+            getBatchAccountRequest(AccountType.CHECKING.toString()),
+            getBatchAccountRequest("INVALID")));
+        AccountResponse response = new AccountResponse();
+
+        when(customerService.getCustomerById("123")).thenReturn(Mono.just(customer));
+        when(creditCardService.getCreditDebtsByCustomerId("123")).thenReturn(Mono.just(creditDebtsResponse));
+        when(accountFactory.getAccount(any(), any())).thenAnswer(invocation -> {
+            Account account = new Account();
+            account.setAccountType(AccountType.valueOf(invocation.<AccountRequest>getArgument(0).getAccountType()));
+            account.setCustomerType(CustomerType.PERSONAL);
+            account.setStatus(AccountStatus.ACTIVE);
+            return account;
+        });
+        when(accountRepository.insertAllUnordered(anyList())).thenReturn(Mono.just(Map.of(
+            1, new DuplicateKeyException("E11000 duplicate key error index: " + MongoIndexInitializer.PERSONAL_CHECKING_UNIQUE_INDEX))));
+        when(accountMapper.getAccountResponse(any())).thenReturn(response);
+
+        StepVerifier.create(accountService.createAccountsBatch(Mono.just(request)))
+            .assertNext(batch -> {
+                List<AccountBatchCreateResult> results = batch.getResults();
+                assertEquals(4, results.size());
+                assertEquals(AccountBatchCreateResult.StatusEnum.CREATED, results.get(0).getStatus());
+                assertEquals(response, results.get(0).getAccount());
+                assertEquals(AccountBatchCreateResult.StatusEnum.REJECTED, results.get(1).getStatus());
+                assertEquals("PERSONAL customers can only have one SAVINGS account", results.get(1).getMessage());
+                assertEquals(AccountBatchCreateResult.StatusEnum.REJECTED, results.get(2).getStatus());
+                assertEquals("PERSONAL customers can only have one CHECKING account", results.get(2).getMessage());
+                assertEquals(AccountBatchCreateResult.StatusEnum.REJECTED, results.get(3).getStatus());
+                assertEquals(new InvalidAccountTypeException().getMessage(), results.get(3).getMessage());
+                assertEquals(List.of(0, 1, 2, 3), results.stream().map(AccountBatchCreateResult::getIndex).collect(Collectors.toList()));
+            })
+            .verifyComplete();
+
+        verify(customerService, times(1)).getCustomerById("123");
+        verify(creditCardService, times(1)).getCreditDebtsByCustomerId("123");
+        verify(accountRepository, times(1)).insertAllUnordered(argThat(accounts -> accounts.size() == 2));
+        verify(accountRepository, never()).save(any());
+        verify(customerAccountSummaryProjector, times(1)).putAccounts(eq("123"), argThat(accounts -> accounts.size() == 1));
+    }
+
+    @Test
+    void createAccountsBatch_RejectsAccountsOfMissingCustomer() {
+        AccountBatchCreateRequest request = new AccountBatchCreateRequest();
+        request.setAccounts(List.of(
+            getBatchAccountRequest(AccountType.SAVINGS.toString()),
+            getBatchAccountRequest(AccountType.CHECKING.toString())));
+
+        when(customerService.getCustomerById("123")).thenReturn(Mono.error(new NotFoundException("Customer not found")));
+
+        StepVerifier.create(accountService.createAccountsBatch(Mono.just(request)))
+            .expectNextMatches(batch -> batch.getResults().stream()
+                .allMatch(result -> result.getStatus() == AccountBatchCreateResult.StatusEnum.REJECTED
+                    && "Customer not found".equals(result.getMessage())))
+            .verifyComplete();
+
+        verify(customerService, times(1)).getCustomerById("123");
+        verify(accountRepository, never()).insertAllUnordered(anyList());
+    }
+
+    @Test
+    void createAccountsBatch_RejectsEmptyRequest() {
+        StepVerifier.create(accountService.createAccountsBatch(Mono.just(new AccountBatchCreateRequest())))
+            .expectError(BadRequestException.class)
+            .verify();
+    }
+
+    private static AccountRequest getBatchAccountRequest(String accountType) {
+        AccountRequest request = new AccountRequest();
+        request.setAccountType(accountType);
+        request.setCustomerId("123");
+        request.setHolders(new ArrayList<>());
+        request.setSigners(new ArrayList<>());
+        return request;
+    }
+
+    @Test
+    void getAccountsBatch_ReturnsAccountsInRequestOrderAndNotFoundKeys() {
+        Account first = new Account();
+        first.setId("1");
+        Account second = new Account();
+        second.setId("2");
+        Account byNumber = new Account();
+        byNumber.setAccountNumber("ACC-3");
+        AccountResponse firstResponse = new AccountResponse();
+        firstResponse.setId("1");
+        AccountResponse secondResponse = new AccountResponse();
+        secondResponse.setId("2");
+        AccountResponse byNumberResponse = new AccountResponse();
+        byNumberResponse.setAccountNumber("ACC-3");
+
+        AccountBatchGetRequest request = new AccountBatchGetRequest();
+        request.setIds(List.of("2", "missing", "1", "2"));
+        request.setAccountNumbers(List.of("ACC-3", "ACC-missing"));
+
+        when(accountRepository.findAllById(List.of("2", "missing", "1"))).thenReturn(Flux.just(first, second));
+        when(accountRepository.findByAccountNumberIn(List.of("ACC-3", "ACC-missing"))).thenReturn(Flux.just(byNumber));
+        when(accountMapper.getAccountResponse(first)).thenReturn(firstResponse);
+        when(accountMapper.getAccountResponse(second)).thenReturn(secondResponse);
+        when(accountMapper.getAccountResponse(byNumber)).thenReturn(byNumberResponse);
+
+        StepVerifier.create(accountService.getAccountsBatch(Mono.just(request)))
+            .expectNextMatches(response ->
+                response.getAccounts().equals(List.of(secondResponse, firstResponse, byNumberResponse))
+                    && response.getNotFoundIds().equals(List.of("missing"))
+                    && response.getNotFoundAccountNumbers().equals(List.of("ACC-missing")))
+            .verifyComplete();
+
+        verify(accountRepository, never()).findById(anyString());
+        verify(accountRepository, never()).findByAccountNumber(anyString());
+    }
+
+    @Test
+    void getAccountsBatch_ReturnsAccountRequestedByIdAndAccountNumberOnce() {
+        Account account = new Account();
+        account.setId("128");
+        account.setAccountNumber("ACC-128");
+        AccountResponse accountResponse = new AccountResponse();
+        accountResponse.setId("128");
+
+        AccountBatchGetRequest request = new AccountBatchGetRequest();
+        request.setIds(List.of("128"));
+        request.setAccountNumbers(List.of("ACC-128"));
+
+        when(accountRepository.findAllById(List.of("128"))).thenReturn(Flux.just(account));
+        when(accountRepository.findByAccountNumberIn(List.of("ACC-128"))).thenReturn(Flux.just(account));
+        when(accountMapper.getAccountResponse(account)).thenReturn(accountResponse);
+
+        StepVerifier.create(accountService.getAccountsBatch(Mono.just(request)))
+            .expectNextMatches(response ->
+                response.getAccounts().equals(List.of(accountResponse))
+                    && response.getNotFoundIds().isEmpty()
+                    && response.getNotFoundAccountNumbers().isEmpty())
+            .verifyComplete();
+
+        verify(accountMapper, times(1)).getAccountResponse(account);
+    }
+
+    @Test
+    void getAccountsBatch_RejectsEmptyRequest() {
+        StepVerifier.create(accountService.getAccountsBatch(Mono.just(new AccountBatchGetRequest())))
+            .expectError(BadRequestException.class)
+            .verify();
+    }
+
+    @Test
+    void getAccountsBatch_RejectsTooManyKeys() {
+        AccountBatchGetRequest request = new AccountBatchGetRequest();
+        request.setIds(IntStream.range(0, 501).mapToObj(String::valueOf).collect(Collectors.toList()));
+
+        StepVerifier.create(accountService.getAccountsBatch(Mono.just(request)))
+            .expectError(BadRequestException.class)
+            .verify();
+
+        verify(accountRepository, never()).findAllById(anyIterable());
+    }
+
     @Test
     void getAccountsByCustomerId_EmptyResult() {
         String customerId = "123";
 
-        when(accountRepository.findByCustomerId(customerId))
+        when(accountRepository.findByCustomerIdAfter(eq(customerId), isNull(), eq(0), anyInt()))
             .thenReturn(Flux.empty());
 
         StepVerifier.create(accountService.getAccountsByCustomerId(customerId))
@@ -712,17 +961,121 @@ public class AccountServiceImplTest {
             .verifyComplete();
     }
 
+    @Test
+    void getCustomerSummary_MapsAccountsDebitCardsAndTotals() {
+        Account savings = new Account();
+        savings.setId("1");
+        savings.setAccountType(AccountType.SAVINGS);
+        Account checking = new Account();
+        checking.setId("2");
+        checking.setAccountType(AccountType.CHECKING);
+        DebitCard debitCard = DebitCard.builder()
+            .cardNumber("4000001234567899")
+            .customerId("summary-customer")
+            .associations(List.of(DebitCardAssociation.builder().accountId("1").position(1).build()))
+            .build();
+        AccountTypeTotal savingsTotal = new AccountTypeTotal(AccountType.SAVINGS, 1, new BigDecimal("150.50"));
+        AccountTypeTotal checkingTotal = new AccountTypeTotal(AccountType.CHECKING, 1, new BigDecimal("49.50"));
+        AccountTypeTotalResponse savingsTotalResponse = new AccountTypeTotalResponse();
+        AccountTypeTotalResponse checkingTotalResponse = new AccountTypeTotalResponse();
+
+        when(accountRepository.findCustomerSummary("summary-customer"))
+            .thenReturn(Mono.just(new CustomerSummary(List.of(savings, checking), List.of(savingsTotal, checkingTotal), List.of(debitCard))));
+        when(accountMapper.getAccountResponse(any())).thenReturn(new AccountResponse());
+        when(accountMapper.getAccountTypeTotalResponse(savingsTotal)).thenReturn(savingsTotalResponse);
+        when(accountMapper.getAccountTypeTotalResponse(checkingTotal)).thenReturn(checkingTotalResponse);
+
+        StepVerifier.create(accountService.getCustomerSummary("summary-customer"))
+            .assertNext(summary -> {
+                assertEquals("summary-customer", summary.getCustomerId());
+                assertEquals(2, summary.getAccounts().size());
+                assertEquals(1, summary.getDebitCards().size());
+                assertEquals("4000001234567899", summary.getDebitCards().get(0).getCardNumber());
+                assertEquals(List.of(savingsTotalResponse, checkingTotalResponse), summary.getTotals());
+                assertEquals(0, new BigDecimal("200.00").compareTo(summary.getTotalBalance()));
+            })
+            .verifyComplete();
+    }
+
+    @Test
+    void getCustomerSummary_EmptyForCustomerWithoutAccounts() {
+        when(accountRepository.findCustomerSummary("summary-empty-customer"))
+            .thenReturn(Mono.just(new CustomerSummary(List.of(), List.of(), List.of())));
+
+        StepVerifier.create(accountService.getCustomerSummary("summary-empty-customer"))
+            .assertNext(summary -> {
+                assertTrue(summary.getAccounts().isEmpty());
+                assertTrue(summary.getDebitCards().isEmpty());
+                assertTrue(summary.getTotals().isEmpty());
+                assertEquals(BigDecimal.ZERO, summary.getTotalBalance());
+            })
+            .verifyComplete();
+    }
+
+    @Test
+    void getCustomerAccountSummary_ReadsSummaryOfCustomer() {
+        CustomerAccountSummary summary = new CustomerAccountSummary("123", List.of(CustomerAccountSummaryEntry.builder().accountId("1").build()));
+        CustomerAccountSummaryResponse response = new CustomerAccountSummaryResponse();
+
+        when(customerAccountSummaryProjector.getSummary("123")).thenReturn(Mono.just(summary));
+        when(accountMapper.getCustomerAccountSummaryResponse(summary)).thenReturn(response);
+
+        StepVerifier.create(accountService.getCustomerAccountSummary("123"))
+            .expectNext(response)
+            .verifyComplete();
+
+        verify(accountRepository, never()).findByCustomerIdAfter(any(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void getAccountsPageByCustomerId_ReturnsNextCursorWhenMoreAccountsExist() {
+        Account first = new Account();
+        first.setId("65f1c2a9e4b0a1b2c3d4e5f1");
+        Account second = new Account();
+        second.setId("65f1c2a9e4b0a1b2c3d4e5f2");
+        Account third = new Account();
+        third.setId("65f1c2a9e4b0a1b2c3d4e5f3");
+
+        when(accountRepository.findByCustomerIdAfter("123", null, 3, 3)).thenReturn(Flux.just(first, second, third));
+        when(accountMapper.getAccountResponse(any())).thenReturn(new AccountResponse());
+
+        AccountPage page = accountService.getAccountsPageByCustomerId("123", null, 2).block();
+
+        assertEquals(2, page.getAccounts().size());
+        assertNotNull(page.getNextCursor());
+
+        when(accountRepository.findByCustomerIdAfter("123", second.getId(), 3, 3)).thenReturn(Flux.just(third));
+
+        StepVerifier.create(accountService.getAccountsPageByCustomerId("123", page.getNextCursor(), 2))
+            .expectNextMatches(lastPage -> lastPage.getAccounts().size() == 1 && lastPage.getNextCursor() == null)
+            .verifyComplete();
+    }
+
+    @Test
+    void getAccountsPageByCustomerId_RejectsInvalidCursor() {
+        StepVerifier.create(accountService.getAccountsPageByCustomerId("123", "not-a-cursor", 10))
+            .expectErrorMatches(e -> e instanceof BadRequestException && e.getMessage().equals("Invalid cursor"))
+            .verify();
+    }
+
+    @Test
+    void getAccountsPageByCustomerId_RejectsLimitAboveMaximum() {
+        StepVerifier.create(accountService.getAccountsPageByCustomerId("123", null, 501))
+            .expectError(BadRequestException.class)
+            .verify();
+
+        verify(accountRepository, never()).findByCustomerIdAfter(eq("123"), any(), anyInt(), anyInt());
+    }
+
     @Test
     void getAccountBalanceByAccountNumber_Success() {
-        Account account = new Account();
-        account.setBalance(new BigDecimal("100.0"));
-        account.setAccountNumber("12345");
+        AccountBalance accountBalance = new AccountBalance("12345", new BigDecimal("100.0"), AccountStatus.ACTIVE);
 
         AccountBalanceResponse accountBalanceResponse = new AccountBalanceResponse();
         accountBalanceResponse.setBalance(new BigDecimal("100.0"));
 
-        when(accountRepository.findByAccountNumber("12345")).thenReturn(Mono.just(account));
-        when(accountMapper.getAccountBalanceResponse(account)).thenReturn(accountBalanceResponse);
+        when(accountRepository.findBalanceByAccountNumber("12345")).thenReturn(Mono.just(accountBalance));
+        when(accountMapper.getAccountBalanceResponse(accountBalance)).thenReturn(accountBalanceResponse);
 
         StepVerifier.create(accountService.getAccountBalanceByAccountNumber("12345"))
             .expectNext(accountBalanceResponse)
@@ -731,25 +1084,144 @@ public class AccountServiceImplTest {
 
     @Test
     void getAccountBalanceByAccountNumber_NotFound() {
-        when(accountRepository.findByAccountNumber("12345")).thenReturn(Mono.empty());
+        when(accountRepository.findBalanceByAccountNumber("12345")).thenReturn(Mono.empty());
 
         StepVerifier.create(accountService.getAccountBalanceByAccountNumber("12345"))
             .expectError(NotFoundException.class)
             .verify();
     }
 
+    @Test
+    void getAccountBalanceById_Success() {
+        AccountBalance accountBalance = new AccountBalance("12345", new BigDecimal("50.0"), AccountStatus.ACTIVE);
+
+        AccountBalanceResponse accountBalanceResponse = new AccountBalanceResponse();
+        accountBalanceResponse.setBalance(new BigDecimal("50.0"));
+
+        when(accountRepository.findBalanceById("123")).thenReturn(Mono.just(accountBalance));
+        when(accountMapper.getAccountBalanceResponse(accountBalance)).thenReturn(accountBalanceResponse);
+
+        StepVerifier.create(accountService.getAccountBalanceById("123"))
+            .expectNext(accountBalanceResponse)
+            .verifyComplete();
+
+        verify(accountRepository, never()).findById("123");
+    }
+
+    @Test
+    void getAccountBalanceById_NotFound() {
+        when(accountRepository.findBalanceById("123")).thenReturn(Mono.empty());
+
+        StepVerifier.create(accountService.getAccountBalanceById("123"))
+            .expectError(NotFoundException.class)
+            .verify();
+    }
+
+    @Test
+    void depositToAccount_Success() {
+        AccountBalance accountBalance = new AccountBalance("12345", new BigDecimal("150.0"), AccountStatus.ACTIVE);
+        AccountBalanceResponse accountBalanceResponse = new AccountBalanceResponse();
+        accountBalanceResponse.setBalance(new BigDecimal("150.0"));
+
+        when(accountRepository.applyMovement("123", new BigDecimal("50.0"))).thenReturn(Mono.just(accountBalance));
+        when(accountMapper.getAccountBalanceResponse(accountBalance)).thenReturn(accountBalanceResponse);
+
+        StepVerifier.create(accountService.depositToAccount("123", Mono.just(new AccountMovementRequest(new BigDecimal("50.0")))))
+            .expectNext(accountBalanceResponse)
+            .verifyComplete();
+
+        verify(accountRepository, never()).findById("123");
+        verify(accountRepository, never()).save(any());
+        verify(customerAccountSummaryProjector).updateAccountState("123", new BigDecimal("150.0"), AccountStatus.ACTIVE);
+    }
+
+    @Test
+    void withdrawFromAccount_AppliesNegatedAmount() {
+        AccountBalance accountBalance = new AccountBalance("12345", new BigDecimal("70.0"), AccountStatus.ACTIVE);
+        AccountBalanceResponse accountBalanceResponse = new AccountBalanceResponse();
+        accountBalanceResponse.setBalance(new BigDecimal("70.0"));
+
+        when(accountRepository.applyMovement("123", new BigDecimal("-30.0"))).thenReturn(Mono.just(accountBalance));
+        when(accountMapper.getAccountBalanceResponse(accountBalance)).thenReturn(accountBalanceResponse);
+
+        StepVerifier.create(accountService.withdrawFromAccount("123", Mono.just(new AccountMovementRequest(new BigDecimal("30.0")))))
+            .expectNext(accountBalanceResponse)
+            .verifyComplete();
+    }
+
+    @Test
+    void withdrawFromAccount_InsufficientFunds() {
+        Account account = new Account();
+        account.setStatus(AccountStatus.ACTIVE);
+        account.setBalance(new BigDecimal("10.0"));
+
+        when(accountRepository.applyMovement("123", new BigDecimal("-30.0"))).thenReturn(Mono.empty());
+        when(accountRepository.findById("123")).thenReturn(Mono.just(account));
+
+        StepVerifier.create(accountService.withdrawFromAccount("123", Mono.just(new AccountMovementRequest(new BigDecimal("30.0")))))
+            .expectErrorMatches(e -> e instanceof BadRequestException && e.getMessage().equals("Insufficient funds"))
+            .verify();
+    }
+
+    @Test
+    void depositToAccount_MaxMonthlyMovementsReached() {
+        SavingsAccount account = new SavingsAccount();
+        account.setStatus(AccountStatus.ACTIVE);
+        account.setBalance(new BigDecimal("10.0"));
+        account.setMonthlyMovements(30);
+        account.setMaxMonthlyMovements(30);
+
+        when(accountRepository.applyMovement("123", BigDecimal.ONE)).thenReturn(Mono.empty());
+        when(accountRepository.findById("123")).thenReturn(Mono.just(account));
+
+        StepVerifier.create(accountService.depositToAccount("123", Mono.just(new AccountMovementRequest(BigDecimal.ONE))))
+            .expectErrorMatches(e -> e instanceof BadRequestException
+                && e.getMessage().equals("Max monthly movements limit reached. The monthly movements available: 30"))
+            .verify();
+    }
+
+    @Test
+    void depositToAccount_InactiveAccount() {
+        Account account = new Account();
+        account.setStatus(AccountStatus.INACTIVE);
+
+        when(accountRepository.applyMovement("123", BigDecimal.ONE)).thenReturn(Mono.empty());
+        when(accountRepository.findById("123")).thenReturn(Mono.just(account));
+
+        StepVerifier.create(accountService.depositToAccount("123", Mono.just(new AccountMovementRequest(BigDecimal.ONE))))
+            .expectErrorMatches(e -> e instanceof BadRequestException && e.getMessage().equals("Account is not active"))
+            .verify();
+    }
+
+    @Test
+    void depositToAccount_NotFound() {
+        when(accountRepository.applyMovement("123", BigDecimal.ONE)).thenReturn(Mono.empty());
+        when(accountRepository.findById("123")).thenReturn(Mono.empty());
+
+        StepVerifier.create(accountService.depositToAccount("123", Mono.just(new AccountMovementRequest(BigDecimal.ONE))))
+            .expectError(NotFoundException.class)
+            .verify();
+    }
+
+    @Test
+    void depositToAccount_InvalidAmount() {
+        StepVerifier.create(accountService.depositToAccount("123", Mono.just(new AccountMovementRequest(BigDecimal.ZERO))))
+            .expectError(BadRequestException.class)
+            .verify();
+
+        verify(accountRepository, never()).applyMovement(eq("123"), any());
+    }
+
     @Test
     void updateAccount_Success() {
         String id = "123";
-        Account existingAccount = new Account();
-        existingAccount.setId(id);
-        existingAccount.setAccountType(AccountType.SAVINGS);
-        existingAccount.setStatus(AccountStatus.ACTIVE);
 
         AccountPatchRequest patchRequest = new AccountPatchRequest();
         patchRequest.setBalance(new BigDecimal("200.0"));
         patchRequest.setMonthlyMovements(5);
 
+        Update update = new Update().set("balance", new BigDecimal("200.0")).set("monthlyMovements", 5);
+
         Account updatedAccount = new Account();
         updatedAccount.setId(id);
         updatedAccount.setBalance(new BigDecimal("200.0"));
@@ -762,25 +1234,201 @@ public class AccountServiceImplTest {
         expectedResponse.setMonthlyMovements(5);
         expectedResponse.setStatus(AccountStatus.ACTIVE.toString());
 
-        when(accountRepository.findById(id)).thenReturn(Mono.just(existingAccount));
-        when(accountMapper.getAccountUpdateEntity(patchRequest, existingAccount)).thenReturn(updatedAccount);
-        when(accountRepository.save(updatedAccount)).thenReturn(Mono.just(updatedAccount));
+        when(accountMapper.getAccountUpdate(patchRequest)).thenReturn(update);
+        when(accountRepository.updateAccountFields(id, update)).thenReturn(Mono.just(updatedAccount));
         when(accountMapper.getAccountResponse(updatedAccount)).thenReturn(expectedResponse);
 
         StepVerifier.create(accountService.updateAccount(id, Mono.just(patchRequest)))
             .expectNext(expectedResponse)
             .verifyComplete();
+
+        verify(accountRepository, never()).findById(id);
+        verify(accountRepository, never()).save(any());
     }
 
     @Test
     void updateAccount_NotFound() {
         String id = "123";
         AccountPatchRequest request = new AccountPatchRequest();
+        request.setStatus("ACTIVE");
+        Update update = new Update().set("status", AccountStatus.ACTIVE);
 
+        when(accountMapper.getAccountUpdate(request)).thenReturn(update);
+        when(accountRepository.updateAccountFields(id, update)).thenReturn(Mono.empty());
         when(accountRepository.findById(id)).thenReturn(Mono.empty());
 
         StepVerifier.create(accountService.updateAccount(id, Mono.just(request)))
             .expectError(NotFoundException.class)
             .verify();
     }
+
+    @Test
+    void updateAccount_EmptyUpdateIsBadRequest() {
+        String id = "129";
+        AccountPatchRequest request = new AccountPatchRequest();
+
+        when(accountMapper.getAccountUpdate(request)).thenReturn(new Update());
+
+        StepVerifier.create(accountService.updateAccount(id, Mono.just(request)))
+            .expectErrorMatches(e -> e instanceof BadRequestException && "At least one field must be provided".equals(e.getMessage()))
+            .verify();
+
+        verify(accountRepository, never()).updateAccountFields(eq(id), any());
+    }
+
+    @Test
+    void updateAccount_MaxMonthlyMovementsReached() {
+        String id = "123";
+        AccountPatchRequest request = new AccountPatchRequest();
+        request.setMonthlyMovements(10);
+        Update update = new Update().set("monthlyMovements", 10);
+
+        FixedTermAccount existingAccount = new FixedTermAccount();
+        existingAccount.setMaxMonthlyMovements(9);
+
+        when(accountMapper.getAccountUpdate(request)).thenReturn(update);
+        when(accountRepository.updateAccountFields(id, update)).thenReturn(Mono.empty());
+        when(accountRepository.findById(id)).thenReturn(Mono.just(existingAccount));
+
+        StepVerifier.create(accountService.updateAccount(id, Mono.just(request)))
+            .expectErrorMatches(e -> e instanceof BadRequestException
+                && e.getMessage().equals("Max monthly movements limit reached. The monthly movements available: 9"))
+            .verify();
+    }
+
+    @Test
+    void updateAccount_RejectsChangedAccountWithRetryMessage() {
+        String id = "125";
+        AccountPatchRequest request = new AccountPatchRequest();
+        request.setMonthlyMovements(5);
+        Update update = new Update().set("monthlyMovements", 5);
+
+        FixedTermAccount existingAccount = new FixedTermAccount();
+        existingAccount.setMaxMonthlyMovements(9);
+
+        when(accountMapper.getAccountUpdate(request)).thenReturn(update);
+        when(accountRepository.updateAccountFields(id, update)).thenReturn(Mono.empty());
+        when(accountRepository.findById(id)).thenReturn(Mono.just(existingAccount));
+
+        StepVerifier.create(accountService.updateAccount(id, Mono.just(request)))
+            .expectErrorMatches(e -> e instanceof BadRequestException
+                && e.getMessage().equals("Account changed while applying the update, please retry"))
+            .verify();
+    }
+
+    @Test
+    void updateAccount_ReactivationOfSecondSavingsAccountIsBadRequest() {
+        String id = "126";
+        AccountPatchRequest request = new AccountPatchRequest();
+        request.setStatus("ACTIVE");
+        Update update = new Update().set("status", AccountStatus.ACTIVE);
+
+        when(accountMapper.getAccountUpdate(request)).thenReturn(update);
+        when(accountRepository.updateAccountFields(id, update)).thenReturn(Mono.error(new DuplicateKeyException(
+            "E11000 duplicate key error collection: accounts index: " + MongoIndexInitializer.PERSONAL_SAVINGS_UNIQUE_INDEX)));
+
+        StepVerifier.create(accountService.updateAccount(id, Mono.just(request)))
+            .expectErrorMatches(e -> e instanceof BadRequestException
+                && e.getMessage().equals("PERSONAL customers can only have one SAVINGS account"))
+            .verify();
+    }
+
+    @Test
+    void updateAccount_DeactivationDetachesAccountFromDebitCards() {
+        String id = "127";
+        AccountPatchRequest request = new AccountPatchRequest();
+        request.setStatus("INACTIVE");
+        Update update = new Update().set("status", AccountStatus.INACTIVE);
+        Account updatedAccount = Account.builder().id(id).status(AccountStatus.INACTIVE).build();
+        DebitCard debitCard = DebitCard.builder().id("card-127").cardNumber("4000001234567127").build();
+        debitCardPrimaryAccountCache.putPrimaryAccountId("card-127", id);
+
+        when(accountMapper.getAccountUpdate(request)).thenReturn(update);
+        when(accountRepository.updateAccountFields(id, update)).thenReturn(Mono.just(updatedAccount));
+        when(accountMapper.getAccountResponse(updatedAccount)).thenReturn(new AccountResponse());
+        when(debitCardRepository.findByAssociatedAccountId(id)).thenReturn(Flux.just(debitCard));
+        when(debitCardRepository.detachAccount(id)).thenReturn(Mono.just(1L));
+
+        StepVerifier.create(accountService.updateAccount(id, Mono.just(request)))
+            .expectNextCount(1)
+            .verifyComplete();
+
+        verify(debitCardRepository).detachAccount(id);
+        StepVerifier.create(debitCardPrimaryAccountCache.getPrimaryAccountId("card-127"))
+            .verifyComplete();
+    }
+
+    @Test
+    void createAccount_StartsRemoteLookupsConcurrently() {
+        AccountRequest request = new AccountRequest();
+        request.setAccountType(AccountType.SAVINGS.toString());
+        request.setCustomerId("123");
+        request.setHolders(new ArrayList<>());
+        request.setSigners(new ArrayList<>());
+
+        CustomerResponse customer = new CustomerResponse();
+        customer.setId("123");
+        customer.setType(CustomerType.PERSONAL.toString());
+        customer.setStatus(CustomerStatus.ACTIVE.toString());
+        customer.setSubType(PersonalCustomerType.VIP.toString());
+
+        Account account = new Account();
+        account.setId("1");
+        AccountResponse response = new AccountResponse();
+        response.setId("1");
+
+        CreditDebtsResponse creditDebtsResponse = new CreditDebtsResponse();
+        creditDebtsResponse.setDebts(new CreditDebtsResponseDebts());
+
+        Sinks.Many<CreditCardResponse> creditCards = Sinks.many().unicast().onBackpressureBuffer();
+        PublisherProbe<CreditDebtsResponse> creditDebts = PublisherProbe.of(Mono.just(creditDebtsResponse));
+
+        when(customerService.getCustomerById("123")).thenReturn(Mono.just(customer));
+        when(creditCardService.getCustomerCreditCards("123")).thenReturn(creditCards.asFlux());
+        when(creditCardService.getCreditDebtsByCustomerId("123")).thenReturn(creditDebts.mono());
+        when(accountFactory.getAccount(any(), any())).thenReturn(account);
+        when(accountRepository.save(any())).thenReturn(Mono.just(account));
+        when(accountMapper.getAccountResponse(account)).thenReturn(response);
+
+        StepVerifier.create(accountService.createAccount(Mono.just(request)))
+            .then(() -> {
+                // credit cards are still pending, the debts lookup must already be running
+                creditDebts.assertWasSubscribed();
+                creditCards.tryEmitNext(new CreditCardResponse());
+                creditCards.tryEmitComplete();
+            })
+            .expectNext(response)
+            .verifyComplete();
+    }
+
+    @Test
+    void createAccount_KeepsErrorPrecedenceWhenLookupsFailTogether() {
+        AccountRequest request = new AccountRequest();
+        request.setAccountType(AccountType.SAVINGS.toString());
+        request.setCustomerId("123");
+        request.setHolders(List.of(new AccountMember()));
+        request.setSigners(new ArrayList<>());
+
+        CustomerResponse customer = new CustomerResponse();
+        customer.setId("123");
+        customer.setType(CustomerType.PERSONAL.toString());
+        customer.setStatus(CustomerStatus.ACTIVE.toString());
+        customer.setSubType(PersonalCustomerType.VIP.toString());
+
+        CreditDebtsResponseDebts debts = new CreditDebtsResponseDebts();
+        debts.setCredits(List.of("credit-1"));
+        CreditDebtsResponse creditDebtsResponse = new CreditDebtsResponse();
+        creditDebtsResponse.setDebts(debts);
+        creditDebtsResponse.setMessage("Customer has debts");
+
+        when(customerService.getCustomerById("123")).thenReturn(Mono.just(customer));
+        when(creditCardService.getCustomerCreditCards("123")).thenReturn(Flux.empty());
+        when(creditCardService.getCreditDebtsByCustomerId("123")).thenReturn(Mono.just(creditDebtsResponse));
+
+        StepVerifier.create(accountService.createAccount(Mono.just(request)))
+            .expectErrorMatches(throwable -> throwable instanceof BadRequestException
+                && throwable.getMessage().equals("PERSONAL VIP customers must have at least one CREDIT CARD for SAVINGS account"))
+            .verify();
+        verify(accountRepository, never()).findByCustomerId(any());
+    }
 }
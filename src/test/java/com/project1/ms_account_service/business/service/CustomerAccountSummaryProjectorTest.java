@@ -0,0 +1,91 @@
+package com.project1.ms_account_service.business.service;
+
+import com.project1.ms_account_service.model.entity.Account;
+import com.project1.ms_account_service.model.entity.AccountStatus;
+import com.project1.ms_account_service.model.entity.CustomerAccountSummary;
+import com.project1.ms_account_service.repository.CustomerAccountSummaryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CustomerAccountSummaryProjectorTest {
+
+    private final CustomerAccountSummaryRepository customerAccountSummaryRepository = mock(CustomerAccountSummaryRepository.class);
+
+    private final CustomerAccountSummaryProjector projector = new CustomerAccountSummaryProjector();
+
+    private final Account account = Account.builder().id("1").customerId("123").build();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(projector, "customerAccountSummaryRepository", customerAccountSummaryRepository);
+    }
+
+    @Test
+    void putAccounts_UpdatesExistingSummary() {
+        when(customerAccountSummaryRepository.putAccounts("123", List.of(account))).thenReturn(Mono.just(true));
+
+        StepVerifier.create(projector.putAccounts("123", List.of(account)))
+            .verifyComplete();
+
+        verify(customerAccountSummaryRepository, never()).rebuild("123");
+    }
+
+    @Test
+    void putAccounts_BuildsMissingSummaryFromAccounts() {
+        when(customerAccountSummaryRepository.putAccounts("123", List.of(account))).thenReturn(Mono.just(false));
+        when(customerAccountSummaryRepository.rebuild("123")).thenReturn(Mono.empty());
+
+        StepVerifier.create(projector.putAccounts("123", List.of(account)))
+            .verifyComplete();
+
+        verify(customerAccountSummaryRepository).rebuild("123");
+    }
+
+    @Test
+    void updateAccountState_DoesNotFailTheWriteWhenTheSummaryCannotBeUpdated() {
+        when(customerAccountSummaryRepository.updateAccountState("1", BigDecimal.TEN, AccountStatus.ACTIVE))
+            .thenReturn(Mono.error(new IllegalStateException("Connection reset")));
+
+        StepVerifier.create(projector.updateAccountState("1", BigDecimal.TEN, AccountStatus.ACTIVE))
+            .verifyComplete();
+    }
+
+    @Test
+    void getSummary_BuildsMissingSummaryBeforeReadingIt() {
+        CustomerAccountSummary summary = new CustomerAccountSummary("123", List.of());
+        when(customerAccountSummaryRepository.findById("123")).thenReturn(Mono.empty(), Mono.just(summary));
+        when(customerAccountSummaryRepository.rebuild("123")).thenReturn(Mono.empty());
+
+        StepVerifier.create(projector.getSummary("123"))
+            .expectNext(summary)
+            .verifyComplete();
+
+        verify(customerAccountSummaryRepository).rebuild("123");
+    }
+
+    @Test
+    void getSummary_EmptyForCustomerWithoutAccounts() {
+        when(customerAccountSummaryRepository.findById("456")).thenReturn(Mono.empty());
+        when(customerAccountSummaryRepository.rebuild("456")).thenReturn(Mono.empty());
+
+        StepVerifier.create(projector.getSummary("456"))
+            .assertNext(summary -> {
+                assertEquals("456", summary.getCustomerId());
+                assertTrue(summary.getAccounts().isEmpty());
+            })
+            .verifyComplete();
+    }
+}
@@ -1,17 +1,27 @@
 package com.project1.ms_account_service.business.service;
 
 import com.project1.ms_account_service.business.adapter.CreditCardService;
+import com.project1.ms_account_service.business.generator.CardNumberAllocator;
 import com.project1.ms_account_service.business.mapper.DebitCardMapper;
 import com.project1.ms_account_service.exception.BadRequestException;
 import com.project1.ms_account_service.exception.NotFoundException;
 import com.project1.ms_account_service.model.*;
+import com.project1.ms_account_service.model.entity.Account;
+import com.project1.ms_account_service.model.entity.AccountBalance;
+import com.project1.ms_account_service.model.entity.AccountStatus;
 import com.project1.ms_account_service.model.entity.DebitCard;
 import com.project1.ms_account_service.model.entity.DebitCardAssociation;
+import com.project1.ms_account_service.model.entity.DebitCardPrimaryBalance;
+import com.project1.ms_account_service.model.entity.SavingsAccount;
+import com.project1.ms_account_service.repository.AccountRepository;
 import com.project1.ms_account_service.repository.DebitCardRepository;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DuplicateKeyException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
@@ -19,6 +29,8 @@ import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @SpringBootTest
@@ -35,9 +47,23 @@ public class DebitCardServiceImplTest {
     @MockBean
     private CreditCardService creditCardService;
 
+    @MockBean
+    private CardNumberAllocator cardNumberAllocator;
+
+    @MockBean
+    private AccountRepository accountRepository;
+
+    @MockBean
+    private CustomerAccountSummaryProjector customerAccountSummaryProjector;
+
     @Autowired
     private DebitCardServiceImpl debitCardService;
 
+    @BeforeEach
+    void setUp() {
+        when(customerAccountSummaryProjector.updateAccountState(any(), any(), any())).thenReturn(Mono.empty());
+    }
+
     @Test
     void createDebitCard_Success() {
         DebitCardCreationRequest request = new DebitCardCreationRequest();
@@ -53,7 +79,8 @@ public class DebitCardServiceImplTest {
         creditDebtsResponse.setDebts(new CreditDebtsResponseDebts());
 
         when(accountService.getAccountById("123")).thenReturn(Mono.just(accountResponse));
-        when(debitCardMapper.getDebitCardCreationEntity(request)).thenReturn(debitCard);
+        when(cardNumberAllocator.nextCardNumber()).thenReturn(Mono.just("4000001234567899"));
+        when(debitCardMapper.getDebitCardCreationEntity(request, "4000001234567899")).thenReturn(debitCard);
         when(debitCardRepository.save(any())).thenReturn(Mono.just(debitCard));
         when(debitCardMapper.getDebitCardCreationResponse(debitCard)).thenReturn(response);
         when(creditCardService.getCreditDebtsByCustomerId("456")).thenReturn(Mono.just(creditDebtsResponse));
@@ -63,6 +90,38 @@ public class DebitCardServiceImplTest {
             .verifyComplete();
     }
 
+    @Test
+    void createDebitCard_RetriesWithNewCardNumberOnCollision() {
+        DebitCardCreationRequest request = new DebitCardCreationRequest();
+        request.setAccountId("123");
+
+        AccountResponse accountResponse = new AccountResponse();
+        accountResponse.setCustomerId("456");
+
+        DebitCard collided = DebitCard.builder().cardNumber("4000001234567899").build();
+        DebitCard debitCard = DebitCard.builder().cardNumber("4000009876543217").build();
+        DebitCardCreationResponse response = new DebitCardCreationResponse();
+
+        CreditDebtsResponse creditDebtsResponse = new CreditDebtsResponse();
+        creditDebtsResponse.setDebts(new CreditDebtsResponseDebts());
+
+        when(accountService.getAccountById("123")).thenReturn(Mono.just(accountResponse));
+        when(creditCardService.getCreditDebtsByCustomerId("456")).thenReturn(Mono.just(creditDebtsResponse));
+        when(cardNumberAllocator.nextCardNumber()).thenReturn(Mono.just("4000001234567899"), Mono.just("4000009876543217"));
+        when(debitCardMapper.getDebitCardCreationEntity(request, "4000001234567899")).thenReturn(collided);
+        when(debitCardMapper.getDebitCardCreationEntity(request, "4000009876543217")).thenReturn(debitCard);
+        when(debitCardRepository.save(collided)).thenReturn(Mono.error(new DuplicateKeyException("E11000 duplicate key error: cardNumber")));
+        when(debitCardRepository.save(debitCard)).thenReturn(Mono.just(debitCard));
+        when(debitCardMapper.getDebitCardCreationResponse(debitCard)).thenReturn(response);
+
+        StepVerifier.create(debitCardService.createDebitCard(Mono.just(request)))
+            .expectNext(response)
+            .verifyComplete();
+
+        verify(debitCardRepository).save(collided);
+        assertEquals("456", debitCard.getCustomerId());
+    }
+
     @Test
     void createDebitCardAssociation_Success() {
         String debitCardId = "789";
@@ -80,7 +139,7 @@ public class DebitCardServiceImplTest {
 
         when(debitCardRepository.findById(debitCardId)).thenReturn(Mono.just(debitCard));
         when(accountService.getAccountById("123")).thenReturn(Mono.just(accountResponse));
-        when(debitCardRepository.save(any())).thenReturn(Mono.just(debitCard));
+        when(debitCardRepository.appendAssociation(debitCardId, "123")).thenReturn(Mono.just(debitCard));
         when(debitCardMapper.getDebitCardCreationResponse(any())).thenReturn(response);
 
         StepVerifier.create(debitCardService.createDebitCardAssociation(debitCardId, Mono.just(request)))
@@ -88,6 +147,31 @@ public class DebitCardServiceImplTest {
             .verifyComplete();
     }
 
+    @Test
+    void createDebitCardAssociation_AssociatedConcurrently() {
+        String debitCardId = "789";
+        DebitCardCreationRequest request = new DebitCardCreationRequest();
+        request.setAccountId("123");
+
+        AccountResponse accountResponse = new AccountResponse();
+        accountResponse.setCustomerId("456");
+
+        DebitCard debitCard = new DebitCard();
+        debitCard.setCustomerId("456");
+        debitCard.setAssociations(new ArrayList<>());
+
+        when(debitCardRepository.findById(debitCardId)).thenReturn(Mono.just(debitCard));
+        when(accountService.getAccountById("123")).thenReturn(Mono.just(accountResponse));
+        when(debitCardRepository.appendAssociation(debitCardId, "123")).thenReturn(Mono.empty());
+
+        StepVerifier.create(debitCardService.createDebitCardAssociation(debitCardId, Mono.just(request)))
+            .expectErrorMatches(throwable -> throwable instanceof BadRequestException
+                && throwable.getMessage().equals("Account is already associated with the debit card"))
+            .verify();
+
+        verify(debitCardRepository, never()).save(any());
+    }
+
     @Test
     void createDebitCardAssociation_DebitCardNotFound() {
         String debitCardId = "789";
@@ -177,19 +261,10 @@ public class DebitCardServiceImplTest {
     @Test
     void getDebitCardPrimaryAccountBalance_Success() {
         String debitCardId = "789";
-        DebitCard debitCard = new DebitCard();
-        List<DebitCardAssociation> associations = new ArrayList<>();
-        associations.add(DebitCardAssociation.builder()
-            .accountId("123")
-            .position(1)
-            .build());
-        debitCard.setAssociations(associations);
+        AccountBalance accountBalance = new AccountBalance("ACC-1", BigDecimal.valueOf(100), AccountStatus.ACTIVE);
 
-        AccountResponse accountResponse = new AccountResponse();
-        accountResponse.setBalance(BigDecimal.valueOf(100));
-
-        when(debitCardRepository.findById(debitCardId)).thenReturn(Mono.just(debitCard));
-        when(accountService.getAccountById("123")).thenReturn(Mono.just(accountResponse));
+        when(debitCardRepository.findPrimaryAccountBalance(debitCardId))
+            .thenReturn(Mono.just(new DebitCardPrimaryBalance("123", accountBalance)));
 
         DebitCardBalanceResponse balanceResponse = new DebitCardBalanceResponse();
         balanceResponse.setBalance(BigDecimal.valueOf(100));
@@ -199,13 +274,217 @@ public class DebitCardServiceImplTest {
             .verifyComplete();
     }
 
+    @Test
+    void getDebitCardPrimaryAccountBalance_UsesCachedPrimaryAccount() {
+        String debitCardId = "790";
+        AccountBalance accountBalance = new AccountBalance("ACC-2", BigDecimal.valueOf(100), AccountStatus.ACTIVE);
+        AccountBalanceResponse accountBalanceResponse = new AccountBalanceResponse();
+        accountBalanceResponse.setBalance(BigDecimal.valueOf(80));
+
+        when(debitCardRepository.findPrimaryAccountBalance(debitCardId))
+            .thenReturn(Mono.just(new DebitCardPrimaryBalance("124", accountBalance)));
+        when(accountService.getAccountBalanceById("124")).thenReturn(Mono.just(accountBalanceResponse));
+
+        StepVerifier.create(debitCardService.getDebitCardPrimaryAccountBalance(debitCardId))
+            .expectNextMatches(response -> BigDecimal.valueOf(100).equals(response.getBalance()))
+            .verifyComplete();
+        StepVerifier.create(debitCardService.getDebitCardPrimaryAccountBalance(debitCardId))
+            .expectNextMatches(response -> BigDecimal.valueOf(80).equals(response.getBalance()))
+            .verifyComplete();
+
+        verify(debitCardRepository, times(1)).findPrimaryAccountBalance(debitCardId);
+        verify(debitCardRepository, never()).findById(debitCardId);
+    }
+
+    @Test
+    void getDebitCardPrimaryAccountBalance_CachedPrimaryAccountWithoutBalance_CompletesLikeAMiss() {
+        String debitCardId = "793";
+        AccountBalance accountBalance = new AccountBalance("ACC-3", null, AccountStatus.ACTIVE);
+
+        when(debitCardRepository.findPrimaryAccountBalance(debitCardId))
+            .thenReturn(Mono.just(new DebitCardPrimaryBalance("126", accountBalance)));
+        when(accountService.getAccountBalanceById("126")).thenReturn(Mono.just(new AccountBalanceResponse()));
+
+        StepVerifier.create(debitCardService.getDebitCardPrimaryAccountBalance(debitCardId))
+            .verifyComplete();
+        StepVerifier.create(debitCardService.getDebitCardPrimaryAccountBalance(debitCardId))
+            .verifyComplete();
+
+        verify(accountService).getAccountBalanceById("126");
+    }
+
     @Test
     void getDebitCardPrimaryAccountBalance_NotFound() {
-        String debitCardId = "789";
-        when(debitCardRepository.findById(debitCardId)).thenReturn(Mono.empty());
+        String debitCardId = "791";
+        when(debitCardRepository.findPrimaryAccountBalance(debitCardId)).thenReturn(Mono.empty());
 
         StepVerifier.create(debitCardService.getDebitCardPrimaryAccountBalance(debitCardId))
             .expectError(NotFoundException.class)
             .verify();
     }
+
+    @Test
+    void getDebitCardPrimaryAccountBalance_PrimaryAccountNotFound() {
+        String debitCardId = "792";
+        when(debitCardRepository.findPrimaryAccountBalance(debitCardId))
+            .thenReturn(Mono.just(new DebitCardPrimaryBalance("125", null)));
+
+        StepVerifier.create(debitCardService.getDebitCardPrimaryAccountBalance(debitCardId))
+            .expectErrorMatches(e -> e instanceof NotFoundException && e.getMessage().equals("Account not found with id: 125"))
+            .verify();
+    }
+
+    @Test
+    void getDebitCardByCardNumber_UsesCachedDebitCard() {
+        String cardNumber = "4000001111111111";
+        DebitCard debitCard = DebitCard.builder()
+            .id("800")
+            .cardNumber(cardNumber)
+            .customerId("456")
+            .associations(new ArrayList<>(List.of(
+                DebitCardAssociation.builder().accountId("acc-2").position(2).build(),
+                DebitCardAssociation.builder().accountId("acc-1").position(1).build())))
+            .build();
+        DebitCardResponse response = new DebitCardResponse();
+
+        when(debitCardRepository.findByCardNumber(cardNumber)).thenReturn(Mono.just(debitCard));
+        when(debitCardMapper.getDebitCardResponse(argThat(card -> card != null && "acc-1".equals(card.getAssociations().get(0).getAccountId()))))
+            .thenReturn(response);
+
+        StepVerifier.create(debitCardService.getDebitCardByCardNumber(cardNumber))
+            .expectNext(response)
+            .verifyComplete();
+        StepVerifier.create(debitCardService.getDebitCardByCardNumber(cardNumber))
+            .expectNext(response)
+            .verifyComplete();
+
+        verify(debitCardRepository, times(1)).findByCardNumber(cardNumber);
+    }
+
+    @Test
+    void getDebitCardByCardNumber_NotFound() {
+        String cardNumber = "4000002222222222";
+        when(debitCardRepository.findByCardNumber(cardNumber)).thenReturn(Mono.empty());
+
+        StepVerifier.create(debitCardService.getDebitCardByCardNumber(cardNumber))
+            .expectErrorMatches(e -> e instanceof NotFoundException && e.getMessage().equals("Debit card not found with card number: " + cardNumber))
+            .verify();
+    }
+
+    @Test
+    void getDebitCardPrimaryAccountBalanceByCardNumber_ReadsLowestPositionAccount() {
+        String cardNumber = "4000003333333333";
+        DebitCard debitCard = DebitCard.builder()
+            .id("801")
+            .cardNumber(cardNumber)
+            .associations(List.of(
+                DebitCardAssociation.builder().accountId("acc-2").position(2).build(),
+                DebitCardAssociation.builder().accountId("acc-1").position(1).build()))
+            .build();
+        AccountBalanceResponse accountBalanceResponse = new AccountBalanceResponse();
+        accountBalanceResponse.setBalance(BigDecimal.valueOf(70));
+
+        when(debitCardRepository.findByCardNumber(cardNumber)).thenReturn(Mono.just(debitCard));
+        when(accountService.getAccountBalanceById("acc-1")).thenReturn(Mono.just(accountBalanceResponse));
+
+        StepVerifier.create(debitCardService.getDebitCardPrimaryAccountBalanceByCardNumber(cardNumber))
+            .expectNextMatches(response -> BigDecimal.valueOf(70).equals(response.getBalance()))
+            .verifyComplete();
+    }
+
+    @Test
+    void createDebitCardAssociation_EvictsCardNumberCache() {
+        String cardNumber = "4000004444444444";
+        String debitCardId = "802";
+        DebitCardCreationRequest request = new DebitCardCreationRequest();
+        request.setAccountId("123");
+
+        AccountResponse accountResponse = new AccountResponse();
+        accountResponse.setCustomerId("456");
+
+        when(debitCardRepository.findByCardNumber(cardNumber))
+            .thenAnswer(invocation -> Mono.just(DebitCard.builder().id(debitCardId).cardNumber(cardNumber).associations(new ArrayList<>()).build()));
+        when(debitCardRepository.findById(debitCardId))
+            .thenReturn(Mono.just(DebitCard.builder().id(debitCardId).cardNumber(cardNumber).customerId("456").associations(new ArrayList<>()).build()));
+        when(accountService.getAccountById("123")).thenReturn(Mono.just(accountResponse));
+        when(debitCardRepository.appendAssociation(debitCardId, "123"))
+            .thenReturn(Mono.just(DebitCard.builder().id(debitCardId).cardNumber(cardNumber).customerId("456").associations(new ArrayList<>()).build()));
+        when(debitCardMapper.getDebitCardCreationResponse(any())).thenReturn(new DebitCardCreationResponse());
+        when(debitCardMapper.getDebitCardResponse(any())).thenReturn(new DebitCardResponse());
+
+        StepVerifier.create(debitCardService.getDebitCardByCardNumber(cardNumber))
+            .expectNextCount(1)
+            .verifyComplete();
+        StepVerifier.create(debitCardService.createDebitCardAssociation(debitCardId, Mono.just(request)))
+            .expectNextCount(1)
+            .verifyComplete();
+        StepVerifier.create(debitCardService.getDebitCardByCardNumber(cardNumber))
+            .expectNextCount(1)
+            .verifyComplete();
+
+        verify(debitCardRepository, times(2)).findByCardNumber(cardNumber);
+    }
+
+    @Test
+    void authorizeDebitCardPayment_ChargesFirstAccountThatCanPay() {
+        String cardNumber = "4000005555555555";
+        DebitCard debitCard = DebitCard.builder()
+            .id("803")
+            .cardNumber(cardNumber)
+            .associations(List.of(
+                DebitCardAssociation.builder().accountId("acc-5").position(5).build(),
+                DebitCardAssociation.builder().accountId("acc-1").position(1).build(),
+                DebitCardAssociation.builder().accountId("acc-2").position(2).build(),
+                DebitCardAssociation.builder().accountId("acc-3").position(3).build(),
+                DebitCardAssociation.builder().accountId("acc-4").position(4).build()))
+            .build();
+        SavingsAccount limitReached = SavingsAccount.builder().id("acc-2").status(AccountStatus.ACTIVE).balance(BigDecimal.valueOf(500))
+            .monthlyMovements(30).maxMonthlyMovements(30).build();
+        Account inactive = Account.builder().id("acc-3").status(AccountStatus.INACTIVE).balance(BigDecimal.valueOf(500)).build();
+        Account changedAfterRead = Account.builder().id("acc-4").status(AccountStatus.ACTIVE).balance(BigDecimal.valueOf(500)).build();
+        Account funded = Account.builder().id("acc-5").status(AccountStatus.ACTIVE).balance(BigDecimal.valueOf(100)).build();
+        AccountMovementRequest request = new AccountMovementRequest();
+        request.setAmount(BigDecimal.valueOf(60));
+
+        when(debitCardRepository.findByCardNumber(cardNumber)).thenReturn(Mono.just(debitCard));
+        when(accountRepository.applyMovement("acc-1", BigDecimal.valueOf(-60))).thenReturn(Mono.empty());
+        when(accountRepository.findMovementStatesByIdIn(List.of("acc-2", "acc-3", "acc-4", "acc-5")))
+            .thenReturn(Flux.just(funded, inactive, changedAfterRead, limitReached));
+        when(accountRepository.applyMovement("acc-4", BigDecimal.valueOf(-60))).thenReturn(Mono.empty());
+        when(accountRepository.applyMovement("acc-5", BigDecimal.valueOf(-60)))
+            .thenReturn(Mono.just(new AccountBalance("ACC-5", BigDecimal.valueOf(40), AccountStatus.ACTIVE)));
+
+        StepVerifier.create(debitCardService.authorizeDebitCardPayment(cardNumber, Mono.just(request)))
+            .expectNextMatches(response -> "acc-5".equals(response.getAccountId())
+                && "ACC-5".equals(response.getAccountNumber())
+                && Integer.valueOf(5).equals(response.getPosition())
+                && BigDecimal.valueOf(40).equals(response.getBalance()))
+            .verifyComplete();
+
+        verify(accountRepository, never()).applyMovement(eq("acc-2"), any());
+        verify(accountRepository, never()).applyMovement(eq("acc-3"), any());
+        verify(customerAccountSummaryProjector).updateAccountState("acc-5", BigDecimal.valueOf(40), AccountStatus.ACTIVE);
+    }
+
+    @Test
+    void authorizeDebitCardPayment_NoAccountCanPay() {
+        String cardNumber = "4000006666666666";
+        DebitCard debitCard = DebitCard.builder()
+            .id("804")
+            .cardNumber(cardNumber)
+            .associations(List.of(DebitCardAssociation.builder().accountId("acc-5").position(1).build()))
+            .build();
+        AccountMovementRequest request = new AccountMovementRequest();
+        request.setAmount(BigDecimal.valueOf(60));
+
+        when(debitCardRepository.findByCardNumber(cardNumber)).thenReturn(Mono.just(debitCard));
+        when(accountRepository.applyMovement("acc-5", BigDecimal.valueOf(-60))).thenReturn(Mono.empty());
+
+        StepVerifier.create(debitCardService.authorizeDebitCardPayment(cardNumber, Mono.just(request)))
+            .expectErrorMatches(e -> e instanceof BadRequestException
+                && e.getMessage().equals("No account associated to the debit card can pay the amount"))
+            .verify();
+
+        verify(accountRepository, never()).findMovementStatesByIdIn(any());
+    }
 }
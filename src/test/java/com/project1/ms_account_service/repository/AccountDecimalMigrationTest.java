@@ -0,0 +1,74 @@
+package com.project1.ms_account_service.repository;
+
+import com.project1.ms_account_service.model.entity.Account;
+import com.project1.ms_account_service.model.entity.MigrationCheckpoint;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AccountDecimalMigrationTest {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate = mock(ReactiveMongoTemplate.class);
+
+    private final AccountDecimalMigration accountDecimalMigration = new AccountDecimalMigration();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(accountDecimalMigration, "reactiveMongoTemplate", reactiveMongoTemplate);
+        ReflectionTestUtils.setField(accountDecimalMigration, "batchSize", 500);
+        when(reactiveMongoTemplate.getCollectionName(Account.class)).thenReturn("accounts");
+        when(reactiveMongoTemplate.find(any(Query.class), eq(Document.class), eq("accounts"))).thenReturn(Flux.empty());
+        when(reactiveMongoTemplate.save(any(MigrationCheckpoint.class)))
+            .thenAnswer(invocation -> Mono.just(invocation.getArgument(0, MigrationCheckpoint.class)));
+    }
+
+    @Test
+    void migrate_CompletedBefore_ScansAgainFromTheLowestId() {
+        when(reactiveMongoTemplate.findById(AccountDecimalMigration.MIGRATION_ID, MigrationCheckpoint.class))
+            .thenReturn(Mono.just(MigrationCheckpoint.builder().id(AccountDecimalMigration.MIGRATION_ID).lastId("999").migrated(10).completed(true).build()));
+
+        StepVerifier.create(accountDecimalMigration.migrate())
+            .assertNext(checkpoint -> {
+                assertTrue(checkpoint.isCompleted());
+                assertEquals(10, checkpoint.getMigrated());
+            })
+            .verifyComplete();
+
+        assertEquals(Set.of("$or"), getBatchQuery().getQueryObject().keySet());
+    }
+
+    @Test
+    void migrate_Interrupted_ResumesAfterLastId() {
+        when(reactiveMongoTemplate.findById(AccountDecimalMigration.MIGRATION_ID, MigrationCheckpoint.class))
+            .thenReturn(Mono.just(MigrationCheckpoint.builder().id(AccountDecimalMigration.MIGRATION_ID).lastId("999").migrated(10).build()));
+
+        StepVerifier.create(accountDecimalMigration.migrate())
+            .expectNextMatches(MigrationCheckpoint::isCompleted)
+            .verifyComplete();
+
+        assertEquals(Set.of("$and"), getBatchQuery().getQueryObject().keySet());
+    }
+
+    private Query getBatchQuery() {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(reactiveMongoTemplate).find(query.capture(), eq(Document.class), eq("accounts"));
+        return query.getValue();
+    }
+}
@@ -0,0 +1,62 @@
+package com.project1.ms_account_service.repository;
+
+import com.project1.ms_account_service.model.entity.Account;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AccountRepositoryCustomImplTest {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate = mock(ReactiveMongoTemplate.class);
+
+    private final AccountRepositoryCustomImpl accountRepository = new AccountRepositoryCustomImpl();
+
+    private final Account account = Account.builder().id("1").build();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(accountRepository, "reactiveMongoTemplate", reactiveMongoTemplate);
+    }
+
+    @Test
+    void updateAccountFields_UnsetOnlyUpdateIsAppliedWithoutLimitCheck() {
+        Update update = new Update().unset("maintenanceFee");
+        when(reactiveMongoTemplate.findAndModify(any(Query.class), eq(update), any(FindAndModifyOptions.class), eq(Account.class)))
+            .thenReturn(Mono.just(account));
+
+        StepVerifier.create(accountRepository.updateAccountFields("1", update))
+            .expectNext(account)
+            .verifyComplete();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(reactiveMongoTemplate).findAndModify(query.capture(), eq(update), any(FindAndModifyOptions.class), eq(Account.class));
+        assertEquals(new Document("id", "1"), query.getValue().getQueryObject());
+    }
+
+    @Test
+    void updateAccountFields_EmptyUpdateOnlyReadsTheAccount() {
+        when(reactiveMongoTemplate.findOne(any(Query.class), eq(Account.class))).thenReturn(Mono.just(account));
+
+        StepVerifier.create(accountRepository.updateAccountFields("1", new Update()))
+            .expectNext(account)
+            .verifyComplete();
+
+        verify(reactiveMongoTemplate, never()).findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Account.class));
+    }
+}
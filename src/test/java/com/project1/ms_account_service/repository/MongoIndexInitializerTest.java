@@ -0,0 +1,240 @@
+package com.project1.ms_account_service.repository;
+
+import com.project1.ms_account_service.model.entity.Account;
+import com.project1.ms_account_service.model.entity.CustomerAccountSummary;
+import com.project1.ms_account_service.model.entity.DebitCard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.bson.Document;
+import org.mockito.InOrder;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MongoIndexInitializerTest {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate = mock(ReactiveMongoTemplate.class);
+
+    private final ReactiveIndexOperations accountIndexOps = mock(ReactiveIndexOperations.class);
+
+    private final ReactiveIndexOperations debitCardIndexOps = mock(ReactiveIndexOperations.class);
+
+    private final ReactiveIndexOperations customerAccountSummaryIndexOps = mock(ReactiveIndexOperations.class);
+
+    private final MongoIndexInitializer mongoIndexInitializer = new MongoIndexInitializer();
+
+    private final MongoIndexHealthIndicator mongoIndexHealthIndicator = new MongoIndexHealthIndicator();
+
+    @BeforeEach
+    void setUp() {
+        when(reactiveMongoTemplate.indexOps(Account.class)).thenReturn(accountIndexOps);
+        when(reactiveMongoTemplate.indexOps(DebitCard.class)).thenReturn(debitCardIndexOps);
+        when(reactiveMongoTemplate.indexOps(CustomerAccountSummary.class)).thenReturn(customerAccountSummaryIndexOps);
+        ReflectionTestUtils.setField(mongoIndexInitializer, "reactiveMongoTemplate", reactiveMongoTemplate);
+        ReflectionTestUtils.setField(mongoIndexInitializer, "mode", MongoIndexInitializer.Mode.CREATE);
+        ReflectionTestUtils.setField(mongoIndexInitializer, "timeout", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(mongoIndexHealthIndicator, "mongoIndexInitializer", mongoIndexInitializer);
+    }
+
+    @Test
+    void ensureIndexes_CreatesEveryRequiredIndex() {
+        when(accountIndexOps.ensureIndex(any())).thenReturn(Mono.just("account-index"));
+        when(debitCardIndexOps.ensureIndex(any())).thenReturn(Mono.just("debit-card-index"));
+        when(customerAccountSummaryIndexOps.ensureIndex(any())).thenReturn(Mono.just("customer-account-summary-index"));
+
+        StepVerifier.create(mongoIndexInitializer.ensureIndexes())
+            .expectNextCount(10)
+            .verifyComplete();
+
+        verify(accountIndexOps, times(6)).ensureIndex(any());
+        verify(debitCardIndexOps, times(3)).ensureIndex(any());
+        verify(customerAccountSummaryIndexOps).ensureIndex(any());
+    }
+
+    @Test
+    void findMissingIndexes_ReportsIndexesNotFoundInCollections() {
+        mockExistingIndexes(
+            accountIndexes(false),
+            Flux.just(indexInfo(MongoIndexInitializer.CARD_NUMBER_UNIQUE_INDEX)),
+            customerAccountSummaryIndexes());
+
+        StepVerifier.create(mongoIndexInitializer.findMissingIndexes())
+            .expectNext(Set.of(MongoIndexInitializer.DEBIT_CARD_CUSTOMER_INDEX, MongoIndexInitializer.DEBIT_CARD_ASSOCIATION_ACCOUNT_INDEX))
+            .verifyComplete();
+    }
+
+    @Test
+    void findMissingIndexes_ReportsIndexWithDifferentUniqueness() {
+        mockExistingIndexes(accountIndexes(true), debitCardIndexes(), customerAccountSummaryIndexes());
+
+        StepVerifier.create(mongoIndexInitializer.findMissingIndexes())
+            .expectNext(Set.of(MongoIndexInitializer.ACCOUNT_BALANCE_COVERING_INDEX))
+            .verifyComplete();
+    }
+
+    @Test
+    void findMissingIndexes_ReportsIndexWithDifferentKeysOrPartialFilter() {
+        mockExistingIndexes(
+            Flux.just(indexInfo(MongoIndexInitializer.ACCOUNT_NUMBER_UNIQUE_INDEX),
+                indexInfo(MongoIndexInitializer.ACCOUNT_BALANCE_COVERING_INDEX),
+                indexInfo(declaredIndex(MongoIndexInitializer.CUSTOMER_ACCOUNTS_INDEX)
+                    .append("key", new Document("customerId", 1))),
+                indexInfo(MongoIndexInitializer.CUSTOMER_ACCOUNT_TYPE_STATUS_INDEX),
+                indexInfo(declaredIndex(MongoIndexInitializer.PERSONAL_SAVINGS_UNIQUE_INDEX)
+                    .append("partialFilterExpression", new Document("status", "ACTIVE"))),
+                indexInfo(MongoIndexInitializer.PERSONAL_CHECKING_UNIQUE_INDEX)),
+            debitCardIndexes(), customerAccountSummaryIndexes());
+
+        StepVerifier.create(mongoIndexInitializer.findMissingIndexes())
+            .expectNext(Set.of(MongoIndexInitializer.CUSTOMER_ACCOUNTS_INDEX, MongoIndexInitializer.PERSONAL_SAVINGS_UNIQUE_INDEX))
+            .verifyComplete();
+    }
+
+    @Test
+    void initializeIndexes_IndexThatCannotBeCreated_IsReportedMissingAndOthersAreCreated() {
+        when(accountIndexOps.getIndexInfo()).thenReturn(Flux.empty(),
+            accountIndexes(false).filter(index -> !MongoIndexInitializer.PERSONAL_SAVINGS_UNIQUE_INDEX.equals(index.getName())));
+        when(debitCardIndexOps.getIndexInfo()).thenReturn(debitCardIndexes());
+        when(customerAccountSummaryIndexOps.getIndexInfo()).thenReturn(customerAccountSummaryIndexes());
+        when(accountIndexOps.ensureIndex(any())).thenReturn(Mono.just("account-index"));
+        when(accountIndexOps.ensureIndex(argThat(index -> MongoIndexInitializer.PERSONAL_SAVINGS_UNIQUE_INDEX.equals(index.getIndexOptions().get("name")))))
+            .thenReturn(Mono.error(new DuplicateKeyException("E11000 duplicate key error")));
+        when(debitCardIndexOps.ensureIndex(any())).thenReturn(Mono.just("debit-card-index"));
+        when(customerAccountSummaryIndexOps.ensureIndex(any())).thenReturn(Mono.just("customer-account-summary-index"));
+
+        mongoIndexInitializer.initializeIndexes();
+
+        verify(accountIndexOps, times(6)).ensureIndex(any());
+        verify(debitCardIndexOps, times(3)).ensureIndex(any());
+        verify(customerAccountSummaryIndexOps).ensureIndex(any());
+        assertEquals(Set.of(MongoIndexInitializer.PERSONAL_SAVINGS_UNIQUE_INDEX), mongoIndexInitializer.getMissingIndexes());
+    }
+
+    @Test
+    void initializeIndexes_CreateMode_RecreatesIndexWithChangedUniqueness() {
+        ReflectionTestUtils.setField(mongoIndexInitializer, "failFast", true);
+        when(accountIndexOps.getIndexInfo()).thenReturn(accountIndexes(true), accountIndexes(false));
+        when(debitCardIndexOps.getIndexInfo()).thenReturn(debitCardIndexes());
+        when(customerAccountSummaryIndexOps.getIndexInfo()).thenReturn(customerAccountSummaryIndexes());
+        when(accountIndexOps.dropIndex(any(String.class))).thenReturn(Mono.empty());
+        when(accountIndexOps.ensureIndex(any())).thenReturn(Mono.just("account-index"));
+        when(debitCardIndexOps.ensureIndex(any())).thenReturn(Mono.just("debit-card-index"));
+        when(customerAccountSummaryIndexOps.ensureIndex(any())).thenReturn(Mono.just("customer-account-summary-index"));
+
+        mongoIndexInitializer.initializeIndexes();
+
+        InOrder inOrder = inOrder(accountIndexOps);
+        inOrder.verify(accountIndexOps).dropIndex(MongoIndexInitializer.ACCOUNT_BALANCE_COVERING_INDEX);
+        inOrder.verify(accountIndexOps, times(6)).ensureIndex(any());
+        verify(accountIndexOps, never()).dropIndex(MongoIndexInitializer.ACCOUNT_NUMBER_UNIQUE_INDEX);
+        assertEquals(Collections.emptySet(), mongoIndexInitializer.getMissingIndexes());
+    }
+
+    @Test
+    void initializeIndexes_VerifyModeWithFailFast_ThrowsWhenIndexesAreMissing() {
+        ReflectionTestUtils.setField(mongoIndexInitializer, "mode", MongoIndexInitializer.Mode.VERIFY);
+        ReflectionTestUtils.setField(mongoIndexInitializer, "failFast", true);
+        mockExistingIndexes(Flux.empty(), Flux.empty(), Flux.empty());
+
+        assertThrows(IllegalStateException.class, mongoIndexInitializer::initializeIndexes);
+
+        verify(accountIndexOps, never()).ensureIndex(any());
+        verify(accountIndexOps, never()).dropIndex(any(String.class));
+        assertEquals(10, mongoIndexInitializer.getMissingIndexes().size());
+    }
+
+    @Test
+    void health_ReportsDegradedWhileIndexesAreMissing() {
+        StepVerifier.create(mongoIndexHealthIndicator.health())
+            .expectNextMatches(health -> Status.UNKNOWN.equals(health.getStatus()))
+            .verifyComplete();
+
+        mongoIndexInitializer.reportMissingIndexes(Set.of(MongoIndexInitializer.CARD_NUMBER_UNIQUE_INDEX));
+
+        StepVerifier.create(mongoIndexHealthIndicator.health())
+            .expectNextMatches(health -> MongoIndexHealthIndicator.DEGRADED.equals(health.getStatus())
+                && Set.of(MongoIndexInitializer.CARD_NUMBER_UNIQUE_INDEX).equals(health.getDetails().get("missing")))
+            .verifyComplete();
+
+        mongoIndexInitializer.reportMissingIndexes(Collections.emptySet());
+
+        StepVerifier.create(mongoIndexHealthIndicator.health().map(Health::getStatus))
+            .expectNext(Status.UP)
+            .verifyComplete();
+    }
+
+    private void mockExistingIndexes(Flux<IndexInfo> accountIndexes, Flux<IndexInfo> debitCardIndexes, Flux<IndexInfo> customerAccountSummaryIndexes) {
+        when(accountIndexOps.getIndexInfo()).thenReturn(accountIndexes);
+        when(debitCardIndexOps.getIndexInfo()).thenReturn(debitCardIndexes);
+        when(customerAccountSummaryIndexOps.getIndexInfo()).thenReturn(customerAccountSummaryIndexes);
+    }
+
+    /**
+     * @param coveringIndexUnique Whether the balance covering index is unique, as a previous version created it
+     */
+    private Flux<IndexInfo> accountIndexes(boolean coveringIndexUnique) {
+        return Flux.just(indexInfo(MongoIndexInitializer.ACCOUNT_NUMBER_UNIQUE_INDEX),
+            indexInfo(declaredIndex(MongoIndexInitializer.ACCOUNT_BALANCE_COVERING_INDEX).append("unique", coveringIndexUnique)),
+            indexInfo(MongoIndexInitializer.CUSTOMER_ACCOUNTS_INDEX),
+            indexInfo(MongoIndexInitializer.CUSTOMER_ACCOUNT_TYPE_STATUS_INDEX),
+            indexInfo(MongoIndexInitializer.PERSONAL_SAVINGS_UNIQUE_INDEX),
+            indexInfo(MongoIndexInitializer.PERSONAL_CHECKING_UNIQUE_INDEX));
+    }
+
+    private Flux<IndexInfo> debitCardIndexes() {
+        return Flux.just(indexInfo(MongoIndexInitializer.CARD_NUMBER_UNIQUE_INDEX),
+            indexInfo(MongoIndexInitializer.DEBIT_CARD_CUSTOMER_INDEX),
+            indexInfo(MongoIndexInitializer.DEBIT_CARD_ASSOCIATION_ACCOUNT_INDEX));
+    }
+
+    private Flux<IndexInfo> customerAccountSummaryIndexes() {
+        return Flux.just(indexInfo(MongoIndexInitializer.CUSTOMER_ACCOUNT_SUMMARY_ACCOUNT_INDEX));
+    }
+
+    /**
+     * @return Index as listed by MongoDB when it was created from its declaration
+     */
+    private IndexInfo indexInfo(String name) {
+        return indexInfo(declaredIndex(name));
+    }
+
+    /**
+     * @return Options and keys of the declared index, in the shape of a listIndexes entry
+     */
+    private Document declaredIndex(String name) {
+        Index index = mongoIndexInitializer.getRequiredIndexes().values().stream()
+            .flatMap(List::stream)
+            .filter(declared -> name.equals(declared.getIndexOptions().get("name")))
+            .findFirst()
+            .orElseThrow();
+        return new Document(index.getIndexOptions()).append("key", index.getIndexKeys());
+    }
+
+    private static IndexInfo indexInfo(Document listedIndex) {
+        return IndexInfo.indexInfoOf(listedIndex);
+    }
+}